@@ -0,0 +1,376 @@
+package org.duckwings.processor;
+
+import org.duckwings.annotation.AdapterNames;
+import org.duckwings.annotation.DuckFace;
+import org.duckwings.annotation.DuckMapping;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * Generates adapters for interfaces annotated by {@link DuckFace}. Adapter is plain java class that extends
+ * {@code org.duckwings.GeneratedAdapter}, implements the face and calls methods of the target class directly.
+ * Methods are matched by name and parameter types exactly as {@code ReflectionalWrapper} does unless {@link DuckMapping}
+ * defines other method or static function. Face method that cannot be mapped is reported as error.
+ * Exception thrown by the target method is handled by the wrapper (default value or {@code throwIfAbsentAtRuntime()})
+ * exactly as at runtime.
+ */
+@SupportedAnnotationTypes("org.duckwings.annotation.DuckFace")
+public class DuckFaceProcessor extends AbstractProcessor {
+    private static final String ADAPTER = "org.duckwings.GeneratedAdapter";
+    private static final String WRAPPER = "org.duckwings.ReflectionalWrapper";
+    private static final Set<String> FUTURES = new HashSet<>(Arrays.asList(
+            "java.util.concurrent.CompletableFuture", "java.util.concurrent.CompletionStage", "java.util.concurrent.Future"));
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(DuckFace.class)) {
+            if (element.getKind() != ElementKind.INTERFACE) {
+                error(element, "@DuckFace can be applied to interface only");
+                continue;
+            }
+            TypeElement face = (TypeElement)element;
+            if (!face.getTypeParameters().isEmpty()) {
+                error(face, "Generic interface cannot be used as @DuckFace");
+                continue;
+            }
+            if (!accessible(face, packageOf(face))) {
+                error(face, "@DuckFace must not be private");
+                continue;
+            }
+            for (TypeMirror target : classes(annotation(face, DuckFace.class), "target")) {
+                if (target.getKind() != TypeKind.DECLARED) {
+                    error(face, format("%s cannot be used as target", target));
+                    continue;
+                }
+                try {
+                    generate(face, (TypeElement)types().asElement(target));
+                } catch (IOException e) {
+                    error(face, format("Cannot generate adapter for %s: %s", target, e.getMessage()));
+                }
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement face, TypeElement target) throws IOException {
+        PackageElement pkg = packageOf(face);
+        if (!accessible(target, pkg)) {
+            error(face, format("%s is not accessible from package %s", target.getQualifiedName(), pkg.getQualifiedName()));
+            return;
+        }
+
+        String adapterName = AdapterNames.adapterName(elements().getBinaryName(face).toString(), elements().getBinaryName(target).toString());
+        String simpleName = adapterName.substring(adapterName.lastIndexOf('.') + 1);
+        String faceName = face.getQualifiedName().toString();
+        String targetName = target.getQualifiedName().toString();
+
+        List<String> methods = new ArrayList<>();
+        boolean valid = true;
+        for (ExecutableElement method : faceMethods(face)) {
+            String call = call(faceName, method, target, pkg);
+            if (call == null) {
+                if (!method.getModifiers().contains(Modifier.DEFAULT)) {
+                    error(method, format("Method %s of %s is not implemented by %s", method, faceName, targetName));
+                    valid = false;
+                }
+                continue;
+            }
+            methods.add(method(faceName, method, call));
+        }
+        if (!valid) {
+            return;
+        }
+
+        try (PrintWriter out = new PrintWriter(processingEnv.getFiler().createSourceFile(adapterName, face).openWriter())) {
+            if (!pkg.isUnnamed()) {
+                out.printf("package %s;%n%n", pkg.getQualifiedName());
+            }
+            out.printf("/**%n * Adapter of {@link %s} to {@link %s} generated by %s.%n */%n", targetName, faceName, getClass().getName());
+            out.printf("@SuppressWarnings({\"unchecked\", \"rawtypes\"})%n");
+            out.printf("public final class %s extends %s implements %s {%n", simpleName, ADAPTER, faceName);
+            out.printf("    public %s(Object target, Object[] others, %s<?, ?> wrapper) {%n", simpleName, WRAPPER);
+            out.printf("        super(target, others, wrapper);%n");
+            out.printf("    }%n%n");
+            out.printf("    @Override%n");
+            out.printf("    protected %s newInstance(Object target, Object[] others) {%n", ADAPTER);
+            out.printf("        return new %s(target, others, wrapper);%n", simpleName);
+            out.printf("    }%n");
+            for (String method : methods) {
+                out.printf("%n%s", method);
+            }
+            // equals(), hashCode() and toString() are implemented by the base class according to the wrapper's equality
+            out.printf("}%n");
+        }
+    }
+
+    /**
+     * @return abstract and default methods of the face one per signature except methods of {@link Object}
+     */
+    private Collection<ExecutableElement> faceMethods(TypeElement face) {
+        Map<String, ExecutableElement> methods = new LinkedHashMap<>();
+        for (Element member : elements().getAllMembers(face)) {
+            if (member.getKind() == ElementKind.METHOD && !member.getModifiers().contains(Modifier.STATIC)) {
+                ExecutableElement method = (ExecutableElement)member;
+                if (!isObjectMethod(method)) {
+                    methods.putIfAbsent(method.getSimpleName() + erasures(method.getParameters()).toString(), method);
+                }
+            }
+        }
+        return methods.values();
+    }
+
+    private boolean isObjectMethod(ExecutableElement method) {
+        String name = method.getSimpleName().toString();
+        int params = method.getParameters().size();
+        return ("equals".equals(name) && params == 1 && "java.lang.Object".equals(erasure(method.getParameters().get(0).asType()))) ||
+                (("hashCode".equals(name) || "toString".equals(name)) && params == 0) ||
+                ((TypeElement)method.getEnclosingElement()).getQualifiedName().contentEquals("java.lang.Object");
+    }
+
+    /**
+     * Finds method that implements given face method.
+     * @return java expression that calls the method or {@code null} if method is not found
+     */
+    private String call(String faceName, ExecutableElement faceMethod, TypeElement target, PackageElement pkg) {
+        AnnotationMirror mapping = annotation(faceMethod, DuckMapping.class);
+        String name = faceMethod.getSimpleName().toString();
+        TypeElement owner = target;
+        boolean function = false;
+        if (mapping != null) {
+            String value = (String)value(mapping, "value").getValue();
+            if (!value.isEmpty()) {
+                name = value;
+            }
+            TypeMirror using = (TypeMirror)value(mapping, "using").getValue();
+            if (using.getKind() == TypeKind.DECLARED) {
+                owner = (TypeElement)types().asElement(using);
+                function = true;
+            }
+        }
+
+        List<String> faceParams = erasures(faceMethod.getParameters());
+        List<String> args = new ArrayList<>();
+        for (int i = 0; i < faceParams.size(); i++) {
+            args.add("p" + i);
+        }
+        for (Element member : elements().getAllMembers(owner)) {
+            if (member.getKind() != ElementKind.METHOD || !member.getSimpleName().contentEquals(name) || !callable(member, pkg)) {
+                continue;
+            }
+            ExecutableElement method = (ExecutableElement)member;
+            boolean isStatic = method.getModifiers().contains(Modifier.STATIC);
+            List<? extends VariableElement> params = method.getParameters();
+            String receiver;
+            List<String> callArgs = new ArrayList<>(args);
+            if (function) {
+                // static function that accepts the target as the first argument
+                if (!isStatic || params.isEmpty() || !types().isAssignable(types().erasure(target.asType()), types().erasure(params.get(0).asType())) ||
+                        !erasures(params.subList(1, params.size())).equals(faceParams)) {
+                    continue;
+                }
+                receiver = owner.getQualifiedName().toString();
+                callArgs.add(0, format("(%s)target", target.getQualifiedName()));
+            } else {
+                if (!erasures(params).equals(faceParams)) {
+                    continue;
+                }
+                receiver = isStatic ? target.getQualifiedName().toString() : format("((%s)target)", target.getQualifiedName());
+            }
+            String call = format("%s.%s(%s)", receiver, name, String.join(", ", callArgs));
+            if (returnable(method.getReturnType(), faceMethod.getReturnType())) {
+                return call;
+            }
+            if (asyncReturnable(method.getReturnType(), faceMethod.getReturnType())) {
+                // synchronous method is called by the executor of the wrapper
+                List<String> failArgs = new ArrayList<>();
+                failArgs.add(faceName + ".class");
+                failArgs.add('"' + faceMethod.getSimpleName().toString() + '"');
+                faceParams.forEach(p -> failArgs.add(p + ".class"));
+                String body = method.getReturnType().getKind() == TypeKind.VOID ? format("{ %s; return null; }", call) : call;
+                return format("(java.util.concurrent.CompletableFuture)async(() -> %s, %s)", body, String.join(", ", failArgs));
+            }
+        }
+        return null;
+    }
+
+    private boolean returnable(TypeMirror from, TypeMirror to) {
+        return to.getKind() == TypeKind.VOID ||
+                (from.getKind() != TypeKind.VOID && (types().isAssignable(from, to) || types().isAssignable(types().erasure(from), to)));
+    }
+
+    /**
+     * Whether face method that returns future can be implemented by method that returns the value of the future synchronously.
+     */
+    private boolean asyncReturnable(TypeMirror from, TypeMirror to) {
+        if (to.getKind() != TypeKind.DECLARED || !FUTURES.contains(erasure(to))) {
+            return false;
+        }
+        List<? extends TypeMirror> typeArguments = ((DeclaredType)to).getTypeArguments();
+        if (typeArguments.isEmpty()) {
+            return true;
+        }
+        TypeMirror value = typeArguments.get(0);
+        if (value.getKind() == TypeKind.WILDCARD) {
+            value = ((WildcardType)value).getExtendsBound();
+            if (value == null) {
+                return true;
+            }
+        }
+        if (from.getKind() == TypeKind.VOID) {
+            return "java.lang.Void".equals(erasure(value));
+        }
+        TypeMirror boxed = from.getKind().isPrimitive() ? types().boxedClass((PrimitiveType)from).asType() : from;
+        return types().isAssignable(boxed, value) || types().isAssignable(types().erasure(boxed), value);
+    }
+
+    private String method(String faceName, ExecutableElement method, String call) {
+        TypeMirror returnType = method.getReturnType();
+        boolean isVoid = returnType.getKind() == TypeKind.VOID;
+        StringBuilder code = new StringBuilder();
+        code.append("    @Override\n");
+        code.append("    public ");
+        if (!method.getTypeParameters().isEmpty()) {
+            List<String> typeParams = new ArrayList<>();
+            for (TypeParameterElement tp : method.getTypeParameters()) {
+                List<String> bounds = tp.getBounds().stream().map(TypeMirror::toString).filter(b -> !"java.lang.Object".equals(b)).collect(Collectors.toList());
+                typeParams.add(bounds.isEmpty() ? tp.getSimpleName().toString() : tp.getSimpleName() + " extends " + String.join(" & ", bounds));
+            }
+            code.append('<').append(String.join(", ", typeParams)).append("> ");
+        }
+        // parameters are renamed, so they cannot hide fields of the adapter
+        List<String> params = new ArrayList<>();
+        for (VariableElement param : method.getParameters()) {
+            params.add(param.asType() + " p" + params.size());
+        }
+        code.append(returnType).append(' ').append(method.getSimpleName()).append('(').append(String.join(", ", params)).append(") {\n");
+        code.append("        try {\n");
+        code.append("            ").append(isVoid ? "" : "return ").append(call).append(";\n");
+        code.append("        } catch (Throwable e) {\n");
+        List<String> failArgs = new ArrayList<>();
+        failArgs.add(faceName + ".class");
+        failArgs.add('"' + method.getSimpleName().toString() + '"');
+        erasures(method.getParameters()).forEach(p -> failArgs.add(p + ".class"));
+        String fail = format("fail(%s)", String.join(", ", failArgs));
+        code.append("            ").append(isVoid ? fail : format("return (%s)%s", boxed(returnType), fail)).append(";\n");
+        code.append("        }\n");
+        code.append("    }\n");
+        return code.toString();
+    }
+
+    private String boxed(TypeMirror type) {
+        return type.getKind().isPrimitive() ? types().boxedClass(types().getPrimitiveType(type.getKind())).getQualifiedName().toString() : type.toString();
+    }
+
+    private List<String> erasures(List<? extends VariableElement> params) {
+        return params.stream().map(p -> erasure(p.asType())).collect(Collectors.toList());
+    }
+
+    private String erasure(TypeMirror type) {
+        return types().erasure(type).toString();
+    }
+
+    private boolean accessible(Element element, PackageElement pkg) {
+        for (Element e = element; e != null && e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+            Set<Modifier> modifiers = e.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE) || (!modifiers.contains(Modifier.PUBLIC) && !packageOf(e).equals(pkg))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Public method is callable even if it is declared by class that is not accessible (e.g. public method inherited
+     * from package private superclass) because it is called using the target class that is accessible.
+     */
+    private boolean callable(Element method, PackageElement pkg) {
+        Set<Modifier> modifiers = method.getModifiers();
+        return modifiers.contains(Modifier.PUBLIC) || (!modifiers.contains(Modifier.PRIVATE) && packageOf(method).equals(pkg));
+    }
+
+    private PackageElement packageOf(Element element) {
+        return elements().getPackageOf(element);
+    }
+
+    private AnnotationMirror annotation(Element element, Class<?> annotationType) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement)mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationType.getName())) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private AnnotationValue value(AnnotationMirror mirror, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : elements().getElementValuesWithDefaults(mirror).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue();
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    private List<TypeMirror> classes(AnnotationMirror mirror, String name) {
+        Object value = value(mirror, name).getValue();
+        List<TypeMirror> classes = new ArrayList<>();
+        if (value instanceof List) {
+            for (Object v : (List<?>)value) {
+                classes.add((TypeMirror)((AnnotationValue)v).getValue());
+            }
+        } else {
+            classes.add((TypeMirror)value);
+        }
+        return classes;
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private Elements elements() {
+        return processingEnv.getElementUtils();
+    }
+
+    private Types types() {
+        return processingEnv.getTypeUtils();
+    }
+}
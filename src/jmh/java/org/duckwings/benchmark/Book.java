@@ -0,0 +1,19 @@
+package org.duckwings.benchmark;
+
+public class Book {
+    private final int id;
+    private final String title;
+
+    public Book(int id, String title) {
+        this.id = id;
+        this.title = title;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+}
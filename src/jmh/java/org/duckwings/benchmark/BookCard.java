@@ -0,0 +1,9 @@
+package org.duckwings.benchmark;
+
+/**
+ * View over {@link Book} and {@link Author}.
+ */
+public interface BookCard {
+    String getTitle();
+    String getLastName();
+}
@@ -0,0 +1,115 @@
+package org.duckwings.benchmark;
+
+import org.duckwings.BufferWrapper;
+import org.duckwings.DuckWings;
+import org.duckwings.RecordLayout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sums field of records stored in direct buffer: by decoding each record into object, by view moved from record
+ * to record and by reading the buffer by hand.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BufferBenchmark {
+    private static final RecordLayout LAYOUT = RecordLayout.builder()
+            .field("id", int.class)
+            .field("timestamp", long.class)
+            .field("price", double.class)
+            .build();
+
+    @Param("10000")
+    private int size;
+    private ByteBuffer buffer;
+    private BufferWrapper<Tick> wrapper;
+
+    @Setup
+    public void setup() {
+        buffer = ByteBuffer.allocateDirect(size * LAYOUT.size());
+        for (int i = 0; i < size; i++) {
+            buffer.putInt(i).putLong(1_000_000L + i).putDouble(i / 2.0);
+        }
+        buffer.flip();
+        wrapper = DuckWings.builder().buffer(Tick.class, LAYOUT);
+    }
+
+    @Benchmark
+    public double decodeEach() {
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            int base = i * LAYOUT.size();
+            Tick tick = new DecodedTick(buffer.getInt(base), buffer.getLong(base + 4), buffer.getDouble(base + 12));
+            sum += tick.getPrice();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double view() {
+        double sum = 0;
+        Tick tick = wrapper.wrap(buffer);
+        for (int i = 0; i < size; i++) {
+            sum += wrapper.moveTo(tick, i).getPrice();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double byHand() {
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += buffer.getDouble(i * LAYOUT.size() + 12);
+        }
+        return sum;
+    }
+
+    public interface Tick {
+        int getId();
+        long getTimestamp();
+        double getPrice();
+    }
+
+    private static class DecodedTick implements Tick {
+        private final int id;
+        private final long timestamp;
+        private final double price;
+
+        DecodedTick(int id, long timestamp, double price) {
+            this.id = id;
+            this.timestamp = timestamp;
+            this.price = price;
+        }
+
+        @Override
+        public int getId() {
+            return id;
+        }
+
+        @Override
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        @Override
+        public double getPrice() {
+            return price;
+        }
+    }
+}
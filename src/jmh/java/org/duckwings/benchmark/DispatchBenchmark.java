@@ -0,0 +1,134 @@
+package org.duckwings.benchmark;
+
+import org.duckwings.DuckWings;
+import org.duckwings.Wrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures cost of method call on already wrapped object.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DispatchBenchmark {
+    private IdHolder handWritten;
+    private IdHolder reflect;
+    private IdHolder generated;
+    private IdHolder functional;
+    private IdHolder functionalInt;
+    private IdHolder fallback;
+    private BookCard handWrittenCard;
+    private BookCard reflectCard;
+    private BookCard functionalCard;
+    private Wrapper<Book, BookCard> flyweightCardWrapper;
+    private BookCard flyweightCard;
+    private Book book;
+    private Author author;
+
+    @Setup
+    public void setup() {
+        book = new Book(12345, "The Old Man and the Sea");
+        author = new Author("Ernest", "Hemingway");
+
+        handWritten = new HandWrittenAdapters.BookIdHolder(book);
+        reflect = DuckWings.builder().<Book, IdHolder>reflect(IdHolder.class).wrap(book);
+        generated = DuckWings.builder().<Book, IdHolder>generated(IdHolder.class).wrap(book);
+        functional = DuckWings.builder().functional(IdHolder.class, Book.class)
+                .using(IdHolder::getId, Book::getId)
+                .using(IdHolder::getTitle, Book::getTitle)
+                .wrap(book);
+        functionalInt = DuckWings.builder().functional(IdHolder.class, Book.class)
+                .usingInt(IdHolder::getId, Book::getId)
+                .using(IdHolder::getTitle, Book::getTitle)
+                .wrap(book);
+        fallback = DuckWings.builder().functional(IdHolder.class, Book.class)
+                .using(IdHolder::getTitle, Book::getTitle)
+                .fallback(DuckWings.builder().reflect(IdHolder.class))
+                .wrap(book);
+
+        handWrittenCard = new HandWrittenAdapters.BookCardAdapter(book, author);
+        reflectCard = DuckWings.builder().<Book, BookCard>reflect(BookCard.class).wrap(book, author);
+        Wrapper<Book, BookCard> functionalCardWrapper = DuckWings.builder().functional(BookCard.class, Book.class)
+                .using(BookCard::getTitle, Book::getTitle)
+                .with(DuckWings.builder().functional(BookCard.class, Author.class).using(BookCard::getLastName, Author::getLastName));
+        functionalCard = functionalCardWrapper.wrap(book, author);
+        flyweightCardWrapper = DuckWings.builder().reflect(BookCard.class);
+        flyweightCard = flyweightCardWrapper.flyweight();
+    }
+
+    @Benchmark
+    public int handWritten() {
+        return handWritten.getId();
+    }
+
+    @Benchmark
+    public int reflect() {
+        return reflect.getId();
+    }
+
+    @Benchmark
+    public int generated() {
+        return generated.getId();
+    }
+
+    @Benchmark
+    public int functional() {
+        return functional.getId();
+    }
+
+    /**
+     * The method is mapped using primitive function, so the value is not boxed.
+     */
+    @Benchmark
+    public int functionalInt() {
+        return functionalInt.getId();
+    }
+
+    /**
+     * The method is not mapped by functional wrapper and is served by the fallback.
+     */
+    @Benchmark
+    public int functionalFallback() {
+        return fallback.getId();
+    }
+
+    /**
+     * The method is implemented by the second object of the view.
+     */
+    @Benchmark
+    public String handWrittenMultipleObjects() {
+        return handWrittenCard.getLastName();
+    }
+
+    @Benchmark
+    public String reflectMultipleObjects() {
+        return reflectCard.getLastName();
+    }
+
+    @Benchmark
+    public String functionalMultipleObjects() {
+        return functionalCard.getLastName();
+    }
+
+    /**
+     * The flyweight is rebound to objects of the same classes, so the route of the view is reused.
+     */
+    @Benchmark
+    public String reflectFlyweightMultipleObjects() {
+        return flyweightCardWrapper.rebind(flyweightCard, book, author).getLastName();
+    }
+}
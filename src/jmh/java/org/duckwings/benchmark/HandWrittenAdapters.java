@@ -0,0 +1,44 @@
+package org.duckwings.benchmark;
+
+/**
+ * Adapters written manually. They are the baseline all wrappers are compared with.
+ */
+class HandWrittenAdapters {
+    static class BookIdHolder implements IdHolder {
+        private final Book book;
+
+        BookIdHolder(Book book) {
+            this.book = book;
+        }
+
+        @Override
+        public int getId() {
+            return book.getId();
+        }
+
+        @Override
+        public String getTitle() {
+            return book.getTitle();
+        }
+    }
+
+    static class BookCardAdapter implements BookCard {
+        private final Book book;
+        private final Author author;
+
+        BookCardAdapter(Book book, Author author) {
+            this.book = book;
+            this.author = author;
+        }
+
+        @Override
+        public String getTitle() {
+            return book.getTitle();
+        }
+
+        @Override
+        public String getLastName() {
+            return author.getLastName();
+        }
+    }
+}
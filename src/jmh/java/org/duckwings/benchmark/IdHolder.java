@@ -0,0 +1,6 @@
+package org.duckwings.benchmark;
+
+public interface IdHolder {
+    int getId();
+    String getTitle();
+}
@@ -0,0 +1,85 @@
+package org.duckwings.benchmark;
+
+import org.duckwings.DuckWings;
+import org.duckwings.Wrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders page of cards over {@link Book} and {@link Author} that shows titles only. Loading of each object is simulated
+ * by fixed amount of work: views over loaded objects load both, lazy views load the books only.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LazyBenchmark {
+    @Param("20")
+    private int page;
+    @Param("1000")
+    private int loadTokens;
+    private Wrapper<Book, BookCard> reflect;
+    private Wrapper<Book, BookCard> functional;
+
+    @Setup
+    public void setup() {
+        reflect = DuckWings.builder().reflect(BookCard.class);
+        functional = DuckWings.builder().functional(BookCard.class, Book.class)
+                .using(BookCard::getTitle, Book::getTitle)
+                .with(DuckWings.builder().functional(BookCard.class, Author.class).using(BookCard::getLastName, Author::getLastName));
+    }
+
+    @Benchmark
+    public void reflect(Blackhole bh) {
+        for (int i = 0; i < page; i++) {
+            bh.consume(reflect.wrap(book(i), author(i)).getTitle());
+        }
+    }
+
+    @Benchmark
+    public void reflectLazy(Blackhole bh) {
+        for (int i = 0; i < page; i++) {
+            int id = i;
+            bh.consume(reflect.wrapLazy(() -> book(id), () -> author(id)).getTitle());
+        }
+    }
+
+    @Benchmark
+    public void functional(Blackhole bh) {
+        for (int i = 0; i < page; i++) {
+            bh.consume(functional.wrap(book(i), author(i)).getTitle());
+        }
+    }
+
+    @Benchmark
+    public void functionalLazy(Blackhole bh) {
+        for (int i = 0; i < page; i++) {
+            int id = i;
+            bh.consume(functional.wrapLazy(() -> book(id), () -> author(id)).getTitle());
+        }
+    }
+
+    private Book book(int id) {
+        Blackhole.consumeCPU(loadTokens);
+        return new Book(id, "Book " + id);
+    }
+
+    private Author author(int id) {
+        Blackhole.consumeCPU(loadTokens);
+        return new Author("Author", "No. " + id);
+    }
+}
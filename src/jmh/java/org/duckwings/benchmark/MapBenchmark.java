@@ -0,0 +1,99 @@
+package org.duckwings.benchmark;
+
+import org.duckwings.DuckWings;
+import org.duckwings.MapWrapper;
+import org.duckwings.RowWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sums property of rows: read from maps by hand, through face over maps and through face over rows stored as arrays.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapBenchmark {
+    @Param("10000")
+    private int size;
+    private List<Map<String, Object>> maps;
+    private List<Object[]> rows;
+    private MapWrapper<Row> mapWrapper;
+    private RowWrapper<Row> rowWrapper;
+
+    @Setup
+    public void setup() {
+        mapWrapper = DuckWings.builder().map(Row.class);
+        rowWrapper = mapWrapper.rows("id", "title", "pages");
+        maps = new ArrayList<>();
+        rows = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Map<String, Object> map = new HashMap<>();
+            map.put("id", i);
+            map.put("title", "Book " + i);
+            map.put("pages", 100L + i);
+            maps.add(map);
+            rows.add(rowWrapper.row(map));
+        }
+    }
+
+    @Benchmark
+    public long mapByHand() {
+        long sum = 0;
+        for (Map<String, Object> map : maps) {
+            sum += (Long)map.get("pages");
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long mapWrapEach() {
+        long sum = 0;
+        for (Map<String, Object> map : maps) {
+            sum += mapWrapper.wrap(map).getPages();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long rowFlyweight() {
+        long sum = 0;
+        Row row = rowWrapper.flyweight();
+        for (Object[] values : rows) {
+            sum += rowWrapper.rebind(row, values).getPages();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long rowWrapEach() {
+        long sum = 0;
+        for (Object[] values : rows) {
+            sum += rowWrapper.wrap(values).getPages();
+        }
+        return sum;
+    }
+
+    public interface Row {
+        int getId();
+        String getTitle();
+        long getPages();
+    }
+}
@@ -0,0 +1,79 @@
+package org.duckwings.benchmark;
+
+import org.duckwings.DuckWings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@code equals()}, {@code hashCode()} and {@link DuckWings#unwrap(Object)} of wrapped objects,
+ * i.e. cost of using wrapped objects as keys of hash maps and sets.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ObjectMethodsBenchmark {
+    private IdHolder reflect;
+    private IdHolder reflectOther;
+    private IdHolder generated;
+    private IdHolder functional;
+    private IdHolder functionalOther;
+
+    @Setup
+    public void setup() {
+        Book book = new Book(12345, "The Old Man and the Sea");
+
+        reflect = DuckWings.builder().<Book, IdHolder>reflect(IdHolder.class).wrap(book);
+        reflectOther = DuckWings.builder().<Book, IdHolder>reflect(IdHolder.class).wrap(book);
+        generated = DuckWings.builder().<Book, IdHolder>generated(IdHolder.class).wrap(book);
+        functional = DuckWings.builder().functional(IdHolder.class, Book.class).using(IdHolder::getTitle, Book::getTitle).wrap(book);
+        functionalOther = DuckWings.builder().functional(IdHolder.class, Book.class).using(IdHolder::getTitle, Book::getTitle).wrap(book);
+    }
+
+    @Benchmark
+    public int reflectHashCode() {
+        return reflect.hashCode();
+    }
+
+    @Benchmark
+    public boolean reflectEquals() {
+        return reflect.equals(reflectOther);
+    }
+
+    @Benchmark
+    public int generatedHashCode() {
+        return generated.hashCode();
+    }
+
+    @Benchmark
+    public int functionalHashCode() {
+        return functional.hashCode();
+    }
+
+    @Benchmark
+    public boolean functionalEquals() {
+        return functional.equals(functionalOther);
+    }
+
+    @Benchmark
+    public Object unwrapProxy() {
+        return DuckWings.unwrap(reflect);
+    }
+
+    @Benchmark
+    public Object unwrapGenerated() {
+        return DuckWings.unwrap(generated);
+    }
+}
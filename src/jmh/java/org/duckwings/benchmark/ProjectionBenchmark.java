@@ -0,0 +1,88 @@
+package org.duckwings.benchmark;
+
+import org.duckwings.DuckWings;
+import org.duckwings.FunctionalWrapper;
+import org.duckwings.Projection;
+import org.duckwings.Wrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads two properties of list of objects into arrays: by wrapping each object and by projection.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProjectionBenchmark {
+    @Param("10000")
+    private int size;
+    private List<Book> books;
+    private Wrapper<Book, IdHolder> reflect;
+    private FunctionalWrapper<Book, IdHolder> functional;
+    private Projection<Book, IdHolder> reflectProjection;
+    private Projection<Book, IdHolder> functionalProjection;
+    private Projection<Book, IdHolder> parallelProjection;
+
+    @Setup
+    public void setup() {
+        books = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            books.add(new Book(i, "Book " + i));
+        }
+        reflect = DuckWings.builder().reflect(IdHolder.class);
+        functional = DuckWings.builder().functional(IdHolder.class, Book.class)
+                .usingInt(IdHolder::getId, Book::getId)
+                .using(IdHolder::getTitle, Book::getTitle);
+        reflectProjection = reflect.projection().ints(IdHolder::getId).objects(IdHolder::getTitle);
+        functionalProjection = functional.projection().ints(IdHolder::getId).objects(IdHolder::getTitle);
+        parallelProjection = reflect.projection().ints(IdHolder::getId).objects(IdHolder::getTitle).parallel(size / 8);
+    }
+
+    @Benchmark
+    public Object[] reflectWrapEach() {
+        int[] ids = new int[books.size()];
+        Object[] titles = new Object[books.size()];
+        for (int i = 0; i < ids.length; i++) {
+            IdHolder holder = reflect.wrap(books.get(i));
+            ids[i] = holder.getId();
+            titles[i] = holder.getTitle();
+        }
+        return new Object[] {ids, titles};
+    }
+
+    @Benchmark
+    public Projection.Columns reflectProjection() {
+        return reflectProjection.project(books);
+    }
+
+    @Benchmark
+    public Projection.Columns functionalProjection() {
+        return functionalProjection.project(books);
+    }
+
+    @Benchmark
+    public Projection.Columns parallelProjection() {
+        return parallelProjection.project(books);
+    }
+
+    @Benchmark
+    public int[] reflectProjectInt() {
+        return reflect.projectInt(books, IdHolder::getId);
+    }
+}
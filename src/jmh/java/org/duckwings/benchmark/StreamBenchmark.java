@@ -0,0 +1,70 @@
+package org.duckwings.benchmark;
+
+import org.duckwings.DuckWings;
+import org.duckwings.Wrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sums property of list of objects by stream of wrapped objects: wrapping by {@code map()}, by wrapping spliterator
+ * and by flyweight per split.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StreamBenchmark {
+    @Param("10000")
+    private int size;
+    private List<Book> books;
+    private Wrapper<Book, IdHolder> reflect;
+
+    @Setup
+    public void setup() {
+        books = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            books.add(new Book(i, "Book " + i));
+        }
+        reflect = DuckWings.builder().reflect(IdHolder.class);
+    }
+
+    @Benchmark
+    public long mapWrap() {
+        return books.stream().map(reflect::wrap).mapToLong(IdHolder::getId).sum();
+    }
+
+    @Benchmark
+    public long stream() {
+        return reflect.stream(books).mapToLong(IdHolder::getId).sum();
+    }
+
+    @Benchmark
+    public long flyweightStream() {
+        return reflect.flyweightStream(books).mapToLong(IdHolder::getId).sum();
+    }
+
+    @Benchmark
+    public long parallelMapWrap() {
+        return books.parallelStream().map(reflect::wrap).mapToLong(IdHolder::getId).sum();
+    }
+
+    @Benchmark
+    public long parallelFlyweightStream() {
+        return reflect.flyweightStream(books).parallel().mapToLong(IdHolder::getId).sum();
+    }
+}
@@ -0,0 +1,98 @@
+package org.duckwings.benchmark;
+
+import org.duckwings.DuckWings;
+import org.duckwings.Wrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures cost of {@code wrap()} itself with and without validation performed during building.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WrapBenchmark {
+    private Book book;
+    private Author author;
+    private Wrapper<Book, IdHolder> reflect;
+    private Wrapper<Book, IdHolder> reflectValidated;
+    private Wrapper<Book, IdHolder> generated;
+    private Wrapper<Book, IdHolder> functional;
+    private Wrapper<Book, IdHolder> functionalValidated;
+    private Wrapper<Book, BookCard> reflectMultipleObjects;
+    private Wrapper<Book, IdHolder> reflectCanonical;
+
+    @Setup
+    public void setup() {
+        book = new Book(12345, "The Old Man and the Sea");
+        author = new Author("Ernest", "Hemingway");
+
+        reflect = DuckWings.builder().reflect(IdHolder.class);
+        reflectValidated = DuckWings.builder().throwIfAbsentDuringBuilding(m -> new IllegalStateException(m.getName())).reflect(IdHolder.class);
+        generated = DuckWings.builder().generated(IdHolder.class);
+        functional = DuckWings.builder().functional(IdHolder.class, Book.class)
+                .using(IdHolder::getId, Book::getId)
+                .using(IdHolder::getTitle, Book::getTitle);
+        functionalValidated = DuckWings.builder().throwIfAbsentDuringBuilding(m -> new IllegalStateException(m.getName())).functional(IdHolder.class, Book.class)
+                .using(IdHolder::getId, Book::getId)
+                .using(IdHolder::getTitle, Book::getTitle);
+        reflectMultipleObjects = DuckWings.builder().reflect(BookCard.class);
+        reflectCanonical = DuckWings.builder().canonical().reflect(IdHolder.class);
+    }
+
+    @Benchmark
+    public IdHolder handWritten() {
+        return new HandWrittenAdapters.BookIdHolder(book);
+    }
+
+    @Benchmark
+    public IdHolder reflect() {
+        return reflect.wrap(book);
+    }
+
+    @Benchmark
+    public IdHolder reflectValidated() {
+        return reflectValidated.wrap(book);
+    }
+
+    @Benchmark
+    public IdHolder generated() {
+        return generated.wrap(book);
+    }
+
+    @Benchmark
+    public IdHolder functional() {
+        return functional.wrap(book);
+    }
+
+    @Benchmark
+    public IdHolder functionalValidated() {
+        return functionalValidated.wrap(book);
+    }
+
+    @Benchmark
+    public BookCard reflectMultipleObjects() {
+        return reflectMultipleObjects.wrap(book, author);
+    }
+
+    /**
+     * Wraps the same object again, so the cached wrapper is returned.
+     */
+    @Benchmark
+    public IdHolder reflectCanonical() {
+        return reflectCanonical.wrap(book);
+    }
+}
@@ -0,0 +1,185 @@
+package org.duckwings;
+
+import net.sf.cglib.core.AbstractClassGenerator;
+import net.sf.cglib.core.CodeEmitter;
+import net.sf.cglib.core.CodeGenerationException;
+import net.sf.cglib.core.ReflectUtils;
+import net.sf.cglib.core.Signature;
+import net.sf.cglib.core.TypeUtils;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.security.ProtectionDomain;
+
+/**
+ * Base of generators of adapter classes used by {@link GeneratedWrapper}, {@link FunctionalWrapper}, {@link BufferWrapper}
+ * and {@link PropertyWrapper}. Adapter class lives in the package and class loader of its anchor class (the face,
+ * the target class or base class of the adapters), so it sees the classes it calls.
+ * <p>
+ * cglib defines classes by calling {@code ClassLoader.defineClass()} reflectively, which is not permitted since JDK 16.
+ * On JDK 9+ the classes are therefore defined by {@code MethodHandles.Lookup.defineClass()} in the package of the anchor;
+ * cglib still generates the bytecode, names the classes and caches them.
+ */
+abstract class AdapterClassGenerator extends AbstractClassGenerator<Object> {
+    /**
+     * {@code MethodHandles.privateLookupIn()} and {@code Lookup.defineClass()}, or {@code null} on JDK 8.
+     */
+    private static final Method PRIVATE_LOOKUP_IN = method(MethodHandles.class, "privateLookupIn", Class.class, MethodHandles.Lookup.class);
+    private static final Method DEFINE_CLASS = method(MethodHandles.Lookup.class, "defineClass", byte[].class);
+
+    protected final Class<?> face;
+    protected final Class<?> anchor;
+    private final String namePrefix;
+    /**
+     * Name of the class being defined by lookup; cglib keeps the name it generates private.
+     */
+    private String className;
+
+    /**
+     * @param kind suffix of the class name that tells what the adapter adapts
+     */
+    AdapterClassGenerator(Class<?> owner, Class<?> face, Class<?> anchor, String kind) {
+        super(new Source(owner.getName()));
+        this.face = face;
+        this.anchor = anchor;
+        setClassLoader(anchor.getClassLoader());
+        namePrefix = packagePrefix(anchor) + face.getSimpleName();
+        setNamePrefix(namePrefix);
+        setNamingPolicy((prefix, source, key, names) -> {
+            String base = prefix + "$$DuckWings$$" + kind;
+            String name = base;
+            for (int i = 2; names.evaluate(name); i++) {
+                name = base + "$" + i;
+            }
+            return name;
+        });
+    }
+
+    /**
+     * Returns adapter class generated for given key, so wrappers of the same shape share the class. cglib keeps the keys
+     * by class loader of the adapter, so the key must refer names of classes rather than the classes: otherwise they
+     * would keep the loader reachable forever. Class loader sees one class of each name, so the names are unique.
+     * @return the class or {@code null} if it cannot be generated or defined in this environment
+     */
+    Class<?> adapterClass(Object key) {
+        try {
+            return (Class<?>)create(key);
+        } catch (CodeGenerationException | LinkageError e) {
+            // e.g. the anchor is in a module that is not open; the wrapper falls back to dynamic proxy
+            return null;
+        }
+    }
+
+    /**
+     * @return name of the class being generated
+     */
+    protected final String className() {
+        return className != null ? className : getClassName();
+    }
+
+    @Override
+    protected Class<?> generate(ClassLoaderData data) {
+        if (DEFINE_CLASS == null) {
+            return super.generate(data);
+        }
+        className = getNamingPolicy().getClassName(namePrefix, null, null, data.getUniqueNamePredicate());
+        data.reserveName(className);
+        byte[] bytes;
+        try {
+            bytes = getStrategy().generate(this);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CodeGenerationException(e);
+        }
+        try {
+            return (Class<?>)DEFINE_CLASS.invoke(PRIVATE_LOOKUP_IN.invoke(null, anchor, MethodHandles.lookup()), bytes);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof LinkageError) {
+                throw (LinkageError)e.getCause();
+            }
+            throw new CodeGenerationException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new CodeGenerationException(e);
+        }
+    }
+
+    @Override
+    protected ClassLoader getDefaultClassLoader() {
+        return anchor.getClassLoader();
+    }
+
+    @Override
+    protected ProtectionDomain getProtectionDomain() {
+        return ReflectUtils.getProtectionDomain(anchor);
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    protected Object firstInstance(Class type) {
+        return type;
+    }
+
+    @Override
+    protected Object nextInstance(Object instance) {
+        return instance;
+    }
+
+    /**
+     * Returns object on top of the stack as the return type of the method. Primitive value is unboxed exactly as dynamic
+     * proxy does: value of other type throws {@link ClassCastException} and {@code null} throws {@link NullPointerException}.
+     */
+    static void returnObject(CodeEmitter e) {
+        Type returnType = e.getReturnType();
+        if (Type.VOID_TYPE.equals(returnType)) {
+            e.pop();
+        } else if (TypeUtils.isPrimitive(returnType)) {
+            Type boxed = TypeUtils.getBoxedType(returnType);
+            e.checkcast(boxed);
+            e.invoke_virtual(boxed, new Signature(returnType.getClassName() + "Value", returnType, new Type[0]));
+        } else {
+            e.checkcast(returnType);
+        }
+        e.return_value();
+    }
+
+    /**
+     * The adapter lives in the package of the face if possible, so the face does not have to be public.
+     * @return anchor of adapter that extends given base class or {@code null} if adapter cannot be generated
+     */
+    static Class<?> faceAnchor(Class<?> face, Class<?> adapterBase) {
+        ClassLoader loader = face.getClassLoader();
+        if (loader != null && !face.getName().startsWith("java.") && visible(adapterBase, loader)) {
+            return face;
+        }
+        if (Modifier.isPublic(face.getModifiers()) && visible(face, adapterBase.getClassLoader())) {
+            return adapterBase;
+        }
+        return null;
+    }
+
+    static boolean visible(Class<?> clazz, ClassLoader loader) {
+        try {
+            return Class.forName(clazz.getName(), false, loader) == clazz;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    static String packagePrefix(Class<?> clazz) {
+        String name = clazz.getName();
+        return name.substring(0, name.lastIndexOf('.') + 1);
+    }
+
+    private static Method method(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            return type.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            // JDK 8
+            return null;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.duckwings;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs calls of asynchronous face methods, i.e. methods that return {@link CompletableFuture}, {@link CompletionStage}
+ * or {@link java.util.concurrent.Future}, implemented by synchronous methods or functions. The call is submitted to
+ * the executor of the wrapper and the returned future is completed by its result. Result that is a {@link CompletionStage}
+ * itself is not nested into the future but completes it when it completes.
+ * The default executor starts virtual thread per call if JDK supports it; otherwise it is the same as used by
+ * {@link CompletableFuture#supplyAsync(java.util.function.Supplier)}.
+ */
+final class AsyncDispatch {
+    static final Executor DEFAULT_EXECUTOR = defaultExecutor();
+
+    private AsyncDispatch() {
+    }
+
+    /**
+     * Call of face method that may throw anything the target method throws.
+     */
+    interface Call {
+        Object call() throws Throwable;
+    }
+
+    static boolean isAsync(Method method) {
+        Class<?> type = method.getReturnType();
+        return type != Object.class && type.isAssignableFrom(CompletableFuture.class);
+    }
+
+    static CompletableFuture<Object> submit(Executor executor, Call call) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    Object result = call.call();
+                    if (result instanceof CompletionStage) {
+                        ((CompletionStage<?>)result).whenComplete((value, e) -> {
+                            if (e != null) {
+                                future.completeExceptionally(e);
+                            } else {
+                                future.complete(value);
+                            }
+                        });
+                    } else {
+                        future.complete(result);
+                    }
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Wraps all objects, starts asynchronous call on each of them and collects results in the same order.
+     */
+    static <T, I, R> CompletableFuture<List<R>> callAll(Wrapper<T, I> wrapper, Collection<? extends T> objects, Function<? super I, ? extends CompletionStage<? extends R>> call) {
+        List<CompletableFuture<? extends R>> futures = new ArrayList<>(objects.size());
+        for (T obj : objects) {
+            futures.add(call.apply(wrapper.wrap(obj)).toCompletableFuture());
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(v -> futures.stream().<R>map(CompletableFuture::join).collect(Collectors.toList()));
+    }
+
+    private static Executor defaultExecutor() {
+        try {
+            // Java 21+; the method is looked up reflectively because the library is compiled for Java 8
+            return (Executor)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // virtual threads are not available (or are preview feature that is not enabled)
+        }
+        return ForkJoinPool.getCommonPoolParallelism() > 1 ? ForkJoinPool.commonPool() : r -> new Thread(r).start();
+    }
+}
@@ -2,17 +2,34 @@ package org.duckwings;
 
 import org.duckwings.internal.MethodComparator;
 
+import javax.management.MBeanServer;
+import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandleInfo;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.SerializedLambda;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
+import java.lang.reflect.UndeclaredThrowableException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.duckwings.DuckEvents.EVENTS;
 
 abstract class BaseWrapper<T, I> implements Wrapper<T, I> {
     protected final Class<I> face;
@@ -21,6 +38,22 @@ abstract class BaseWrapper<T, I> implements Wrapper<T, I> {
     @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
     protected final Optional<Function<Method, Throwable>> runtimeFailure;
 
+    private static final Object[] NO_OTHERS = new Object[0];
+    /**
+     * Methods of each face are computed once, so all wrappers of the face agree on ordinals and share dispatch tables
+     * (see {@link ResolutionCache#table(Class, Class)}).
+     */
+    private static final ClassValue<Method[]> FACE_METHODS = new ClassValue<Method[]>() {
+        @Override
+        protected Method[] computeValue(Class<?> face) {
+            return faceMethods(face);
+        }
+    };
+    /**
+     * Getter of {@link Proxy} invocation handler field, so handler is obtained without checks performed by
+     * {@link Proxy#getInvocationHandler(Object)}. Used on Java 8 only: newer versions do not open the field.
+     */
+    private static final MethodHandle proxyHandler = proxyHandler();
     protected static final Map<Class, Object> defaultValue = new HashMap<>();
     static {
         defaultValue.put(byte.class, (byte)0);
@@ -34,12 +67,50 @@ abstract class BaseWrapper<T, I> implements Wrapper<T, I> {
     };
 
     protected final Collection<Object> defaultValues;
+    /**
+     * Methods of the face that can be dispatched, one per distinct name and descriptor, followed by
+     * {@code equals()}, {@code hashCode()} and {@code toString()} that are dispatched by proxy too.
+     * The position of method in this array is its ordinal.
+     */
+    protected final Method[] faceMethods;
+    private final Map<Method, Integer> ordinals = new HashMap<>();
+    /**
+     * Ordinals of face methods by name, used to find method with the same signature declared by other interface.
+     */
+    private final Map<String, int[]> nameOrdinals = new HashMap<>();
+    private final MethodOrdinals methodOrdinals;
+    private final ClassesMap<Optional<Method>> validated = new ClassesMap<>();
+    private MethodHandle proxyConstructor;
+    /**
+     * Metrics of this wrapper or {@code null} if metrics are not enabled by {@link DuckWings.WrapperBuilder#metrics()}.
+     */
+    final WrapperMetrics metrics;
+    private final Equality equality;
+    /**
+     * Wrappers by wrapped object or {@code null} if the wrapper is not canonical.
+     */
+    private final CanonicalCache<I> canonical;
+    private final int equalsOrdinal;
+    private final int hashCodeOrdinal;
+    private final int toStringOrdinal;
+    /**
+     * Executor of asynchronous face methods and their ordinals, see {@link AsyncDispatch}.
+     */
+    private final Executor executor;
+    private final boolean[] async;
 
     protected BaseWrapper(
             Class<I> face,
             @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<Function<Method, Throwable>> constructionFailure,
-            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<Function<Method, Throwable>> runtimeFailure) {
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<Function<Method, Throwable>> runtimeFailure,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<MBeanServer> metricsServer,
+            Equality equality,
+            boolean canonical,
+            Executor executor) {
         this.face = face;
+        this.executor = executor;
+        this.equality = equality;
+        this.canonical = canonical ? new CanonicalCache<>() : null;
         this.constructionFailure = constructionFailure;
         this.runtimeFailure = runtimeFailure;
 
@@ -47,28 +118,273 @@ abstract class BaseWrapper<T, I> implements Wrapper<T, I> {
         values.add(null);
         values.addAll(defaultValue.values());
         defaultValues = values;
+        faceMethods = FACE_METHODS.get(face);
+        Map<String, Integer> signatureOrdinals = new HashMap<>();
+        for (int i = 0; i < faceMethods.length; i++) {
+            signatureOrdinals.put(signature(faceMethods[i]), i);
+            int[] named = nameOrdinals.get(faceMethods[i].getName());
+            named = named == null ? new int[1] : Arrays.copyOf(named, named.length + 1);
+            named[named.length - 1] = i;
+            nameOrdinals.put(faceMethods[i].getName(), named);
+        }
+        for (Method m : face.getMethods()) {
+            ordinals.put(m, signatureOrdinals.get(signature(m)));
+        }
+        for (Method m : faceMethods) {
+            ordinals.put(m, signatureOrdinals.get(signature(m)));
+        }
+        // instances of the proxy classes of the face and the copies of the face methods passed by callers
+        methodOrdinals = new MethodOrdinals(faceMethods.length * 4);
+        equalsOrdinal = objectMethodOrdinal("equals", Object.class);
+        hashCodeOrdinal = objectMethodOrdinal("hashCode");
+        toStringOrdinal = objectMethodOrdinal("toString");
+        async = new boolean[faceMethods.length];
+        for (int i = 0; i < faceMethods.length; i++) {
+            async[i] = AsyncDispatch.isAsync(faceMethods[i]);
+        }
+        metrics = metricsServer.map(server -> new WrapperMetrics(face, getClass(), faceMethods).register(server)).orElse(null);
+    }
+
+    @Override
+    public I wrap(T target) {
+        return wrap(target, NO_OTHERS);
     }
 
     @Override
     public I wrap(T target, Object ... others) {
+        if (canonical != null && others.length == 0) {
+            I cached = canonical.get(target);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Object event = EVENTS.beginWrap();
+        validate(target, others);
+        I wrapped = createProxy(target, others);
+        if (canonical != null && others.length == 0) {
+            wrapped = canonical.put(target, wrapped);
+        }
+        EVENTS.endWrap(event, face, target);
+        return wrapped;
+    }
+
+    /**
+     * Validates that all methods of the face are implemented if {@link DuckWings.WrapperBuilder#throwIfAbsentDuringBuilding(Function)}
+     * is configured. The result depends on classes of the objects only, so it is cached for each combination of classes.
+     */
+    protected void validate(T target, Object ... others) {
         if(constructionFailure.isPresent()) {
-            Collection<Method> definedMethods = new TreeSet<>(new MethodComparator());
-            definedMethods.addAll(definedMethods(target));
-            Arrays.stream(others).map(this::definedMethods).forEach(definedMethods::addAll);
-            for (Method m : face.getMethods()) {
-                if (!definedMethods.contains(m)) {
-                    sneakyThrow(constructionFailure.get().apply(m));
+            Optional<Method> missing = validated.get(target, others, () -> missingMethod(target, others));
+            missing.ifPresent(m -> sneakyThrow(constructionFailure.get().apply(m)));
+        }
+    }
+
+    private Optional<Method> missingMethod(T target, Object ... others) {
+        Collection<Method> definedMethods = new TreeSet<>(new MethodComparator());
+        definedMethods.addAll(definedMethods(target));
+        Arrays.stream(others).map(this::definedMethods).forEach(definedMethods::addAll);
+        for (Method m : face.getMethods()) {
+            if (!definedMethods.contains(m) && !(AsyncDispatch.isAsync(m) && definedMethods.stream().anyMatch(d -> sameParameters(d, m)))) {
+                return Optional.of(m);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return face method referenced by serializable method reference or {@code null} if {@code facefunc} is not such reference
+     */
+    Method referencedMethod(Object facefunc) {
+        if (!(facefunc instanceof Serializable)) {
+            return null;
+        }
+        try {
+            Method writeReplace = facefunc.getClass().getDeclaredMethod("writeReplace");
+            writeReplace.setAccessible(true);
+            Object replacement = writeReplace.invoke(facefunc);
+            if (!(replacement instanceof SerializedLambda)) {
+                return null;
+            }
+            SerializedLambda lambda = (SerializedLambda)replacement;
+            int kind = lambda.getImplMethodKind();
+            if ((kind != MethodHandleInfo.REF_invokeInterface && kind != MethodHandleInfo.REF_invokeVirtual) || lambda.getCapturedArgCount() > 0) {
+                // lambda expression or method reference bound to other object
+                return null;
+            }
+            Class<?> implClass = Class.forName(lambda.getImplClass().replace('/', '.'), false, face.getClassLoader());
+            if (!implClass.isAssignableFrom(face)) {
+                return null;
+            }
+            for (Method m : faceMethods) {
+                if (m.getName().equals(lambda.getImplMethodName()) &&
+                        MethodType.methodType(m.getReturnType(), m.getParameterTypes()).toMethodDescriptorString().equals(lambda.getImplMethodSignature())) {
+                    return m;
                 }
             }
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            // lambda class does not support serialization or is not accessible; the caller finds the method otherwise
         }
+        return null;
+    }
 
-        @SuppressWarnings("unchecked")
-        I proxy = (I) Proxy.newProxyInstance(
-                Thread.currentThread().getContextClassLoader(),
-                new Class[] {face},
-                createInvocationHandler(target, others));
+    /**
+     * @return name of the property read by getter: {@code getId()}, {@code isActive()} and {@code id()} read {@code id} and {@code active}
+     */
+    static String property(Method method) {
+        String name = method.getName();
+        int prefix = name.startsWith("get") ? 3 : name.startsWith("is") && method.getReturnType() == boolean.class ? 2 : 0;
+        if (prefix == 0 || name.length() == prefix || !Character.isUpperCase(name.charAt(prefix))) {
+            return name;
+        }
+        String property = name.substring(prefix);
+        if (property.length() > 1 && Character.isUpperCase(property.charAt(1))) {
+            // abbreviation like URL
+            return property;
+        }
+        return Character.toLowerCase(property.charAt(0)) + property.substring(1);
+    }
+
+    private static boolean sameParameters(Method m1, Method m2) {
+        return m1.getName().equals(m2.getName()) && Arrays.equals(m1.getParameterTypes(), m2.getParameterTypes());
+    }
+
+    /**
+     * Whether the face method returns future, so the target method is called asynchronously unless it returns compatible future itself.
+     */
+    boolean isAsync(int ordinal) {
+        return async[ordinal];
+    }
+
+    /**
+     * Runs call of asynchronous face method on the executor of this wrapper.
+     */
+    CompletableFuture<Object> async(AsyncDispatch.Call call) {
+        return AsyncDispatch.submit(executor, call);
+    }
+
+    /**
+     * Creates accessor that reads given face method directly from targets for {@link Projection}.
+     * @param type type of the projected values: primitive type or {@code Object.class}
+     * @return the accessor or {@code null} if the method must be called through the face (e.g. metrics are enabled,
+     * method has parameters or returns future or type of the values differs from the return type of the method)
+     */
+    Projection.Accessor accessor(Method method, Class<?> type) {
+        int ordinal = ordinal(method);
+        if (ordinal < 0 || metrics != null || method.getParameterCount() > 0 || isAsync(ordinal) || isObjectMethod(ordinal) ||
+                (type.isPrimitive() ? method.getReturnType() != type : method.getReturnType().isPrimitive())) {
+            return null;
+        }
+        return accessor(ordinal);
+    }
+
+    /**
+     * Creates accessor of face method without parameters whose return type is the type of the projected values.
+     * @return the accessor or {@code null} if the wrapper cannot read the method without the face
+     */
+    Projection.Accessor accessor(int ordinal) {
+        return null;
+    }
+
+    /**
+     * Whether flyweight of this wrapper behaves exactly as wrapped object, so it can be used to read properties of many objects.
+     */
+    boolean viewsByFlyweight() {
+        return true;
+    }
+
+    protected I createProxy(T target, Object ... others) {
+        return newProxy(createInvocationHandler(target, others));
+    }
+
+    private I newProxy(BaseInvocationHandler handler) {
+        return newProxy(metrics == null ? handler : new MeteredInvocationHandler(handler));
+    }
+
+    private I newProxy(InvocationHandler handler) {
+        MethodHandle constructor = proxyConstructor;
+        if (constructor == null) {
+            constructor = proxyConstructor();
+            // racy update is safe: method handle is immutable and any resolved instance is equivalent
+            proxyConstructor = constructor;
+        }
+
+        try {
+            @SuppressWarnings("unchecked")
+            I proxy = (I)(Object)constructor.invokeExact(handler);
+            return proxy;
+        } catch (Throwable e) {
+            sneakyThrow(e);
+            return null;
+        }
+    }
+
+    /**
+     * @return invocation handler of given proxy
+     * @throws IllegalArgumentException if the object is not a proxy
+     */
+    static InvocationHandler handler(Object proxy) {
+        if (proxyHandler != null && proxy instanceof Proxy) {
+            try {
+                return (InvocationHandler)proxyHandler.invokeExact((Proxy)proxy);
+            } catch (Throwable e) {
+                // cannot happen: the getter does not throw; the regular way is used below anyway
+            }
+        }
+        return Proxy.getInvocationHandler(proxy);
+    }
 
-        return proxy;
+    /**
+     * @return object wrapped by given wrapper or the object itself if it was not created by this library
+     */
+    static Object target(Object obj) {
+        if (obj instanceof GeneratedAdapter) {
+            return ((GeneratedAdapter)obj).target;
+        }
+        if (obj instanceof FunctionalAdapter) {
+            return ((FunctionalAdapter)obj).target;
+        }
+        if (obj instanceof BufferAdapter) {
+            return ((BufferAdapter)obj).buffer;
+        }
+        if (obj instanceof PropertyAdapter) {
+            return ((PropertyAdapter)obj).target;
+        }
+        if (obj instanceof Proxy) {
+            InvocationHandler handler = handler(obj);
+            if (handler instanceof BaseWrapper.BaseInvocationHandler || handler instanceof BaseWrapper.MeteredInvocationHandler) {
+                return ((Supplier<?>)handler).get();
+            }
+        }
+        return obj;
+    }
+
+    private static MethodHandle proxyHandler() {
+        if (!System.getProperty("java.specification.version", "").startsWith("1.")) {
+            return null;
+        }
+        try {
+            Field h = Proxy.class.getDeclaredField("h");
+            h.setAccessible(true);
+            return MethodHandles.lookup().unreflectGetter(h).asType(MethodType.methodType(InvocationHandler.class, Proxy.class));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Resolves constructor of the proxy class once, so creating proxy does not require class lookup
+     * performed by {@link Proxy#newProxyInstance(ClassLoader, Class[], InvocationHandler)}.
+     * The proxy class is defined by class loader of the face rather than by context class loader of the thread
+     * that happens to wrap first (e.g. worker of parallel stream), which may not see the face.
+     */
+    private MethodHandle proxyConstructor() {
+        try {
+            Constructor<?> constructor = Proxy.getProxyClass(face.getClassLoader(), face).getConstructor(InvocationHandler.class);
+            constructor.setAccessible(true);
+            return MethodHandles.lookup().unreflectConstructor(constructor).asType(MethodType.methodType(Object.class, InvocationHandler.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     @Override
@@ -76,11 +392,332 @@ abstract class BaseWrapper<T, I> implements Wrapper<T, I> {
         return DuckWings.unwrap(obj);
     }
 
+    @Override
+    public I flyweight() {
+        return newProxy(createInvocationHandler(null, NO_OTHERS));
+    }
+
+    @Override
+    public I wrapLazy(Supplier<? extends T> target, Supplier<?>... others) {
+        return newProxy(createLazyInvocationHandler(new LazySources(target, others)));
+    }
+
+    /**
+     * Creates invocation handler of view created by {@link #wrapLazy(Supplier, Supplier[])}. This handler loads all objects
+     * on the first call and delegates to handler created by {@link #createInvocationHandler(Object, Object...)};
+     * wrappers that know which object serves each method override it to load only that object.
+     */
+    BaseInvocationHandler createLazyInvocationHandler(LazySources sources) {
+        return new LazyInvocationHandler(sources);
+    }
+
+    @Override
+    public I rebind(I flyweight, T target) {
+        return rebind(flyweight, target, NO_OTHERS);
+    }
+
+    @Override
+    public I rebind(I flyweight, T target, Object... others) {
+        BaseInvocationHandler h = ownHandler(flyweight);
+        if (h == null) {
+            throw new IllegalArgumentException("Object was not created by flyweight() of this wrapper");
+        }
+        validate(target, others);
+        h.rebind(target, others);
+        return flyweight;
+    }
+
+    /**
+     * @return invocation handler of proxy created by this wrapper or {@code null} if the object is not such proxy
+     */
+    final BaseInvocationHandler ownHandler(Object proxy) {
+        // instanceof is much cheaper than Proxy.isProxyClass(), which matters when flyweight is rebound per element of stream
+        InvocationHandler handler = proxy instanceof Proxy ? handler(proxy) : null;
+        if (handler instanceof BaseWrapper.MeteredInvocationHandler) {
+            handler = ((BaseWrapper<?, ?>.MeteredInvocationHandler)handler).handler;
+        }
+        if (!(handler instanceof BaseWrapper.BaseInvocationHandler) || ((BaseWrapper<?, ?>.BaseInvocationHandler)handler).wrapper() != this) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        BaseInvocationHandler h = (BaseInvocationHandler)handler;
+        return h;
+    }
+
+    /**
+     * Handles method that cannot be served: either throws exception configured by
+     * {@link DuckWings.WrapperBuilder#throwIfAbsentAtRuntime(Function)} or returns the default value of the method's return type.
+     */
+    protected Object fail(Method method, Object target) {
+        EVENTS.dispatchMiss(face, target, method, runtimeFailure.isPresent() ? "failure" : "default value");
+        if (metrics != null) {
+            if (runtimeFailure.isPresent()) {
+                metrics.runtimeFailure(ordinal(method));
+            } else {
+                metrics.defaultValueReturned(ordinal(method));
+            }
+        }
+        runtimeFailure.ifPresent(methodThrowableFunction -> sneakyThrow(methodThrowableFunction.apply(method)));
+        return defaultValue.get(method.getReturnType());
+    }
+
+    /**
+     * Handles failure of method called by generated adapter.
+     * Unlike {@link #fail(Method, Object)} wraps checked exception that is not declared by the face method exactly as dynamic proxy does.
+     */
+    Object fail(int ordinal, Object target) {
+        Method method = faceMethods[ordinal];
+        try {
+            return fail(method, target);
+        } catch (Throwable t) {
+            sneakyThrow(declared(method, t));
+            return null;
+        }
+    }
+
+    /**
+     * Wraps checked exception that is not declared by the face method by {@link UndeclaredThrowableException}
+     * exactly as dynamic proxy does.
+     */
+    Throwable declared(Method method, Throwable t) {
+        if (t instanceof RuntimeException || t instanceof Error) {
+            return t;
+        }
+        for (Class<?> exceptionType : method.getExceptionTypes()) {
+            if (exceptionType.isInstance(t)) {
+                return t;
+            }
+        }
+        return new UndeclaredThrowableException(t);
+    }
+
     @SuppressWarnings("unchecked")
     protected <E extends Throwable> void sneakyThrow(Throwable e) throws E {
         throw (E) e;
     }
 
+    /**
+     * @return whether the method is {@code equals()}, {@code hashCode()} or {@code toString()} served by {@link #objectMethod(int, Object, Object[])}
+     */
+    final boolean isObjectMethod(int ordinal) {
+        return ordinal == hashCodeOrdinal || ordinal == equalsOrdinal || ordinal == toStringOrdinal;
+    }
+
+    /**
+     * Serves {@code equals()}, {@code hashCode()} or {@code toString()} according to {@link Equality} without
+     * resolution of the target method. Argument of {@code equals()} is unwrapped, so wrappers of the same object are equal.
+     */
+    final Object objectMethod(int ordinal, Object target, Object[] args) {
+        if (ordinal == hashCodeOrdinal) {
+            return objectHashCode(target);
+        }
+        if (ordinal == equalsOrdinal) {
+            return objectEquals(target, args[0]);
+        }
+        return String.valueOf(target);
+    }
+
+    /**
+     * Serves {@code equals()}, {@code hashCode()} or {@code toString()} passed by dynamic proxy (that always passes methods
+     * declared by {@link Object}) without lookup of the ordinal.
+     */
+    final Object objectMethod(Method method, Object target, Object[] args) {
+        switch (method.getName()) {
+            case "hashCode":
+                return objectHashCode(target);
+            case "equals":
+                return objectEquals(target, args[0]);
+            default:
+                return String.valueOf(target);
+        }
+    }
+
+    final Equality equality() {
+        return equality;
+    }
+
+    final int objectHashCode(Object target) {
+        return equality == Equality.IDENTITY ? System.identityHashCode(target) : target.hashCode();
+    }
+
+    /**
+     * Wrapper is equal only to other wrapper: object that is not a wrapper does not know it should unwrap this one,
+     * so it is not equal to the wrapper either way and {@code equals()} stays symmetric.
+     */
+    final boolean objectEquals(Object target, Object other) {
+        Object otherTarget = target(other);
+        if (otherTarget == other) {
+            return false;
+        }
+        return equality == Equality.IDENTITY ? target == otherTarget : target.equals(otherTarget);
+    }
+
+    private int objectMethodOrdinal(String name, Class<?>... parameterTypes) {
+        try {
+            return ordinal(Object.class.getMethod(name, parameterTypes));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return ordinal of given method of the face or -1 if the method does not belong to the face
+     */
+    protected int ordinal(Method method) {
+        int ordinal = methodOrdinals.get(method);
+        if (ordinal == MethodOrdinals.ABSENT) {
+            ordinal = resolveOrdinal(method);
+            methodOrdinals.put(method, ordinal);
+        }
+        return ordinal;
+    }
+
+    private int resolveOrdinal(Method method) {
+        Integer ordinal = ordinals.get(method);
+        if (ordinal != null) {
+            return ordinal;
+        }
+        // method with the same signature declared by other interface
+        int[] named = nameOrdinals.get(method.getName());
+        if (named != null) {
+            for (int i : named) {
+                Method m = faceMethods[i];
+                if (m.getReturnType() == method.getReturnType() && m.getParameterCount() == method.getParameterCount() &&
+                        Arrays.equals(m.getParameterTypes(), method.getParameterTypes())) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static Method[] faceMethods(Class<?> face) {
+        Map<String, Method> methods = new LinkedHashMap<>();
+        for (Method m : face.getMethods()) {
+            if (!Modifier.isStatic(m.getModifiers())) {
+                methods.putIfAbsent(signature(m), m);
+            }
+        }
+        for (String name : new String[] {"equals", "hashCode", "toString"}) {
+            for (Method m : Object.class.getMethods()) {
+                if (name.equals(m.getName())) {
+                    methods.putIfAbsent(signature(m), m);
+                }
+            }
+        }
+        return methods.values().toArray(new Method[0]);
+    }
+
+    private static String signature(Method method) {
+        return method.getName() + Arrays.toString(method.getParameterTypes()) + method.getReturnType();
+    }
+
     protected abstract Collection<Method> definedMethods(Object target);
-    protected abstract InvocationHandler createInvocationHandler(T target, Object ... others);
+    protected abstract BaseInvocationHandler createInvocationHandler(T target, Object ... others);
+
+    /**
+     * Base class of invocation handlers. The objects are not final because handler of flyweight proxy
+     * can be bound to other objects.
+     */
+    protected abstract class BaseInvocationHandler implements InvocationHandler, Supplier<T> {
+        protected T target;
+        protected Object[] others;
+        /**
+         * Objects of view created by {@link #wrapLazy(Supplier, Supplier[])} or {@code null} if the handler is bound
+         * to the objects themselves. The target and the others are not assigned then: they are read from the sources.
+         */
+        LazySources lazy;
+
+        protected BaseInvocationHandler(T target, Object[] others) {
+            this.target = target;
+            this.others = others;
+        }
+
+        BaseInvocationHandler(LazySources lazy) {
+            this(null, new Object[lazy.size() - 1]);
+            this.lazy = lazy;
+        }
+
+        protected void rebind(T target, Object[] others) {
+            this.target = target;
+            this.others = others;
+            lazy = null;
+        }
+
+        private BaseWrapper<T, I> wrapper() {
+            return BaseWrapper.this;
+        }
+
+        /**
+         * @return the target; target of lazy view is loaded if it was not loaded yet
+         */
+        @Override
+        public T get() {
+            if (lazy != null) {
+                @SuppressWarnings("unchecked")
+                T loaded = (T)lazy.get(0);
+                return loaded;
+            }
+            return target;
+        }
+    }
+
+    /**
+     * Invocation handler of lazy view of wrapper that cannot tell which object serves the method without the objects:
+     * all objects are loaded by the first call.
+     */
+    private class LazyInvocationHandler extends BaseInvocationHandler {
+        private volatile BaseInvocationHandler delegate;
+
+        private LazyInvocationHandler(LazySources sources) {
+            super(sources);
+        }
+
+        @Override
+        protected void rebind(T target, Object[] others) {
+            super.rebind(target, others);
+            delegate = createInvocationHandler(target, others);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            BaseInvocationHandler d = delegate;
+            if (d == null) {
+                // racy creation is safe: the objects are loaded once, so the handlers are equivalent
+                d = createInvocationHandler(get(), lazy.others());
+                delegate = d;
+            }
+            return d.invoke(proxy, method, args);
+        }
+    }
+
+    /**
+     * Invocation handler of wrapper with metrics: counts calls and measures latency of sample of them.
+     */
+    private class MeteredInvocationHandler implements InvocationHandler, Supplier<T> {
+        private final BaseInvocationHandler handler;
+
+        private MeteredInvocationHandler(BaseInvocationHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            int ordinal = ordinal(method);
+            if (!metrics.invoked(ordinal)) {
+                return handler.invoke(proxy, method, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return handler.invoke(proxy, method, args);
+            } finally {
+                metrics.sampled(ordinal, System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public T get() {
+            return handler.get();
+        }
+    }
 }
@@ -0,0 +1,78 @@
+package org.duckwings;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Base class of adapters generated by {@link BufferWrapper}. Generated subclass reads each field of the record directly
+ * from the buffer at the position of the record plus offset of the field, so neither reflection nor boxing is involved.
+ * This class is public only because the generated classes may live in other packages; it is not intended to be used directly.
+ */
+public abstract class BufferAdapter {
+    protected final BufferWrapper<?> wrapper;
+    ByteBuffer buffer;
+    int base;
+
+    protected BufferAdapter(BufferWrapper<?> wrapper) {
+        this.wrapper = wrapper;
+    }
+
+    /**
+     * Creates new unbound instance of the same adapter class.
+     */
+    protected abstract BufferAdapter newInstance();
+
+    protected final byte readByte(int offset) {
+        return buffer.get(base + offset);
+    }
+
+    protected final boolean readBoolean(int offset) {
+        return buffer.get(base + offset) != 0;
+    }
+
+    protected final short readShort(int offset) {
+        return buffer.getShort(base + offset);
+    }
+
+    protected final char readChar(int offset) {
+        return buffer.getChar(base + offset);
+    }
+
+    protected final int readInt(int offset) {
+        return buffer.getInt(base + offset);
+    }
+
+    protected final float readFloat(int offset) {
+        return buffer.getFloat(base + offset);
+    }
+
+    protected final long readLong(int offset) {
+        return buffer.getLong(base + offset);
+    }
+
+    protected final double readDouble(int offset) {
+        return buffer.getDouble(base + offset);
+    }
+
+    protected final String readText(int offset, int length) {
+        return RecordLayout.Field.text(buffer, base + offset, length);
+    }
+
+    protected final Object fail(int ordinal) {
+        return wrapper.fail(ordinal, buffer);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return wrapper.recordEquals(buffer, base, obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return wrapper.recordHashCode(buffer, base);
+    }
+
+    @Override
+    public String toString() {
+        return wrapper.recordToString(buffer, base);
+    }
+}
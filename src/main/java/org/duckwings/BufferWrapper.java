@@ -0,0 +1,413 @@
+package org.duckwings;
+
+import net.sf.cglib.core.Block;
+import net.sf.cglib.core.ClassEmitter;
+import net.sf.cglib.core.CodeEmitter;
+import net.sf.cglib.core.Constants;
+import net.sf.cglib.core.ReflectUtils;
+import net.sf.cglib.core.Signature;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Type;
+
+import javax.management.MBeanServer;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static java.lang.String.format;
+
+/**
+ * Wrapper whose targets are fixed size records stored in {@link ByteBuffer} as described by {@link RecordLayout}.
+ * Getter of the face reads the field of the same name (i.e. {@code getId()}, {@code isActive()} or {@code id()} reads
+ * field {@code id}) directly from the buffer, so scanning large file requires no object per record:
+ * <pre>
+ * BufferWrapper&lt;Trade&gt; wrapper = DuckWings.builder().buffer(Trade.class, layout);
+ * Trade trade = wrapper.record(mapped, 0);
+ * for (int i = 0; i &lt; wrapper.count(mapped); i++) {
+ *     volume += wrapper.moveTo(trade, i).getQuantity();
+ * }
+ * </pre>
+ * Records are numbered from the position of the buffer; the position and the limit of the buffer are never changed.
+ * Getters are served by generated adapter class unless metrics are enabled or the class cannot be generated.
+ * Methods that are not mapped to fields and reads outside of the buffer are handled as missing methods.
+ * View is not thread safe while it is moved, but several views can read the same buffer concurrently.
+ */
+public final class BufferWrapper<I> extends BaseWrapper<ByteBuffer, I> {
+    private final RecordLayout layout;
+    /**
+     * Field read by face method by its ordinal or {@code null} if the method is not mapped to field.
+     */
+    private final RecordLayout.Field[] fields;
+    private final Collection<Method> definedMethods = new ArrayList<>();
+    /**
+     * Unbound instance of generated adapter or {@code null} if views are dynamic proxies.
+     */
+    private final BufferAdapter prototype;
+
+    BufferWrapper(
+            Class<I> face,
+            RecordLayout layout,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<Function<Method, Throwable>> constructionFailure,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<Function<Method, Throwable>> runtimeFailure,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<MBeanServer> metricsServer,
+            Executor executor) {
+        super(face, constructionFailure, runtimeFailure, metricsServer, Equality.VALUE, false, executor);
+        this.layout = layout;
+        fields = new RecordLayout.Field[faceMethods.length];
+        boolean[] objectMethods = new boolean[faceMethods.length];
+        for (int i = 0; i < faceMethods.length; i++) {
+            Method method = faceMethods[i];
+            objectMethods[i] = isObjectMethod(i);
+            RecordLayout.Field field = objectMethods[i] || method.getParameterCount() > 0 ? null : layout.find(property(method));
+            if (field != null) {
+                if (field.type != method.getReturnType()) {
+                    throw new IllegalArgumentException(format("Field %s is %s, but %s.%s() returns %s",
+                            field.name, field.type.getName(), face.getSimpleName(), method.getName(), method.getReturnType().getName()));
+                }
+                fields[i] = field;
+                definedMethods.add(method);
+            }
+        }
+        prototype = metrics == null ? prototype(objectMethods) : null;
+    }
+
+    public RecordLayout layout() {
+        return layout;
+    }
+
+    /**
+     * @return number of whole records between the position and the limit of the buffer
+     */
+    public int count(ByteBuffer buffer) {
+        return buffer.remaining() / layout.size();
+    }
+
+    /**
+     * Creates view of record with given index. {@link #wrap(Object)} creates view of the first record.
+     * @throws IndexOutOfBoundsException if the buffer does not contain such record
+     */
+    public I record(ByteBuffer buffer, int index) {
+        validate(buffer);
+        return view(buffer, base(buffer, index));
+    }
+
+    /**
+     * Moves view created by this wrapper to other record of the same buffer without creating new object.
+     * @return the view
+     * @throws IndexOutOfBoundsException if the buffer does not contain such record
+     */
+    public I moveTo(I view, int index) {
+        if (view instanceof BufferAdapter && ((BufferAdapter)view).wrapper == this) {
+            BufferAdapter adapter = (BufferAdapter)view;
+            adapter.base = base(adapter.buffer, index);
+            return view;
+        }
+        BufferInvocationHandler handler = bufferHandler(view);
+        handler.base = base(handler.target, index);
+        return view;
+    }
+
+    /**
+     * Passes all records of the buffer to the action by one view that is moved from record to record,
+     * so the view must not be kept by the action.
+     */
+    public void forEachRecord(ByteBuffer buffer, Consumer<? super I> action) {
+        int count = count(buffer);
+        if (count == 0) {
+            return;
+        }
+        I view = record(buffer, 0);
+        for (int i = 0; i < count; i++) {
+            action.accept(moveTo(view, i));
+        }
+    }
+
+    @Override
+    protected I createProxy(ByteBuffer target, Object... others) {
+        if (others.length > 0) {
+            throw new IllegalArgumentException("Record view is bound to one buffer");
+        }
+        return view(target, target.position());
+    }
+
+    @Override
+    public I flyweight() {
+        if (prototype == null) {
+            return super.flyweight();
+        }
+        @SuppressWarnings("unchecked")
+        I view = (I)prototype.newInstance();
+        return view;
+    }
+
+    /**
+     * Binds flyweight to the first record of given buffer.
+     */
+    @Override
+    public I rebind(I flyweight, ByteBuffer target, Object... others) {
+        if (!(flyweight instanceof BufferAdapter) || ((BufferAdapter)flyweight).wrapper != this) {
+            return super.rebind(flyweight, target, others);
+        }
+        if (others.length > 0) {
+            throw new IllegalArgumentException("Record view is bound to one buffer");
+        }
+        validate(target);
+        BufferAdapter adapter = (BufferAdapter)flyweight;
+        adapter.buffer = target;
+        adapter.base = target.position();
+        return flyweight;
+    }
+
+    @Override
+    protected Collection<Method> definedMethods(Object target) {
+        return definedMethods;
+    }
+
+    @Override
+    protected BaseInvocationHandler createInvocationHandler(ByteBuffer target, Object... others) {
+        return new BufferInvocationHandler(target);
+    }
+
+    private I view(ByteBuffer buffer, int base) {
+        if (prototype != null) {
+            BufferAdapter adapter = prototype.newInstance();
+            adapter.buffer = buffer;
+            adapter.base = base;
+            @SuppressWarnings("unchecked")
+            I view = (I)adapter;
+            return view;
+        }
+        I view = super.createProxy(buffer);
+        bufferHandler(view).base = base;
+        return view;
+    }
+
+    private BufferInvocationHandler bufferHandler(Object view) {
+        BaseInvocationHandler handler = ownHandler(view);
+        if (handler == null) {
+            throw new IllegalArgumentException("Object was not created by this wrapper");
+        }
+        return (BufferInvocationHandler)handler;
+    }
+
+    private int base(ByteBuffer buffer, int index) {
+        if (buffer == null) {
+            throw new IllegalStateException("View is not bound to buffer");
+        }
+        int count = count(buffer);
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException(format("Record %d of %d", index, count));
+        }
+        return buffer.position() + index * layout.size();
+    }
+
+    /**
+     * Views are equal if they show the same record of the same buffer.
+     */
+    boolean recordEquals(ByteBuffer buffer, int base, Object other) {
+        if (other instanceof BufferAdapter) {
+            BufferAdapter adapter = (BufferAdapter)other;
+            return adapter.wrapper == this && adapter.buffer == buffer && adapter.base == base;
+        }
+        BaseInvocationHandler handler = ownHandler(other);
+        return handler != null && handler.target == buffer && ((BufferInvocationHandler)handler).base == base;
+    }
+
+    int recordHashCode(ByteBuffer buffer, int base) {
+        return 31 * System.identityHashCode(buffer) + base;
+    }
+
+    /**
+     * @return all fields of the record, e.g. {@code Trade{id=1, quantity=100}}
+     */
+    String recordToString(ByteBuffer buffer, int base) {
+        StringJoiner values = new StringJoiner(", ", face.getSimpleName() + "{", "}");
+        for (RecordLayout.Field field : layout.fields().values()) {
+            Object value;
+            try {
+                value = field.read(buffer, base);
+            } catch (RuntimeException e) {
+                value = "?";
+            }
+            values.add(field.name + "=" + value);
+        }
+        return values.toString();
+    }
+
+    private BufferAdapter prototype(boolean[] objectMethods) {
+        AdapterGenerator generator = AdapterGenerator.create(face, faceMethods, fields, objectMethods);
+        if (generator == null) {
+            return null;
+        }
+
+        Class<?> adapterClass = generator.generate();
+        if (adapterClass == null) {
+            return null;
+        }
+        try {
+            return (BufferAdapter)adapterClass.getConstructor(BufferWrapper.class).newInstance(this);
+        } catch (ReflectiveOperationException e) {
+            // the constructor is not accessible; dynamic proxy will be used instead
+            return null;
+        }
+    }
+
+    private class BufferInvocationHandler extends BaseInvocationHandler {
+        /**
+         * Position of the current record in the buffer.
+         */
+        private int base;
+
+        private BufferInvocationHandler(ByteBuffer target) {
+            super(target, new Object[0]);
+            base = target == null ? 0 : target.position();
+        }
+
+        @Override
+        protected void rebind(ByteBuffer target, Object[] others) {
+            if (others.length > 0) {
+                throw new IllegalArgumentException("Record view is bound to one buffer");
+            }
+            super.rebind(target, others);
+            base = target.position();
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "hashCode":
+                        return recordHashCode(target, base);
+                    case "equals":
+                        return recordEquals(target, base, args[0]);
+                    default:
+                        return recordToString(target, base);
+                }
+            }
+            int ordinal = ordinal(method);
+            RecordLayout.Field field = ordinal < 0 ? null : fields[ordinal];
+            if (field != null && target != null) {
+                try {
+                    return field.read(target, base);
+                } catch (RuntimeException e) {
+                    // record is outside of the buffer; handled below exactly as method that is not implemented
+                }
+            }
+            return fail(method, target);
+        }
+    }
+
+    private static class AdapterGenerator extends AdapterClassGenerator {
+        private static final Type ADAPTER = Type.getType(BufferAdapter.class);
+        private static final Type WRAPPER = Type.getType(BufferWrapper.class);
+        private static final Signature CONSTRUCTOR = new Signature("<init>", Type.VOID_TYPE, new Type[] {WRAPPER});
+        private static final Signature NEW_INSTANCE = new Signature("newInstance", ADAPTER, new Type[0]);
+        private static final Signature FAIL = new Signature("fail", Constants.TYPE_OBJECT, new Type[] {Type.INT_TYPE});
+
+        private final Method[] faceMethods;
+        private final RecordLayout.Field[] fields;
+        private final boolean[] objectMethods;
+
+        private AdapterGenerator(Class<?> face, Class<?> anchor, Method[] faceMethods, RecordLayout.Field[] fields, boolean[] objectMethods) {
+            super(BufferWrapper.class, face, anchor, "Buffer");
+            this.faceMethods = faceMethods;
+            this.fields = fields;
+            this.objectMethods = objectMethods;
+        }
+
+        /**
+         * @return generator or {@code null} if adapter cannot be generated
+         */
+        static AdapterGenerator create(Class<?> face, Method[] faceMethods, RecordLayout.Field[] fields, boolean[] objectMethods) {
+            Class<?> anchor = faceAnchor(face, BufferAdapter.class);
+            return anchor == null ? null : new AdapterGenerator(face, anchor, faceMethods, fields, objectMethods);
+        }
+
+        /**
+         * Adapter class depends on the face and on offsets and types of the fields, so layouts of the same shape share it.
+         */
+        Class<?> generate() {
+            StringBuilder shape = new StringBuilder();
+            for (RecordLayout.Field field : fields) {
+                shape.append(field == null ? "-" : field.offset + Type.getDescriptor(field.type) + field.length).append(';');
+            }
+            return adapterClass(Arrays.asList(face.getName(), shape.toString()));
+        }
+
+        @Override
+        public void generateClass(ClassVisitor v) {
+            ClassEmitter ce = new ClassEmitter(v);
+            ce.begin_class(Constants.V1_8, Constants.ACC_PUBLIC | Constants.ACC_FINAL, className(), ADAPTER, new Type[] {Type.getType(face)}, Constants.SOURCE_FILE);
+
+            CodeEmitter e = ce.begin_method(Constants.ACC_PUBLIC, CONSTRUCTOR, null);
+            e.load_this();
+            e.load_args();
+            e.super_invoke_constructor(CONSTRUCTOR);
+            e.return_value();
+            e.end_method();
+
+            e = ce.begin_method(Constants.ACC_PROTECTED, NEW_INSTANCE, null);
+            e.new_instance_this();
+            e.dup();
+            e.load_this();
+            e.getfield(ADAPTER, "wrapper", WRAPPER);
+            e.invoke_constructor_this(CONSTRUCTOR);
+            e.return_value();
+            e.end_method();
+
+            for (int i = 0; i < faceMethods.length; i++) {
+                if (objectMethods[i]) {
+                    // served by BufferAdapter
+                    continue;
+                }
+                e = ce.begin_method(Constants.ACC_PUBLIC, ReflectUtils.getSignature(faceMethods[i]), null);
+                if (fields[i] != null) {
+                    read(e, fields[i], i);
+                } else {
+                    fail(e, i);
+                }
+                e.end_method();
+            }
+
+            ce.end_class();
+        }
+
+        /**
+         * Reads the field by the method of {@link BufferAdapter}. Exception (e.g. record outside of the buffer) is handled
+         * as failure exactly as invocation handler does.
+         */
+        private void read(CodeEmitter e, RecordLayout.Field field, int ordinal) {
+            Type returnType = e.getReturnType();
+            Block block = e.begin_block();
+            e.load_this();
+            e.push(field.offset);
+            if (field.type == String.class) {
+                e.push(field.length);
+                e.invoke_virtual(ADAPTER, new Signature("readText", returnType, new Type[] {Type.INT_TYPE, Type.INT_TYPE}));
+            } else {
+                String name = "read" + Character.toUpperCase(field.type.getName().charAt(0)) + field.type.getName().substring(1);
+                e.invoke_virtual(ADAPTER, new Signature(name, returnType, new Type[] {Type.INT_TYPE}));
+            }
+            e.return_value();
+            block.end();
+
+            e.catch_exception(block, Constants.TYPE_THROWABLE);
+            e.pop();
+            fail(e, ordinal);
+        }
+
+        private void fail(CodeEmitter e, int ordinal) {
+            e.load_this();
+            e.push(ordinal);
+            e.invoke_virtual(ADAPTER, FAIL);
+            returnObject(e);
+        }
+    }
+}
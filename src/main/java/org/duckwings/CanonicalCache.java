@@ -0,0 +1,141 @@
+package org.duckwings;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Concurrent cache of wrappers by identity of the wrapped object used by wrappers created with
+ * {@link DuckWings.WrapperBuilder#canonical()}. Both the wrapped object and the wrapper are referenced weakly: the wrapper refers
+ * the wrapped object, so strong reference to it would keep the object reachable forever. Therefore the same wrapper is returned
+ * as long as the wrapper is reachable; entries are removed when the wrapped object is collected.
+ * <p>
+ * Lookup is lock free and does not allocate: buckets are immutable chains replaced as a whole under lock.
+ */
+final class CanonicalCache<I> {
+    private static final int INITIAL_CAPACITY = 64;
+    private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+    private volatile AtomicReferenceArray<Node<I>> table = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+    private int size;
+
+    /**
+     * @return wrapper of given object or {@code null} if it was not cached or was already collected
+     */
+    I get(Object target) {
+        int hash = System.identityHashCode(target);
+        AtomicReferenceArray<Node<I>> t = table;
+        for (Node<I> n = t.get(hash & (t.length() - 1)); n != null; n = n.next) {
+            if (n.hash == hash && n.get() == target) {
+                return n.wrapper.get();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Caches wrapper of given object unless other thread did it already.
+     * @return the wrapper that is cached
+     */
+    synchronized I put(Object target, I wrapper) {
+        expunge();
+        int hash = System.identityHashCode(target);
+        AtomicReferenceArray<Node<I>> t = table;
+        int index = hash & (t.length() - 1);
+        Node<I> head = t.get(index);
+        for (Node<I> n = head; n != null; n = n.next) {
+            if (n.hash == hash && n.get() == target) {
+                I cached = n.wrapper.get();
+                if (cached != null) {
+                    return cached;
+                }
+                // the wrapper was collected while the object is alive: the node is replaced
+                head = without(head, n);
+                size--;
+                break;
+            }
+        }
+        t.set(index, new Node<>(target, hash, wrapper, head, collected));
+        if (++size > t.length() * 3 / 4) {
+            resize(t);
+        }
+        return wrapper;
+    }
+
+    synchronized int size() {
+        expunge();
+        return size;
+    }
+
+    /**
+     * Removes entries of collected objects.
+     */
+    private void expunge() {
+        AtomicReferenceArray<Node<I>> t = table;
+        for (Reference<?> ref; (ref = collected.poll()) != null; ) {
+            @SuppressWarnings("unchecked")
+            Node<I> node = (Node<I>)ref;
+            int index = node.hash & (t.length() - 1);
+            Node<I> head = t.get(index);
+            for (Node<I> n = head; n != null; n = n.next) {
+                if (n == node) {
+                    t.set(index, without(head, node));
+                    size--;
+                    break;
+                }
+            }
+        }
+    }
+
+    private void resize(AtomicReferenceArray<Node<I>> t) {
+        AtomicReferenceArray<Node<I>> resized = new AtomicReferenceArray<>(t.length() * 2);
+        size = 0;
+        for (int i = 0; i < t.length(); i++) {
+            for (Node<I> n = t.get(i); n != null; n = n.next) {
+                Object target = n.get();
+                I wrapper = n.wrapper.get();
+                if (target != null && wrapper != null) {
+                    int index = n.hash & (resized.length() - 1);
+                    resized.set(index, new Node<>(target, n.hash, wrapper, resized.get(index), collected));
+                    size++;
+                }
+            }
+        }
+        // nodes of the old table may be enqueued later; they are not found in the new table, so expunge ignores them
+        table = resized;
+    }
+
+    /**
+     * @return copy of the chain without given node
+     */
+    private Node<I> without(Node<I> head, Node<I> node) {
+        if (head == node) {
+            return node.next;
+        }
+        Object target = head.get();
+        I wrapper = head.wrapper.get();
+        Node<I> rest = without(head.next, node);
+        if (target == null || wrapper == null) {
+            // collected entries are dropped together; their nodes are not enqueued twice, so size is fixed here
+            size--;
+            return rest;
+        }
+        return new Node<>(target, head.hash, wrapper, rest, collected);
+    }
+
+    /**
+     * Entry of the chain: weak reference to the wrapped object and weak reference to its wrapper.
+     */
+    private static final class Node<I> extends WeakReference<Object> {
+        private final int hash;
+        private final WeakReference<I> wrapper;
+        private final Node<I> next;
+
+        private Node(Object target, int hash, I wrapper, Node<I> next, ReferenceQueue<Object> queue) {
+            super(target, queue);
+            this.hash = hash;
+            this.wrapper = new WeakReference<>(wrapper);
+            this.next = next;
+        }
+    }
+}
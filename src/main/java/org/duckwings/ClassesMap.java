@@ -0,0 +1,116 @@
+package org.duckwings;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Values cached by wrapper for each combination of classes of the target and the other objects. Values are attached
+ * to the class of the target using {@link ClassValue} and refer classes of the other objects weakly, so long living wrapper
+ * does not prevent unloading of classes it has seen (e.g. classes of redeployed application); the combination is dropped
+ * once any of its classes is collected. Values are found without allocation. Values must neither refer the classes
+ * (e.g. by their methods) nor the wrapper, otherwise they would keep the classes or the wrapper reachable.
+ */
+final class ClassesMap<V> {
+    private final ClassValue<Slot<V>> slots = new ClassValue<Slot<V>>() {
+        @Override
+        protected Slot<V> computeValue(Class<?> type) {
+            return new Slot<>();
+        }
+    };
+
+    /**
+     * @return value for classes of given objects computed by the supplier if it is not cached yet
+     */
+    V get(Object target, Object[] others, Supplier<V> supplier) {
+        Slot<V> slot = slots.get(target.getClass());
+        if (others.length == 0) {
+            V value = slot.value;
+            if (value == null) {
+                // racy initialization is safe: the values computed for the same class are equivalent
+                value = supplier.get();
+                slot.value = value;
+            }
+            return value;
+        }
+        for (Combination combination : slot.combinations) {
+            if (combination.matches(others)) {
+                @SuppressWarnings("unchecked")
+                V value = (V)combination.value;
+                return value;
+            }
+        }
+        return slot.add(others, supplier.get());
+    }
+
+    private static final class Slot<V> {
+        private volatile V value;
+        /**
+         * Values of combinations with classes of the other objects, replaced as a whole under lock of the slot.
+         * There are usually few combinations per class, so lookup by linear scan is cheaper than a map.
+         */
+        private volatile Combination[] combinations = new Combination[0];
+
+        private synchronized V add(Object[] others, V value) {
+            Combination[] copy = new Combination[combinations.length + 1];
+            int size = 0;
+            for (Combination combination : combinations) {
+                if (combination.matches(others)) {
+                    @SuppressWarnings("unchecked")
+                    V existing = (V)combination.value;
+                    return existing;
+                }
+                // combinations of collected classes are dropped
+                if (!combination.collected()) {
+                    copy[size++] = combination;
+                }
+            }
+            copy[size++] = new Combination(others, value);
+            combinations = Arrays.copyOf(copy, size);
+            return value;
+        }
+    }
+
+    /**
+     * Value of the classes of other objects; the classes are referred weakly.
+     */
+    private static final class Combination {
+        private final ClassRef[] classes;
+        private final Object value;
+
+        private Combination(Object[] others, Object value) {
+            classes = new ClassRef[others.length];
+            for (int i = 0; i < others.length; i++) {
+                classes[i] = new ClassRef(others[i].getClass());
+            }
+            this.value = value;
+        }
+
+        private boolean matches(Object[] others) {
+            if (others.length != classes.length) {
+                return false;
+            }
+            for (int i = 0; i < others.length; i++) {
+                if (classes[i].get() != others[i].getClass()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean collected() {
+            for (ClassRef type : classes) {
+                if (type.get() == null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class ClassRef extends WeakReference<Class<?>> {
+        private ClassRef(Class<?> type) {
+            super(type);
+        }
+    }
+}
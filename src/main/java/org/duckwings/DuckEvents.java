@@ -0,0 +1,56 @@
+package org.duckwings;
+
+import java.lang.reflect.Method;
+
+/**
+ * Emits Java Flight Recorder events of the wrappers: {@code org.duckwings.DuckWrap}, {@code org.duckwings.DuckMethodResolve}
+ * and {@code org.duckwings.DuckDispatchMiss}. The events are configured (enabled, threshold, stack trace) by the recording
+ * settings exactly as JDK events. Flight recorder is optional: on JVM without {@code jdk.jfr} this class does nothing,
+ * so the JFR API is referenced by {@link JfrEvents} only that is loaded when the API is available.
+ */
+class DuckEvents {
+    static final DuckEvents EVENTS = create();
+
+    DuckEvents() {
+    }
+
+    /**
+     * Starts event of wrapping.
+     * @return the event that must be passed to {@link #endWrap(Object, Class, Object)} or {@code null} if the event is disabled
+     */
+    Object beginWrap() {
+        return null;
+    }
+
+    void endWrap(Object event, Class<?> face, Object target) {
+    }
+
+    /**
+     * Starts event of resolution of target method by reflection.
+     * @return the event that must be passed to {@link #endResolve(Object, Class, Class, Method, boolean)} or {@code null} if the event is disabled
+     */
+    Object beginResolve() {
+        return null;
+    }
+
+    void endResolve(Object event, Class<?> face, Class<?> targetClass, Method method, boolean found) {
+    }
+
+    /**
+     * Records call of face method that was not served by the target directly.
+     * @param target the target or {@code null} if it is not known
+     * @param outcome what was done instead: {@code fallback}, {@code default value} or {@code failure}
+     */
+    void dispatchMiss(Class<?> face, Object target, Method method, String outcome) {
+    }
+
+    private static DuckEvents create() {
+        try {
+            Class.forName("jdk.jfr.Event", false, DuckEvents.class.getClassLoader());
+            return (DuckEvents)Class.forName(DuckEvents.class.getPackage().getName() + ".JfrEvents").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            // flight recorder is not available on this platform
+            return new DuckEvents();
+        }
+    }
+}
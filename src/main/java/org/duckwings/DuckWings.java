@@ -1,9 +1,11 @@
 package org.duckwings;
 
-
+import javax.management.MBeanServer;
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -17,7 +19,11 @@ public class DuckWings<T, I> {
         private Optional<Function<Method, Throwable>> constructionFailure = Optional.empty();
         @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
         private Optional<Function<Method, Throwable>> runtimeFailure = Optional.empty();
-
+        @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+        private Optional<MBeanServer> metricsServer = Optional.empty();
+        private Equality equality = Equality.VALUE;
+        private boolean canonical;
+        private Executor executor = AsyncDispatch.DEFAULT_EXECUTOR;
 
         public WrapperBuilder throwIfAbsentDuringBuilding(Function<Method, Throwable> constructionFailure) {
             this.constructionFailure = Optional.of(constructionFailure);
@@ -29,17 +35,126 @@ public class DuckWings<T, I> {
             return this;
         }
 
+        /**
+         * Enables metrics of the wrappers created by this builder. Each wrapper is registered in the platform MBean server
+         * as {@link WrapperMetricsMXBean}. Calls of such wrappers are always dispatched through dynamic proxy, so generated
+         * adapters are not used.
+         */
+        public WrapperBuilder metrics() {
+            return metrics(ManagementFactory.getPlatformMBeanServer());
+        }
+
+        /**
+         * Enables metrics of the wrappers created by this builder and registers them in given MBean server.
+         * @see #metrics()
+         */
+        public WrapperBuilder metrics(MBeanServer server) {
+            this.metricsServer = Optional.of(server);
+            return this;
+        }
+
+        /**
+         * Defines how {@code equals()} and {@code hashCode()} of the wrapped objects are implemented; {@link Equality#VALUE} by default.
+         */
+        public WrapperBuilder equality(Equality equality) {
+            this.equality = equality;
+            return this;
+        }
+
+        /**
+         * Makes wrappers created by this builder canonical: wrapping the same object (by identity) again returns the same wrapper
+         * as long as the wrapper is reachable. The cache does not prevent garbage collection of the wrapped objects.
+         * Views over several objects are not cached.
+         */
+        public WrapperBuilder canonical() {
+            this.canonical = true;
+            return this;
+        }
+
+        /**
+         * Sets executor of face methods that return {@link java.util.concurrent.CompletableFuture}, {@link java.util.concurrent.CompletionStage}
+         * or {@link java.util.concurrent.Future} and are implemented by methods or functions that return the value synchronously.
+         * Such methods are called by the executor and the future is completed by their result. By default each call runs
+         * on its own virtual thread if JDK supports virtual threads and on {@link java.util.concurrent.ForkJoinPool#commonPool()} otherwise.
+         */
+        public WrapperBuilder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
         public <T, I> FunctionalWrapper<T, I> functional(Class<I> faceType, Class<T> targetType) {
-            return new FunctionalWrapper<>(faceType, constructionFailure, runtimeFailure);
+            return new FunctionalWrapper<>(faceType, constructionFailure, runtimeFailure, metricsServer, equality, canonical, executor);
         }
 
         public <T, I> Wrapper<T, I> reflect(Class<I> faceType) {
-            return new ReflectionalWrapper<>(faceType, constructionFailure, runtimeFailure);
+            return new ReflectionalWrapper<>(faceType, constructionFailure, runtimeFailure, metricsServer, equality, canonical, executor);
+        }
+
+        /**
+         * Creates wrapper that follows the same rules as {@link #reflect(Class)} but generates adapter class
+         * for each target class instead of using dynamic proxy.
+         */
+        public <T, I> Wrapper<T, I> generated(Class<I> faceType) {
+            return new GeneratedWrapper<>(faceType, constructionFailure, runtimeFailure, metricsServer, equality, canonical, executor);
+        }
+
+        /**
+         * Creates wrapper whose targets are maps from property names to values (e.g. rows of JSON or JDBC result).
+         * Getters of the face read values of the same name: {@code int getId()} reads {@code map.get("id")}.
+         * {@link MapWrapper#rows(String...)} creates wrapper of rows stored as arrays with shared table of keys.
+         */
+        public <I> MapWrapper<I> map(Class<I> faceType) {
+            return new MapWrapper<>(faceType, constructionFailure, runtimeFailure, metricsServer, equality, canonical, executor);
+        }
+
+        /**
+         * Creates wrapper whose targets are records of given layout stored in {@link java.nio.ByteBuffer} (e.g. memory mapped file).
+         * Getters of the face read fields of the same name directly from the buffer: {@code int getId()} reads field {@code id}.
+         * Views are never canonical and their equality is the position of the record in the buffer.
+         * @throws IllegalArgumentException if type of field differs from the return type of its getter
+         */
+        public <I> BufferWrapper<I> buffer(Class<I> faceType, RecordLayout layout) {
+            return new BufferWrapper<>(faceType, layout, constructionFailure, runtimeFailure, metricsServer, executor);
+        }
+    }
+
+    /**
+     * Limits number of target classes whose resolved methods are kept in the cache shared by all wrappers.
+     * Resolved methods are released when the target class is unloaded anyway; the limit is useful when many classes are
+     * generated at runtime and live long. The default is no limit; it can be set by system property
+     * {@code org.duckwings.resolutionCache.maxClasses} too. The limit should be set before wrappers are used.
+     * @param maxClasses maximal number of classes or 0 for no limit
+     */
+    public static void limitResolutionCache(int maxClasses) {
+        ResolutionCache.limit(maxClasses);
+    }
+
+    /**
+     * Unregisters MXBean of wrapper created with {@link WrapperBuilder#metrics()}. The MBean server references the bean
+     * and thus the face and its class loader, so wrappers that are created repeatedly (e.g. per module of plugin host)
+     * must be unregistered when they are not used anymore. The wrapper keeps working but its metrics are not visible.
+     * Does nothing if the wrapper has no metrics or was unregistered already.
+     */
+    public static void unregisterMetrics(Wrapper<?, ?> wrapper) {
+        if (wrapper instanceof BaseWrapper && ((BaseWrapper<?, ?>)wrapper).metrics != null) {
+            ((BaseWrapper<?, ?>)wrapper).metrics.unregister();
         }
     }
 
     @SuppressWarnings("unchecked")
     public static <I> I unwrap(Object obj) {
-        return ((Supplier<I>) Proxy.getInvocationHandler(obj)).get();
+        if (obj instanceof GeneratedAdapter) {
+            return (I)((GeneratedAdapter)obj).target;
+        }
+        if (obj instanceof FunctionalAdapter) {
+            return (I)((FunctionalAdapter)obj).target;
+        }
+        if (obj instanceof BufferAdapter) {
+            return (I)((BufferAdapter)obj).buffer;
+        }
+        if (obj instanceof PropertyAdapter) {
+            return (I)((PropertyAdapter)obj).target;
+        }
+        return ((Supplier<I>) BaseWrapper.handler(obj)).get();
     }
 }
@@ -0,0 +1,18 @@
+package org.duckwings;
+
+/**
+ * Defines how {@code equals()} and {@code hashCode()} of wrapped objects are implemented unless they are mapped explicitly.
+ * Other wrapper passed to {@code equals()} is unwrapped first, so two wrappers of the same object are equal.
+ * {@code toString()} is always delegated to the wrapped object.
+ * @see DuckWings.WrapperBuilder#equality(Equality)
+ */
+public enum Equality {
+    /**
+     * Delegates {@code equals()} and {@code hashCode()} to the wrapped object.
+     */
+    VALUE,
+    /**
+     * Wrappers are equal if they wrap the same instance; hash code is identity hash code of the wrapped object.
+     */
+    IDENTITY
+}
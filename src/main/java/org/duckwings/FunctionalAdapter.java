@@ -0,0 +1,40 @@
+package org.duckwings;
+
+import java.lang.reflect.InvocationHandler;
+
+/**
+ * Base class of adapters generated by {@link FunctionalWrapper} for faces that have methods mapped to primitive functions
+ * (e.g. {@link java.util.function.ToIntFunction}). Generated subclass calls such functions directly, so the value is not boxed.
+ * All other methods are delegated to the invocation handler exactly as dynamic proxy does.
+ * This class is public only because the generated classes may live in other packages; it is not intended to be used directly.
+ */
+public abstract class FunctionalAdapter {
+    protected final Object target;
+    protected final Object[] functions;
+    protected final FunctionalWrapper<?, ?> wrapper;
+    private final InvocationHandler handler;
+
+    protected FunctionalAdapter(Object target, Object[] others, Object[] functions, FunctionalWrapper<?, ?> wrapper) {
+        this.target = target;
+        this.functions = functions;
+        this.wrapper = wrapper;
+        handler = target == null ? null : wrapper.handler(target, others);
+    }
+
+    /**
+     * Creates new instance of the same adapter class bound to given objects.
+     */
+    protected abstract FunctionalAdapter newInstance(Object target, Object[] others);
+
+    InvocationHandler handler() {
+        return handler;
+    }
+
+    protected final Object dispatch(int ordinal, Object[] args) throws Throwable {
+        return wrapper.dispatch(handler, this, ordinal, args);
+    }
+
+    protected final Object fail(int ordinal) {
+        return wrapper.fail(ordinal, target);
+    }
+}
@@ -1,30 +1,76 @@
 package org.duckwings;
 
-import org.duckwings.internal.MethodComparator;
+import net.sf.cglib.core.Block;
+import net.sf.cglib.core.ClassEmitter;
+import net.sf.cglib.core.CodeEmitter;
+import net.sf.cglib.core.Constants;
+import net.sf.cglib.core.ReflectUtils;
+import net.sf.cglib.core.Signature;
+import org.duckwings.internal.SerializableBiFunction;
+import org.duckwings.internal.SerializableTetraFunction;
+import org.duckwings.internal.SerializableTriFunction;
 import org.duckwings.internal.TetraFunction;
 import org.duckwings.internal.TriFunction;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Type;
 
+import javax.management.MBeanServer;
+import java.lang.invoke.SerializedLambda;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.TreeMap;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
-import java.util.function.Supplier;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import static org.duckwings.DuckEvents.EVENTS;
 
 public class FunctionalWrapper<T, I> extends BaseWrapper<T, I> {
-    private Map<Method, FunctionContainer<?>> functions = new TreeMap<>(new MethodComparator());
+    /**
+     * Number of memoized results of method with parameters kept by each object; the least recently used one is discarded.
+     */
+    static final int MEMOIZED_ENTRIES = 16;
+
+    /**
+     * Functions registered so far indexed by ordinal of the face method. Changed and read under lock of the wrapper.
+     */
+    private final FunctionContainer<?>[] functions;
     private Wrapper<T, I> fallback;
     private Wrapper[] otherWrappers;
+    /**
+     * Immutable snapshot of the registered functions used by objects wrapped since the last change of the wrapper
+     * or {@code null} if the wrapper was changed since the snapshot was created.
+     */
+    private volatile Plan plan;
+    /**
+     * Whether {@link #freeze()} was called, so the wrapper cannot be changed and its plan is never rebuilt.
+     */
+    private volatile boolean frozen;
 
     FunctionalWrapper(
             Class<I> face,
             @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<Function<Method, Throwable>> constructionFailure,
-            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<Function<Method, Throwable>> runtimeFailure) {
-        super(face, constructionFailure, runtimeFailure);
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<Function<Method, Throwable>> runtimeFailure,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<MBeanServer> metricsServer,
+            Equality equality,
+            boolean canonical,
+            Executor executor) {
+        super(face, constructionFailure, runtimeFailure, metricsServer, equality, canonical, executor);
+        functions = new FunctionContainer<?>[faceMethods.length];
     }
 
 
@@ -35,71 +81,231 @@ public class FunctionalWrapper<T, I> extends BaseWrapper<T, I> {
 
 
     @SuppressWarnings("unchecked")
-    public <P, R> FunctionalWrapper<T, I> using(BiFunction<I, P, R> facefunc, BiFunction<T, P, R> classfunc) {
+    public <P, R> FunctionalWrapper<T, I> using(SerializableBiFunction<I, P, R> facefunc, BiFunction<T, P, R> classfunc) {
 //        facefunc.apply(functionCollectingProxy(classfunc, OneArgFunctionContainer::new), null); // for some reason labda does not work
-        boolean found = false;
-        for (Object value : defaultValues) {
-            try {
-                facefunc.apply(functionCollectingProxy(classfunc, f -> new OneArgFunctionContainer(f)), (P)value);
-                found = true;
-                break;
-            } catch (NullPointerException | ClassCastException e) {
-                // ignore exception. Try the next candidate for  default value
-            }
+        return register(facefunc, 1, classfunc, f -> new OneArgFunctionContainer(f), (proxy, args) -> facefunc.apply(proxy, (P)args[0]));
+    }
+
+    /**
+     * Maps method with one parameter by function that is not serializable, e.g. stored in variable of type {@link BiFunction}.
+     * Such function does not expose the referenced method, so it is found by calling the function with probed arguments.
+     * Method references and lambdas passed directly use {@link #using(SerializableBiFunction, BiFunction)}.
+     */
+    @SuppressWarnings("unchecked")
+    public <P, R> FunctionalWrapper<T, I> using(BiFunction<I, P, R> facefunc, BiFunction<T, P, R> classfunc) {
+        return register(facefunc, 1, classfunc, f -> new OneArgFunctionContainer(f), (proxy, args) -> facefunc.apply(proxy, (P)args[0]));
+    }
+
+    /**
+     * Maps method like {@link #using(Function, Function)} but the function is called at most once per wrapped object:
+     * the result is kept by the object, so expensive derived values (e.g. formatted or masked strings) are computed once.
+     * Exception thrown by the function is not memoized. Use {@link #invalidate(Object)} if the target changes.
+     */
+    @SuppressWarnings("unchecked")
+    public FunctionalWrapper<T, I> usingMemoized(Function<I, Object> facefunc, Function<T, Object> classfunc) {
+        facefunc.apply(functionCollectingProxy(classfunc, f -> new MemoizedFunctionContainer(new NoArgFunctionContainer((Function<Object, Object>)f))));
+        return this;
+    }
+
+    /**
+     * Maps method with parameter whose results are memoized by each wrapped object for last {@value #MEMOIZED_ENTRIES}
+     * distinct arguments.
+     * @see #usingMemoized(Function, Function)
+     */
+    @SuppressWarnings("unchecked")
+    public <P, R> FunctionalWrapper<T, I> usingMemoized(SerializableBiFunction<I, P, R> facefunc, BiFunction<T, P, R> classfunc) {
+        return register(facefunc, 1, classfunc, f -> new MemoizedFunctionContainer(new OneArgFunctionContainer(f)), (proxy, args) -> facefunc.apply(proxy, (P)args[0]));
+    }
+
+    /**
+     * Discards results memoized by given object created by this wrapper, so they are computed again when they are requested.
+     * Flyweight discards them automatically when it is rebound.
+     * @throws IllegalArgumentException if the object was not created by this wrapper
+     */
+    public void invalidate(I wrapped) {
+        InvocationHandler handler = wrapped instanceof FunctionalAdapter && ((FunctionalAdapter)wrapped).wrapper == this ?
+                ((FunctionalAdapter)wrapped).handler() : ownHandler(wrapped);
+        if (!(handler instanceof FunctionalWrapper.FunctionalInvocationHandler)) {
+            throw new IllegalArgumentException("Object was not created by this wrapper");
         }
+        ((FunctionalWrapper<?, ?>.FunctionalInvocationHandler)handler).invalidate();
+    }
+
+    /**
+     * Maps method that returns {@code int}. Unlike {@link #using(Function, Function)} the value is not boxed by the function.
+     * Moreover if the face has such methods the wrapper generates adapter class that returns the value without boxing at all.
+     */
+    @SuppressWarnings("unchecked")
+    public FunctionalWrapper<T, I> usingInt(ToIntFunction<I> facefunc, ToIntFunction<T> classfunc) {
+        facefunc.applyAsInt(functionCollectingProxy(classfunc, f -> new IntFunctionContainer((ToIntFunction<Object>)f)));
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public FunctionalWrapper<T, I> usingLong(ToLongFunction<I> facefunc, ToLongFunction<T> classfunc) {
+        facefunc.applyAsLong(functionCollectingProxy(classfunc, f -> new LongFunctionContainer((ToLongFunction<Object>)f)));
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public FunctionalWrapper<T, I> usingDouble(ToDoubleFunction<I> facefunc, ToDoubleFunction<T> classfunc) {
+        facefunc.applyAsDouble(functionCollectingProxy(classfunc, f -> new DoubleFunctionContainer((ToDoubleFunction<Object>)f)));
+        return this;
+    }
 
-        return assertFound(found);
+    @SuppressWarnings("unchecked")
+    public FunctionalWrapper<T, I> usingBoolean(Predicate<I> facefunc, Predicate<T> classfunc) {
+        facefunc.test(functionCollectingProxy(classfunc, f -> new BooleanFunctionContainer((Predicate<Object>)f)));
+        return this;
     }
 
+    @SuppressWarnings("unchecked")
+    public <P1, P2, R> FunctionalWrapper<T, I> using(SerializableTriFunction<I, P1, P2, R> facefunc, TriFunction<T, P1, P2, R>  classfunc) {
+        return register(facefunc, 2, classfunc, f -> new TwoArgFunctionContainer(f), (proxy, args) -> facefunc.apply(proxy, (P1)args[0], (P2)args[1]));
+    }
 
+    /**
+     * @see #using(BiFunction, BiFunction)
+     */
     @SuppressWarnings("unchecked")
     public <P1, P2, R> FunctionalWrapper<T, I> using(TriFunction<I, P1, P2, R> facefunc, TriFunction<T, P1, P2, R>  classfunc) {
-        boolean found = false;
-        for (Object value1 : defaultValues) {
-            for (Object value2 : defaultValues) {
-                try {
-                    facefunc.apply(functionCollectingProxy(classfunc, f -> new TwoArgFunctionContainer(f)), (P1)value1, (P2)value2);
-                    found = true;
-                    break;
-                } catch (NullPointerException | ClassCastException e) {
-                    // ignore exception. Try the next candidate for  default value
-                }
-            }
-        }
+        return register(facefunc, 2, classfunc, f -> new TwoArgFunctionContainer(f), (proxy, args) -> facefunc.apply(proxy, (P1)args[0], (P2)args[1]));
+    }
 
-        return assertFound(found);
+    @SuppressWarnings("unchecked")
+    public <P1, P2, P3, R> FunctionalWrapper<T, I> using(SerializableTetraFunction<I, P1, P2, P3, R> facefunc, TetraFunction<T, P1, P2, P3, R>  classfunc) {
+        return register(facefunc, 3, classfunc, f -> new ThreeArgFunctionContainer(f), (proxy, args) -> facefunc.apply(proxy, (P1)args[0], (P2)args[1], (P3)args[2]));
     }
 
+    /**
+     * @see #using(BiFunction, BiFunction)
+     */
     @SuppressWarnings("unchecked")
     public <P1, P2, P3, R> FunctionalWrapper<T, I> using(TetraFunction<I, P1, P2, P3, R> facefunc, TetraFunction<T, P1, P2, P3, R>  classfunc) {
-        boolean found = false;
-        for (Object value1 : defaultValues) {
-            for (Object value2 : defaultValues) {
-                for (Object value3 : defaultValues) {
-                    try {
-                        facefunc.apply(functionCollectingProxy(classfunc, f -> new ThreeArgFunctionContainer(f)), (P1)value1, (P2)value2, (P3)value3);
-                        found = true;
-                        break;
-                    } catch (NullPointerException | ClassCastException e) {
-                        // ignore exception. Try the next candidate for  default value
-                    }
+        return register(facefunc, 3, classfunc, f -> new ThreeArgFunctionContainer(f), (proxy, args) -> facefunc.apply(proxy, (P1)args[0], (P2)args[1], (P3)args[2]));
+    }
+
+    /**
+     * Registers function of the class for the face method referenced by {@code facefunc}. Serializable method reference
+     * exposes the method through {@link SerializedLambda}. Otherwise {@code facefunc} is called on proxy that records
+     * the invoked method. Arguments of such call are unknown, so they are probed: default values of parameter types
+     * of face methods with the same number of parameters first, then all combinations of default values.
+     */
+    private <F> FunctionalWrapper<T, I> register(Object facefunc, int arity, F classfunc, Function<F, FunctionContainer> containerFactory, BiConsumer<I, Object[]> call) {
+        Method method = referencedMethod(facefunc);
+        if (method != null && method.getParameterCount() == arity) {
+            map(ordinal(method), containerFactory.apply(classfunc));
+            return this;
+        }
+
+        I proxy = functionCollectingProxy(classfunc, containerFactory);
+        Set<List<Object>> typed = new LinkedHashSet<>();
+        for (Method m : faceMethods) {
+            if (m.getParameterCount() == arity) {
+                List<Object> args = new ArrayList<>();
+                for (Class<?> type : m.getParameterTypes()) {
+                    args.add(defaultValue.get(type));
                 }
+                typed.add(args);
+            }
+        }
+        for (List<Object> args : typed) {
+            if (probe(proxy, call, args.toArray())) {
+                return this;
+            }
+        }
+
+        Object[] values = defaultValues.toArray();
+        int combinations = (int)Math.pow(values.length, arity);
+        for (int c = 0; c < combinations; c++) {
+            Object[] args = new Object[arity];
+            for (int i = 0, rest = c; i < arity; i++, rest /= values.length) {
+                args[i] = values[rest % values.length];
+            }
+            if (probe(proxy, call, args)) {
+                return this;
             }
         }
 
-        return assertFound(found);
+        return assertFound(false);
     }
 
-    public FunctionalWrapper<T, I> fallback(Wrapper<T, I> fallback) {
+    private boolean probe(I proxy, BiConsumer<I, Object[]> call, Object[] args) {
+        try {
+            call.accept(proxy, args);
+            return true;
+        } catch (NullPointerException | ClassCastException e) {
+            // ignore exception. Try the next candidate for  default value
+            return false;
+        }
+    }
+
+    public synchronized FunctionalWrapper<T, I> fallback(Wrapper<T, I> fallback) {
+        assertNotFrozen();
         this.fallback = fallback;
+        plan = null;
         return this;
     }
 
-    public FunctionalWrapper<T, I> with(Wrapper ... others) {
+    public synchronized FunctionalWrapper<T, I> with(Wrapper ... others) {
+        assertNotFrozen();
         this.otherWrappers = others;
+        plan = null;
+        return this;
+    }
+
+    private synchronized void map(int ordinal, FunctionContainer<?> function) {
+        assertNotFrozen();
+        functions[ordinal] = function;
+        plan = null;
+    }
+
+    /**
+     * Compiles registered functions into immutable dispatch table shared by all objects created by this wrapper
+     * and prevents further changes. Functional wrappers used by this one as other wrappers or fallbacks are frozen too.
+     * Wrapper that is not frozen compiles the table when it wraps object after it was changed, so objects wrapped
+     * before the change keep previous mappings; freezing is recommended when wrapper is built by one thread and used by others.
+     */
+    public synchronized FunctionalWrapper<T, I> freeze() {
+        if (!frozen) {
+            for (Wrapper<?, ?> other : otherWrappers == null ? new Wrapper[0] : otherWrappers) {
+                if (other instanceof FunctionalWrapper) {
+                    ((FunctionalWrapper<?, ?>)other).freeze();
+                }
+            }
+            if (fallback instanceof FunctionalWrapper) {
+                ((FunctionalWrapper<?, ?>)fallback).freeze();
+            }
+            plan();
+            frozen = true;
+        }
         return this;
     }
 
+    /**
+     * @return plan of the current mappings; plan of wrapper that is not frozen is rebuilt if this wrapper or any functional
+     * wrapper compiled into the plan was changed since it was created
+     */
+    private Plan plan() {
+        Plan p = plan;
+        if (p == null || (!frozen && p.stale())) {
+            synchronized (this) {
+                p = plan;
+                if (p == null || (!frozen && p.stale())) {
+                    p = new Plan();
+                    plan = p;
+                }
+            }
+        }
+        return p;
+    }
+
+    private void assertNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("Wrapper is frozen and cannot be changed");
+        }
+    }
+
     private FunctionalWrapper<T, I> assertFound(boolean found) {
         if (!found) {
             throw new IllegalArgumentException("Cannot locate compatible function");
@@ -109,12 +315,13 @@ public class FunctionalWrapper<T, I> extends BaseWrapper<T, I> {
     }
 
     private <F> I functionCollectingProxy(F classfunc, Function<F, FunctionContainer> containerFactory) {
+        assertNotFrozen();
         @SuppressWarnings("unchecked")
         I proxy = (I)Proxy.newProxyInstance(
-                Thread.currentThread().getContextClassLoader(),
+                face.getClassLoader(),
                 new Class[]{face},
                 (p, method, args) -> {
-                    functions.put(method, containerFactory.apply(classfunc));
+                    map(ordinal(method), containerFactory.apply(classfunc));
                     return defaultValue.get(method.getReturnType());
                 });
 
@@ -123,70 +330,526 @@ public class FunctionalWrapper<T, I> extends BaseWrapper<T, I> {
 
 
 
+    @Override
+    protected I createProxy(T target, Object... others) {
+        FunctionalAdapter prototype = plan().prototype;
+        if (prototype == null) {
+            return super.createProxy(target, others);
+        }
+
+        @SuppressWarnings("unchecked")
+        I adapter = (I)prototype.newInstance(target, others);
+        return adapter;
+    }
+
+    @SuppressWarnings("unchecked")
+    InvocationHandler handler(Object target, Object[] others) {
+        return createInvocationHandler((T)target, others);
+    }
+
+    Object dispatch(InvocationHandler handler, Object adapter, int ordinal, Object[] args) throws Throwable {
+        Method method = faceMethods[ordinal];
+        try {
+            return handler.invoke(adapter, method, args);
+        } catch (Throwable t) {
+            throw declared(method, t);
+        }
+    }
+
     @Override
     protected Collection<Method> definedMethods(Object target) {
-        return functions.keySet();
+        return plan().definedMethods;
     }
 
     @Override
-    protected InvocationHandler createInvocationHandler(T target, Object ... others) {
+    protected BaseInvocationHandler createInvocationHandler(T target, Object ... others) {
         return new FunctionalInvocationHandler(target, others);
     }
 
-    private class FunctionalInvocationHandler implements InvocationHandler, Supplier<T> {
-        private final T target;
-        private final I fb;
-        private final Object[] others;
+    /**
+     * Methods are routed by the plan, so lazy view loads only the object that serves the called method.
+     */
+    @Override
+    BaseInvocationHandler createLazyInvocationHandler(LazySources sources) {
+        return new FunctionalInvocationHandler(sources);
+    }
+
+    @Override
+    Projection.Accessor accessor(int ordinal) {
+        Plan p = plan();
+        return p.sources[ordinal] == 0 ? new FunctionAccessor(p.routed[ordinal], faceMethods[ordinal]) : null;
+    }
+
+    /**
+     * Reads face method by the function mapped to the primary target.
+     */
+    private class FunctionAccessor implements Projection.Accessor {
+        private final FunctionContainer<?> function;
+        private final Method method;
+
+        private FunctionAccessor(FunctionContainer<?> function, Method method) {
+            this.function = function;
+            this.method = method;
+        }
+
+        @Override
+        public int getInt(Object target) {
+            try {
+                return function.evalInt(target);
+            } catch (Throwable t) {
+                return (Integer)fail(method, target);
+            }
+        }
+
+        @Override
+        public long getLong(Object target) {
+            try {
+                return function.evalLong(target);
+            } catch (Throwable t) {
+                return (Long)fail(method, target);
+            }
+        }
+
+        @Override
+        public double getDouble(Object target) {
+            try {
+                return function.evalDouble(target);
+            } catch (Throwable t) {
+                return (Double)fail(method, target);
+            }
+        }
+
+        @Override
+        public Object get(Object target) {
+            try {
+                return function.eval(target, null);
+            } catch (Throwable t) {
+                return fail(method, target);
+            }
+        }
+    }
+
+    private class FunctionalInvocationHandler extends BaseInvocationHandler {
+        private final Plan plan;
+        private I fb;
+        private boolean fbFlyweight;
+        /**
+         * Results of memoized methods or {@code null} if the face has no such methods. Replaced when the results are discarded,
+         * so asynchronous call that runs later does not store result of previous target.
+         */
+        private volatile Memo memo;
+        /**
+         * Fallback of lazy view, created when the target is loaded.
+         */
+        private volatile I lazyFallback;
+        /**
+         * Table of the reflectional wrapper that terminates the fused fallback chain for class of the target, so the table
+         * is not looked up on each call. Asynchronous calls and lazy views may serve other object than the bound target,
+         * so the class of the table is checked.
+         */
+        private FallbackTable fallbackTable;
+
+        private FunctionalInvocationHandler(LazySources sources) {
+            super(sources);
+            this.plan = plan();
+            memo = plan.memoized ? new Memo(plan.routed.length) : null;
+        }
 
         private FunctionalInvocationHandler(T target, Object[] others) {
-            this.target = target;
-            fb = fallback == null ? null : fallback.wrap(target);
-            this.others = others;
+            super(target, others);
+            this.plan = plan();
+            memo = plan.memoized ? new Memo(plan.routed.length) : null;
+            if (plan.fused && target != null) {
+                plan.validating.forEach(w -> w.validate(target));
+            }
+            if (plan.fallback != null && !plan.fused) {
+                if (target != null) {
+                    fb = plan.fallback.wrap(target);
+                } else {
+                    // handler of flyweight: fallback is a flyweight too if possible
+                    try {
+                        fb = plan.fallback.flyweight();
+                        fbFlyweight = true;
+                    } catch (UnsupportedOperationException e) {
+                        // fallback is wrapped on each rebinding
+                    }
+                }
+            }
         }
 
         @Override
-        public Object invoke(Object proxy, Method method, Object[] args) {
-            return invoker(method).apply(args);
+        protected void rebind(T target, Object[] others) {
+            super.rebind(target, others);
+            invalidate();
+            if (plan.fused) {
+                plan.validating.forEach(w -> w.validate(target));
+            }
+            if (plan.fallback != null && !plan.fused) {
+                fb = fbFlyweight ? plan.fallback.rebind(fb, target) : plan.fallback.wrap(target);
+            }
         }
 
-        @SuppressWarnings("unchecked")
-        private Function<Object[], Object> invoker(Method method) {
-            return args -> {
-                FunctionContainer<?> container = functions.get(method);
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            if (method.getDeclaringClass() == Object.class && !plan.objectMethodsMapped) {
+                T t = get();
                 try {
-                    if (container != null) {
-                        return container.eval(target, args);
-                    } else {
-                        int n = others.length;
-                        for (int i = 0; i < n ; i++) {
-                            Wrapper w = FunctionalWrapper.this.otherWrappers[i];
-                            if (w instanceof FunctionalWrapper && ((FunctionalWrapper)w).functions.containsKey(method)) {
-                                FunctionContainer<?> container2 = (FunctionContainer<?>)((FunctionalWrapper)w).functions.get(method);
-                                return container2.eval(others[i], args);
-                            }
+                    return objectMethod(method, t, args);
+                } catch (RuntimeException e) {
+                    return fail(method, t);
+                }
+            }
+            int ordinal = ordinal(method);
+            if (ordinal >= 0 && isAsync(ordinal)) {
+                // the handler may be rebound before the call is run
+                T boundTarget = target;
+                Object[] boundOthers = others;
+                LazySources boundLazy = lazy;
+                I boundFallback = fb;
+                Memo boundMemo = memo;
+                return async(() -> call(method, ordinal, boundTarget, boundOthers, boundLazy, boundFallback, boundMemo, args));
+            }
+            return call(method, ordinal, target, others, lazy, fb, memo, args);
+        }
+
+        private void invalidate() {
+            if (memo != null) {
+                memo = new Memo(plan.routed.length);
+            }
+        }
+
+        /**
+         * @param lazy objects of lazy view or {@code null}; only the object that serves the method is loaded,
+         * failure of its supplier is thrown to the caller
+         */
+        private Object call(Method method, int ordinal, T target, Object[] others, LazySources lazy, I fb, Memo memo, Object[] args) {
+            int source = ordinal >= 0 ? plan.sources[ordinal] : -1;
+            boolean routed = source == 0 || (source > 0 && source <= others.length);
+            Object obj = null;
+            if (lazy != null) {
+                if (routed) {
+                    obj = lazy.get(source);
+                } else {
+                    @SuppressWarnings("unchecked")
+                    T loaded = (T)lazy.get(0);
+                    target = loaded;
+                    fb = lazyFallback(target);
+                }
+            } else if (routed) {
+                obj = source == 0 ? target : others[source - 1];
+            }
+            try {
+                if (routed) {
+                    FunctionContainer<?> function = plan.routed[ordinal];
+                    return function instanceof MemoizedFunctionContainer ? memo.get(ordinal, function, obj, args) : function.eval(obj, args);
+                }
+                if (ordinal >= 0) {
+                    if (isObjectMethod(ordinal)) {
+                        return objectMethod(ordinal, target, args);
+                    }
+                    if (plan.fused) {
+                        EVENTS.dispatchMiss(face, target, method, "fallback");
+                        if (metrics != null) {
+                            metrics.fallbackHit(ordinal);
+                        }
+                        return plan.fallback(ordinal, target, this, method, args);
+                    }
+                }
+
+                if (fb != null) {
+                    EVENTS.dispatchMiss(face, target, method, "fallback");
+                    if (metrics != null) {
+                        metrics.fallbackHit(ordinal);
+                    }
+                    return Proxy.getInvocationHandler(fb).invoke(fb, method, args);
+                }
+            } catch (Throwable t) {
+                // does not matter whether exception was thrown during invocation or during the method lookup:
+                // the decision whether throw exception of return default value is done in right after the if.
+            }
+
+            return fail(method, target);
+        }
+
+        private ReflectionalWrapper.TargetMethod[] fallbackTable(Object target) {
+            FallbackTable t = fallbackTable;
+            if (t == null || t.targetClass != target.getClass()) {
+                t = new FallbackTable(target.getClass(), plan.reflective.table(target.getClass()));
+                // racy update is safe because the tables are immutable
+                fallbackTable = t;
+            }
+            return t.methods;
+        }
+
+        private I lazyFallback(T target) {
+            if (plan.fallback == null || plan.fused) {
+                return null;
+            }
+            I f = lazyFallback;
+            if (f == null) {
+                // racy creation is safe: the target is loaded once, so the fallbacks are equivalent
+                f = plan.fallback.wrap(target);
+                lazyFallback = f;
+            }
+            return f;
+        }
+    }
+
+    /**
+     * Immutable dispatch table compiled from the registered functions. Functions are indexed by ordinal of the face method,
+     * functions of other wrappers are translated to ordinals of this wrapper's face.
+     */
+    private class Plan {
+        private final FunctionContainer<?>[] functions;
+        /**
+         * Index of the object that serves each face method: 0 for the primary target, {@code i + 1} for the i-th other object,
+         * -1 if the method is not mapped. Other object that is not passed to {@code wrap()} cannot serve the method,
+         * so the routing does not depend on the wrapped objects.
+         */
+        private final int[] sources;
+        private final FunctionContainer<?>[] routed;
+        private final Wrapper<T, I> fallback;
+        /**
+         * Whether fallback chain is flattened into the following tables. Otherwise (e.g. fallback is custom implementation
+         * of {@link Wrapper}) each wrapped object has its own fallback proxy.
+         */
+        private final boolean fused;
+        /**
+         * Functions of functional wrappers of the fallback chain, the first wrapper that maps the method wins.
+         */
+        private final FunctionContainer<?>[] fallbackFunctions;
+        /**
+         * Reflectional wrapper that terminates the fallback chain and ordinals of the methods in this wrapper.
+         */
+        private final ReflectionalWrapper<?, ?> reflective;
+        private final int[] reflectiveOrdinals;
+        /**
+         * Whether failure of the method in the fallback chain is handled by {@link #fail(Method, Object)} of this wrapper.
+         * It is so if all wrappers of the chain up to the one that serves the method throw exception at runtime;
+         * otherwise one of them returns the default value.
+         */
+        private final boolean[] strict;
+        /**
+         * Wrappers of the fused fallback chain that validate the target during construction of the wrapper.
+         */
+        private final Collection<BaseWrapper<T, ?>> validating = new ArrayList<>();
+        private final Collection<Method> definedMethods;
+        /**
+         * Whether {@code equals()}, {@code hashCode()} or {@code toString()} is mapped explicitly; otherwise they are served
+         * by {@link #objectMethod(Method, Object, Object[])} before any lookup.
+         */
+        private final boolean objectMethodsMapped;
+        /**
+         * Prototype of generated adapter or {@code null} if the face does not have methods mapped to primitive functions
+         * or the adapter cannot be generated.
+         */
+        private final FunctionalAdapter prototype;
+        /**
+         * Whether any method is mapped by {@link #usingMemoized(Function, Function)}, so each object keeps {@link Memo}.
+         */
+        private final boolean memoized;
+        /**
+         * Plans of other functional wrappers compiled into this plan.
+         */
+        private final Collection<FunctionalWrapper<?, ?>.Plan> dependencies = new ArrayList<>();
+
+        private Plan() {
+            functions = FunctionalWrapper.this.functions.clone();
+            fallback = FunctionalWrapper.this.fallback;
+            List<Method> defined = new ArrayList<>();
+            Object[] direct = new Object[functions.length];
+            boolean generate = false;
+            for (int i = 0; i < functions.length; i++) {
+                if (functions[i] != null) {
+                    defined.add(faceMethods[i]);
+                    if (faceMethods[i].getParameterCount() == 0 && faceMethods[i].getReturnType().equals(functions[i].primitiveType())) {
+                        direct[i] = functions[i].function;
+                        generate = true;
+                    }
+                }
+            }
+            definedMethods = defined;
+            // each call of metered wrapper must pass the invocation handler
+            prototype = generate && metrics == null ? prototype(direct) : null;
+
+            Wrapper[] wrappers = otherWrappers == null ? new Wrapper[0] : otherWrappers;
+            FunctionContainer<?>[][] others = new FunctionContainer<?>[wrappers.length][];
+            for (int i = 0; i < wrappers.length; i++) {
+                if (wrappers[i] instanceof FunctionalWrapper) {
+                    FunctionalWrapper<?, ?> other = (FunctionalWrapper<?, ?>)wrappers[i];
+                    FunctionalWrapper<?, ?>.Plan otherPlan = other.plan();
+                    dependencies.add(otherPlan);
+                    FunctionContainer<?>[] otherFunctions = otherPlan.functions;
+                    others[i] = new FunctionContainer<?>[functions.length];
+                    for (int j = 0; j < otherFunctions.length; j++) {
+                        int ordinal = ordinal(other.faceMethods[j]);
+                        if (otherFunctions[j] != null && ordinal >= 0) {
+                            others[i][ordinal] = otherFunctions[j];
                         }
+                    }
+                }
+            }
+
+            sources = new int[functions.length];
+            routed = new FunctionContainer<?>[functions.length];
+            for (int k = 0; k < functions.length; k++) {
+                sources[k] = -1;
+                if (functions[k] != null) {
+                    sources[k] = 0;
+                    routed[k] = functions[k];
+                    continue;
+                }
+                for (int i = 0; i < others.length; i++) {
+                    if (others[i] != null && others[i][k] != null) {
+                        sources[k] = i + 1;
+                        routed[k] = others[i][k];
+                        break;
+                    }
+                }
+            }
 
-                        if (fallback != null) {
-                            return Proxy.getInvocationHandler(fb).invoke(fb, method, args);
+            boolean mapped = false;
+            boolean memo = false;
+            for (int k = 0; k < functions.length; k++) {
+                mapped |= sources[k] >= 0 && isObjectMethod(k);
+                memo |= routed[k] instanceof MemoizedFunctionContainer;
+            }
+            objectMethodsMapped = mapped;
+            memoized = memo;
+
+            fallbackFunctions = new FunctionContainer<?>[functions.length];
+            reflectiveOrdinals = new int[functions.length];
+            Arrays.fill(reflectiveOrdinals, -1);
+            strict = new boolean[functions.length];
+            boolean[] bound = new boolean[functions.length];
+            boolean strictChain = runtimeFailure.isPresent();
+            ReflectionalWrapper<?, ?> terminal = null;
+            boolean flat = true;
+            for (Wrapper<?, ?> layer = fallback; layer != null; ) {
+                if (!(layer instanceof BaseWrapper)) {
+                    flat = false;
+                    break;
+                }
+                @SuppressWarnings("unchecked")
+                BaseWrapper<T, ?> base = (BaseWrapper<T, ?>)layer;
+                if (base.constructionFailure.isPresent()) {
+                    validating.add(base);
+                }
+                strictChain &= base.runtimeFailure.isPresent();
+                if (layer instanceof FunctionalWrapper) {
+                    FunctionalWrapper<?, ?> functional = (FunctionalWrapper<?, ?>)layer;
+                    FunctionalWrapper<?, ?>.Plan layerPlan = functional.plan();
+                    dependencies.add(layerPlan);
+                    for (int j = 0; j < layerPlan.functions.length; j++) {
+                        int k = ordinal(functional.faceMethods[j]);
+                        if (layerPlan.functions[j] != null && k >= 0 && !bound[k]) {
+                            fallbackFunctions[k] = layerPlan.functions[j];
+                            strict[k] = strictChain;
+                            bound[k] = true;
                         }
                     }
-                } catch (Throwable t) {
-                    // does not matter whether exception was thrown during invocation or during the method lookup:
-                    // the decision whether throw exception of return default value is done in right after the if.
+                    layer = layerPlan.fallback;
+                } else if (layer instanceof ReflectionalWrapper && ((ReflectionalWrapper<?, ?>)layer).fusable()) {
+                    terminal = (ReflectionalWrapper<?, ?>)layer;
+                    for (int k = 0; k < functions.length; k++) {
+                        if (!bound[k]) {
+                            reflectiveOrdinals[k] = terminal.ordinal(faceMethods[k]);
+                        }
+                    }
+                    layer = null;
+                } else {
+                    flat = false;
+                    layer = null;
+                }
+            }
+            for (int k = 0; k < functions.length; k++) {
+                if (!bound[k]) {
+                    // failure happens in the last wrapper of the chain
+                    strict[k] = strictChain;
+                }
+            }
+            fused = fallback != null && flat;
+            reflective = terminal;
+        }
+
+        /**
+         * Whether any of the functional wrappers compiled into this plan was changed since the plan was created.
+         */
+        private boolean stale() {
+            for (FunctionalWrapper<?, ?>.Plan dependency : dependencies) {
+                if (dependency.wrapper().plan() != dependency) {
+                    return true;
                 }
+            }
+            return false;
+        }
 
-                runtimeFailure.ifPresent(methodThrowableFunction -> sneakyThrow(methodThrowableFunction.apply(method)));
-                return defaultValue.get(method.getReturnType());
-            };
+        private FunctionalWrapper<T, I> wrapper() {
+            return FunctionalWrapper.this;
         }
 
-        @Override
-        public T get() {
-            return target;
+        /**
+         * Serves method that is not served by this wrapper using flattened fallback chain.
+         */
+        private Object fallback(int ordinal, Object target, FunctionalInvocationHandler handler, Method method, Object[] args) {
+            try {
+                FunctionContainer<?> container = fallbackFunctions[ordinal];
+                if (container != null) {
+                    return container.eval(target, args);
+                }
+                int reflectiveOrdinal = reflectiveOrdinals[ordinal];
+                if (reflectiveOrdinal >= 0) {
+                    ReflectionalWrapper.TargetMethod m = handler.fallbackTable(target)[reflectiveOrdinal];
+                    if (m != null) {
+                        return m.invoke(target, args);
+                    }
+                }
+            } catch (Throwable t) {
+                // handled below exactly as failure of the method that is not implemented
+            }
+            if (strict[ordinal]) {
+                return fail(method, target);
+            }
+            EVENTS.dispatchMiss(face, target, method, "default value");
+            if (metrics != null) {
+                metrics.defaultValueReturned(ordinal);
+            }
+            return defaultValue.get(method.getReturnType());
         }
     }
 
-    private abstract class FunctionContainer<F> {
+    /**
+     * Table of the fallback for the class it was looked up for.
+     */
+    private static final class FallbackTable {
+        private final Class<?> targetClass;
+        private final ReflectionalWrapper.TargetMethod[] methods;
+
+        private FallbackTable(Class<?> targetClass, ReflectionalWrapper.TargetMethod[] methods) {
+            this.targetClass = targetClass;
+            this.methods = methods;
+        }
+    }
+
+    private FunctionalAdapter prototype(Object[] direct) {
+        AdapterGenerator generator = AdapterGenerator.create(face, faceMethods, direct);
+        if (generator == null) {
+            return null;
+        }
+
+        Class<?> adapterClass = generator.generate();
+        if (adapterClass == null) {
+            return null;
+        }
+        try {
+            return (FunctionalAdapter)adapterClass.getConstructor(Object.class, Object[].class, Object[].class, FunctionalWrapper.class).newInstance(null, null, direct, this);
+        } catch (ReflectiveOperationException e) {
+            // the constructor is not accessible; dynamic proxy will be used instead
+            return null;
+        }
+    }
+
+    private abstract static class FunctionContainer<F> {
         protected final F function;
 
         FunctionContainer(F function) {
@@ -194,9 +857,110 @@ public class FunctionalWrapper<T, I> extends BaseWrapper<T, I> {
         }
 
         protected abstract Object eval(Object target, Object[] args);
+
+        /**
+         * Evaluates function without parameters that returns {@code int}; primitive function does not box the value.
+         */
+        protected int evalInt(Object target) {
+            return (Integer)eval(target, null);
+        }
+
+        protected long evalLong(Object target) {
+            return (Long)eval(target, null);
+        }
+
+        protected double evalDouble(Object target) {
+            return (Double)eval(target, null);
+        }
+
+        /**
+         * @return primitive type returned by the function without boxing or {@code null} if function returns object
+         */
+        protected Class<?> primitiveType() {
+            return null;
+        }
+    }
+
+    private static class IntFunctionContainer extends FunctionContainer<ToIntFunction<Object>> {
+        IntFunctionContainer(ToIntFunction<Object> function) {
+            super(function);
+        }
+
+        @Override
+        protected Object eval(Object target, Object[] args) {
+            return function.applyAsInt(target);
+        }
+
+        @Override
+        protected int evalInt(Object target) {
+            return function.applyAsInt(target);
+        }
+
+        @Override
+        protected Class<?> primitiveType() {
+            return int.class;
+        }
     }
 
-    private class NoArgFunctionContainer extends FunctionContainer<Function<Object, Object>> {
+    private static class LongFunctionContainer extends FunctionContainer<ToLongFunction<Object>> {
+        LongFunctionContainer(ToLongFunction<Object> function) {
+            super(function);
+        }
+
+        @Override
+        protected Object eval(Object target, Object[] args) {
+            return function.applyAsLong(target);
+        }
+
+        @Override
+        protected long evalLong(Object target) {
+            return function.applyAsLong(target);
+        }
+
+        @Override
+        protected Class<?> primitiveType() {
+            return long.class;
+        }
+    }
+
+    private static class DoubleFunctionContainer extends FunctionContainer<ToDoubleFunction<Object>> {
+        DoubleFunctionContainer(ToDoubleFunction<Object> function) {
+            super(function);
+        }
+
+        @Override
+        protected Object eval(Object target, Object[] args) {
+            return function.applyAsDouble(target);
+        }
+
+        @Override
+        protected double evalDouble(Object target) {
+            return function.applyAsDouble(target);
+        }
+
+        @Override
+        protected Class<?> primitiveType() {
+            return double.class;
+        }
+    }
+
+    private static class BooleanFunctionContainer extends FunctionContainer<Predicate<Object>> {
+        BooleanFunctionContainer(Predicate<Object> function) {
+            super(function);
+        }
+
+        @Override
+        protected Object eval(Object target, Object[] args) {
+            return function.test(target);
+        }
+
+        @Override
+        protected Class<?> primitiveType() {
+            return boolean.class;
+        }
+    }
+
+    private static class NoArgFunctionContainer extends FunctionContainer<Function<Object, Object>> {
         NoArgFunctionContainer(Function<Object, Object> function) {
             super(function);
         }
@@ -207,7 +971,7 @@ public class FunctionalWrapper<T, I> extends BaseWrapper<T, I> {
         }
     }
 
-    private class OneArgFunctionContainer<P, R> extends FunctionContainer<BiFunction<Object, P, R>> {
+    private static class OneArgFunctionContainer<P, R> extends FunctionContainer<BiFunction<Object, P, R>> {
         OneArgFunctionContainer(BiFunction<Object, P, R> function) {
             super(function);
         }
@@ -220,7 +984,7 @@ public class FunctionalWrapper<T, I> extends BaseWrapper<T, I> {
         }
     }
 
-    private class TwoArgFunctionContainer<P1, P2, R> extends FunctionContainer<TriFunction<Object, P1, P2, R>> {
+    private static class TwoArgFunctionContainer<P1, P2, R> extends FunctionContainer<TriFunction<Object, P1, P2, R>> {
         TwoArgFunctionContainer(TriFunction<Object, P1, P2, R> function) {
             super(function);
         }
@@ -233,7 +997,7 @@ public class FunctionalWrapper<T, I> extends BaseWrapper<T, I> {
         }
     }
 
-    private class ThreeArgFunctionContainer<P1, P2, P3, R> extends FunctionContainer<TetraFunction<Object, P1, P2, P3, R>> {
+    private static class ThreeArgFunctionContainer<P1, P2, P3, R> extends FunctionContainer<TetraFunction<Object, P1, P2, P3, R>> {
         ThreeArgFunctionContainer(TetraFunction<Object, P1, P2, P3, R>function) {
             super(function);
         }
@@ -246,4 +1010,188 @@ public class FunctionalWrapper<T, I> extends BaseWrapper<T, I> {
             return function.apply(target, arg1, arg2, arg3);
         }
     }
+
+    /**
+     * Function whose results are memoized by each wrapped object, see {@link Memo}. The function itself is not primitive,
+     * so generated adapter dispatches the method through the invocation handler that keeps the results.
+     */
+    private static class MemoizedFunctionContainer extends FunctionContainer<FunctionContainer<?>> {
+        MemoizedFunctionContainer(FunctionContainer<?> function) {
+            super(function);
+        }
+
+        @Override
+        protected Object eval(Object target, Object[] args) {
+            return function.eval(target, args);
+        }
+    }
+
+    /**
+     * Results of memoized methods of one wrapped object by ordinal of the method: the result itself for method without
+     * parameters and LRU cache of results by arguments otherwise. The function is called under the lock, so it is called
+     * at most once even if the object is used by several threads.
+     */
+    private static final class Memo {
+        private static final Object NULL = new Object();
+        private final Object[] values;
+
+        private Memo(int size) {
+            values = new Object[size];
+        }
+
+        synchronized Object get(int ordinal, FunctionContainer<?> function, Object target, Object[] args) {
+            if (args == null || args.length == 0) {
+                Object value = values[ordinal];
+                if (value == null) {
+                    value = function.eval(target, args);
+                    values[ordinal] = value == null ? NULL : value;
+                    return value;
+                }
+                return value == NULL ? null : value;
+            }
+
+            LruCache cache = (LruCache)values[ordinal];
+            if (cache == null) {
+                cache = new LruCache();
+                values[ordinal] = cache;
+            }
+            Object key = args.length == 1 ? args[0] : Arrays.asList(args);
+            Object value = cache.get(key);
+            if (value == null && !cache.containsKey(key)) {
+                value = function.eval(target, args);
+                cache.put(key, value);
+            }
+            return value;
+        }
+
+        /**
+         * Results of method with parameters by arguments; the least recently used results are evicted.
+         */
+        private static final class LruCache extends LinkedHashMap<Object, Object> {
+            private static final long serialVersionUID = 1L;
+
+            private LruCache() {
+                super(MEMOIZED_ENTRIES * 2, 0.75f, true);
+            }
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+                return size() > MEMOIZED_ENTRIES;
+            }
+        }
+    }
+
+    /**
+     * Generates subclass of {@link FunctionalAdapter} that implements the face. Methods mapped to primitive functions
+     * call the function directly; all other methods are dispatched through the invocation handler.
+     * The class depends only on the face and on kinds of the direct methods, so it is shared by all wrappers of the same shape.
+     */
+    private static class AdapterGenerator extends AdapterClassGenerator {
+        private static final Type ADAPTER = Type.getType(FunctionalAdapter.class);
+        private static final Type WRAPPER = Type.getType(FunctionalWrapper.class);
+        private static final Signature CONSTRUCTOR = new Signature("<init>", Type.VOID_TYPE, new Type[] {Constants.TYPE_OBJECT, Constants.TYPE_OBJECT_ARRAY, Constants.TYPE_OBJECT_ARRAY, WRAPPER});
+        private static final Signature NEW_INSTANCE = new Signature("newInstance", ADAPTER, new Type[] {Constants.TYPE_OBJECT, Constants.TYPE_OBJECT_ARRAY});
+        private static final Signature DISPATCH = new Signature("dispatch", Constants.TYPE_OBJECT, new Type[] {Type.INT_TYPE, Constants.TYPE_OBJECT_ARRAY});
+        private static final Signature FAIL = new Signature("fail", Constants.TYPE_OBJECT, new Type[] {Type.INT_TYPE});
+
+        private final Method[] faceMethods;
+        private final Object[] direct;
+
+        private AdapterGenerator(Class<?> face, Class<?> anchor, Method[] faceMethods, Object[] direct) {
+            super(FunctionalWrapper.class, face, anchor, "Functional");
+            this.faceMethods = faceMethods;
+            this.direct = direct;
+        }
+
+        /**
+         * @return generator or {@code null} if adapter cannot be generated
+         */
+        static AdapterGenerator create(Class<?> face, Method[] faceMethods, Object[] direct) {
+            Class<?> anchor = faceAnchor(face, FunctionalAdapter.class);
+            return anchor == null ? null : new AdapterGenerator(face, anchor, faceMethods, direct);
+        }
+
+        Class<?> generate() {
+            StringBuilder kinds = new StringBuilder();
+            for (int i = 0; i < direct.length; i++) {
+                kinds.append(direct[i] == null ? "-" : Type.getDescriptor(faceMethods[i].getReturnType()));
+            }
+            return adapterClass(Arrays.asList(face.getName(), kinds.toString()));
+        }
+
+        @Override
+        public void generateClass(ClassVisitor v) {
+            ClassEmitter ce = new ClassEmitter(v);
+            ce.begin_class(Constants.V1_8, Constants.ACC_PUBLIC | Constants.ACC_FINAL, className(), ADAPTER, new Type[] {Type.getType(face)}, Constants.SOURCE_FILE);
+
+            CodeEmitter e = ce.begin_method(Constants.ACC_PUBLIC, CONSTRUCTOR, null);
+            e.load_this();
+            e.load_args();
+            e.super_invoke_constructor(CONSTRUCTOR);
+            e.return_value();
+            e.end_method();
+
+            e = ce.begin_method(Constants.ACC_PROTECTED, NEW_INSTANCE, null);
+            e.new_instance_this();
+            e.dup();
+            e.load_args();
+            e.load_this();
+            e.getfield(ADAPTER, "functions", Constants.TYPE_OBJECT_ARRAY);
+            e.load_this();
+            e.getfield(ADAPTER, "wrapper", WRAPPER);
+            e.invoke_constructor_this(CONSTRUCTOR);
+            e.return_value();
+            e.end_method();
+
+            for (int i = 0; i < faceMethods.length; i++) {
+                e = ce.begin_method(Constants.ACC_PUBLIC, ReflectUtils.getSignature(faceMethods[i]), null);
+                if (direct[i] != null) {
+                    directCall(e, i);
+                } else {
+                    e.load_this();
+                    e.push(i);
+                    e.create_arg_array();
+                    e.invoke_virtual(ADAPTER, DISPATCH);
+                    returnObject(e);
+                }
+                e.end_method();
+            }
+
+            ce.end_class();
+        }
+
+        /**
+         * Calls primitive function directly. Exception thrown by the function is handled as failure
+         * exactly as invocation handler does.
+         */
+        private void directCall(CodeEmitter e, int ordinal) {
+            Type returnType = e.getReturnType();
+            Block block = e.begin_block();
+            e.load_this();
+            e.getfield(ADAPTER, "functions", Constants.TYPE_OBJECT_ARRAY);
+            e.push(ordinal);
+            e.aaload();
+            Type functionType;
+            String name;
+            switch (returnType.getSort()) {
+                case Type.INT: functionType = Type.getType(ToIntFunction.class); name = "applyAsInt"; break;
+                case Type.LONG: functionType = Type.getType(ToLongFunction.class); name = "applyAsLong"; break;
+                case Type.DOUBLE: functionType = Type.getType(ToDoubleFunction.class); name = "applyAsDouble"; break;
+                default: functionType = Type.getType(Predicate.class); name = "test"; break;
+            }
+            e.checkcast(functionType);
+            e.load_this();
+            e.getfield(ADAPTER, "target", Constants.TYPE_OBJECT);
+            e.invoke_interface(functionType, new Signature(name, returnType, new Type[] {Constants.TYPE_OBJECT}));
+            e.return_value();
+            block.end();
+
+            e.catch_exception(block, Constants.TYPE_THROWABLE);
+            e.pop();
+            e.load_this();
+            e.push(ordinal);
+            e.invoke_virtual(ADAPTER, FAIL);
+            returnObject(e);
+        }
+    }
 }
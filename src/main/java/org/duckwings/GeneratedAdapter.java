@@ -0,0 +1,97 @@
+package org.duckwings;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Base class of adapters generated by {@link GeneratedWrapper} at runtime or by annotation processor at compile time
+ * (see {@link org.duckwings.annotation.DuckFace}). Each generated subclass implements the face
+ * and calls the target methods directly. Methods that cannot be called directly are delegated back to the wrapper.
+ * This class is public only because the generated classes may live in other packages; it is not intended to be used directly.
+ */
+public abstract class GeneratedAdapter {
+    protected final Object target;
+    protected final Object[] others;
+    protected final ReflectionalWrapper<?, ?> wrapper;
+    private ReflectionalWrapper.Route route;
+
+    protected GeneratedAdapter(Object target, Object[] others, ReflectionalWrapper<?, ?> wrapper) {
+        this.target = target;
+        this.others = others;
+        this.wrapper = wrapper;
+    }
+
+    /**
+     * Creates new instance of the same adapter class bound to given objects.
+     * Generated adapters implement this method by plain constructor call, so no reflection is needed to create adapter.
+     */
+    protected abstract GeneratedAdapter newInstance(Object target, Object[] others);
+
+    protected final Object dispatch(int ordinal, Object[] args) throws Throwable {
+        if (others.length == 0) {
+            return wrapper.dispatch(target, others, null, ordinal, args);
+        }
+        ReflectionalWrapper.Route r = route;
+        if (r == null) {
+            r = wrapper.route(target, others);
+            route = r;
+        }
+        return wrapper.dispatch(target, others, r, ordinal, args);
+    }
+
+    /**
+     * Implemented according to {@link org.duckwings.Equality} of the wrapper; generated subclasses do not override it.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return wrapper.objectEquals(target, obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return wrapper.objectHashCode(target);
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(target);
+    }
+
+    protected final Object fail(int ordinal) {
+        return wrapper.fail(ordinal, target);
+    }
+
+    /**
+     * Runs synchronous target method that implements asynchronous face method on the executor of the wrapper.
+     * Used by adapters generated at compile time; failure of the call is handled by {@link #fail(Class, String, Class[])}.
+     */
+    protected final CompletableFuture<Object> async(Callable<?> call, Class<?> face, String name, Class<?>... parameterTypes) {
+        return wrapper.async(() -> {
+            try {
+                return call.call();
+            } catch (Throwable e) {
+                return fail(face, name, parameterTypes);
+            }
+        });
+    }
+
+    /**
+     * Handles failure of method identified by name and parameter types. Used by adapters generated at compile time
+     * that do not know ordinals of the face methods. Called only when the target method fails, so the lookup is not cached.
+     */
+    protected final Object fail(Class<?> face, String name, Class<?>... parameterTypes) {
+        Method method;
+        try {
+            method = face.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            try {
+                // equals(), hashCode() and toString()
+                method = Object.class.getMethod(name, parameterTypes);
+            } catch (NoSuchMethodException e2) {
+                throw new IllegalStateException(e2);
+            }
+        }
+        return wrapper.fail(wrapper.ordinal(method), target);
+    }
+}
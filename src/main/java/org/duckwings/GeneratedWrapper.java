@@ -0,0 +1,264 @@
+package org.duckwings;
+
+import net.sf.cglib.core.Block;
+import net.sf.cglib.core.ClassEmitter;
+import net.sf.cglib.core.CodeEmitter;
+import net.sf.cglib.core.Constants;
+import net.sf.cglib.core.ReflectUtils;
+import net.sf.cglib.core.Signature;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Type;
+
+import javax.management.MBeanServer;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Reflection based wrapper that generates adapter class for each pair of face and target class instead of using dynamic proxy.
+ * Methods of the generated adapter call the target methods directly, so neither arguments array nor boxing is involved.
+ * Methods that cannot be called directly (e.g. private methods or methods implemented by other objects)
+ * are dispatched using reflection exactly as {@link ReflectionalWrapper} does.
+ * If adapter cannot be generated at all (e.g. the face is not accessible) the wrapper falls back to dynamic proxy.
+ */
+public class GeneratedWrapper<T, I> extends ReflectionalWrapper<T, I> {
+    /**
+     * Constructors of the generated adapters by target class, see {@link #adapterConstructor(Class)}.
+     */
+    private final ClassValue<Optional<MethodHandle>> adapters = new ClassValue<Optional<MethodHandle>>() {
+        @Override
+        protected Optional<MethodHandle> computeValue(Class<?> targetClass) {
+            return constructor(targetClass);
+        }
+    };
+
+    GeneratedWrapper(
+            Class<I> face,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<Function<Method, Throwable>> constructionFailure,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<Function<Method, Throwable>> runtimeFailure,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<MBeanServer> metricsServer,
+            Equality equality,
+            boolean canonical,
+            Executor executor) {
+        super(face, constructionFailure, runtimeFailure, metricsServer, equality, canonical, executor);
+    }
+
+    @Override
+    protected I createProxy(T target, Object... others) {
+        I compiled = compiledAdapter(target, others);
+        if (compiled != null) {
+            return compiled;
+        }
+        if (metrics != null) {
+            // each call of metered wrapper must pass the invocation handler
+            return super.createProxy(target, others);
+        }
+        Optional<MethodHandle> constructor = adapters.get(target.getClass());
+        return constructor.isPresent() ? newAdapter(constructor.get(), target, others) : super.createProxy(target, others);
+    }
+
+    private Optional<MethodHandle> constructor(Class<?> targetClass) {
+        TargetMethod[] table = table(targetClass);
+        Method[] targetMethods = new Method[table.length];
+        for (int i = 0; i < table.length; i++) {
+            targetMethods[i] = table[i] == null ? null : table[i].method();
+        }
+        AdapterGenerator generator = AdapterGenerator.create(face, targetClass, faceMethods, targetMethods);
+        if (generator == null) {
+            return Optional.empty();
+        }
+
+        Class<?> adapterClass = generator.generate();
+        if (adapterClass == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(adapterConstructor(adapterClass));
+        } catch (ReflectiveOperationException e) {
+            // the constructor is not accessible; dynamic proxy will be used instead
+            return Optional.empty();
+        }
+    }
+
+
+    static class AdapterGenerator extends AdapterClassGenerator {
+        private static final Type ADAPTER = Type.getType(GeneratedAdapter.class);
+        private static final Type WRAPPER = Type.getType(ReflectionalWrapper.class);
+        private static final Signature CONSTRUCTOR = new Signature("<init>", Type.VOID_TYPE, new Type[] {Constants.TYPE_OBJECT, Constants.TYPE_OBJECT_ARRAY, WRAPPER});
+        private static final Signature NEW_INSTANCE = new Signature("newInstance", ADAPTER, new Type[] {Constants.TYPE_OBJECT, Constants.TYPE_OBJECT_ARRAY});
+        private static final Signature DISPATCH = new Signature("dispatch", Constants.TYPE_OBJECT, new Type[] {Type.INT_TYPE, Constants.TYPE_OBJECT_ARRAY});
+        private static final Signature FAIL = new Signature("fail", Constants.TYPE_OBJECT, new Type[] {Type.INT_TYPE});
+
+        private final Class<?> targetClass;
+        private final Method[] faceMethods;
+        private final Method[] targetMethods;
+
+        private AdapterGenerator(Class<?> face, Class<?> targetClass, Class<?> anchor, Method[] faceMethods, Method[] targetMethods) {
+            super(GeneratedWrapper.class, face, anchor, targetClass.getName().replace('.', '_'));
+            this.targetClass = targetClass;
+            this.faceMethods = faceMethods;
+            this.targetMethods = targetMethods;
+        }
+
+        /**
+         * Chooses package and class loader for the adapter class. The adapter must see the face, the target class and
+         * {@link GeneratedAdapter}. The adapter lives in the package of the face if it is not public or in the package of
+         * the target class if the target class is not public; otherwise any suitable package is used.
+         * Target methods that are not accessible from the chosen package are dispatched using reflection.
+         * @return generator or {@code null} if adapter cannot be generated
+         */
+        static AdapterGenerator create(Class<?> face, Class<?> targetClass, Method[] faceMethods, Method[] targetMethods) {
+            Class<?>[] candidates = {face, targetClass, GeneratedAdapter.class};
+            Class<?> anchor = null;
+            for (int pass = 0; pass < 2 && anchor == null; pass++) {
+                for (Class<?> candidate : candidates) {
+                    if (suitable(candidate, face, targetClass) && accessible(face, candidate) && (pass > 0 || accessible(targetClass, candidate))) {
+                        anchor = candidate;
+                        break;
+                    }
+                }
+            }
+            if (anchor == null) {
+                return null;
+            }
+
+            Method[] direct = new Method[targetMethods.length];
+            if (accessible(targetClass, anchor)) {
+                for (int i = 0; i < targetMethods.length; i++) {
+                    direct[i] = callable(faceMethods[i], targetMethods[i], anchor) ? targetMethods[i] : null;
+                }
+            }
+            return new AdapterGenerator(face, targetClass, anchor, faceMethods, direct);
+        }
+
+        /**
+         * @return the class or {@code null} if it cannot be generated in this environment
+         */
+        Class<?> generate() {
+            return adapterClass(Arrays.asList(face.getName(), targetClass.getName()));
+        }
+
+        @Override
+        public void generateClass(ClassVisitor v) {
+            ClassEmitter ce = new ClassEmitter(v);
+            ce.begin_class(Constants.V1_8, Constants.ACC_PUBLIC | Constants.ACC_FINAL, className(), ADAPTER, new Type[] {Type.getType(face)}, Constants.SOURCE_FILE);
+
+            CodeEmitter e = ce.begin_method(Constants.ACC_PUBLIC, CONSTRUCTOR, null);
+            e.load_this();
+            e.load_args();
+            e.super_invoke_constructor(CONSTRUCTOR);
+            e.return_value();
+            e.end_method();
+
+            e = ce.begin_method(Constants.ACC_PROTECTED, NEW_INSTANCE, null);
+            e.new_instance_this();
+            e.dup();
+            e.load_args();
+            e.load_this();
+            e.getfield(ADAPTER, "wrapper", WRAPPER);
+            e.invoke_constructor_this(CONSTRUCTOR);
+            e.return_value();
+            e.end_method();
+
+            for (int i = 0; i < faceMethods.length; i++) {
+                if (objectMethod(faceMethods[i])) {
+                    // implemented by GeneratedAdapter
+                    continue;
+                }
+                e = ce.begin_method(Constants.ACC_PUBLIC, ReflectUtils.getSignature(faceMethods[i]), null);
+                if (targetMethods[i] != null) {
+                    directCall(e, i, targetMethods[i]);
+                } else {
+                    dispatch(e, i);
+                }
+                e.end_method();
+            }
+
+            ce.end_class();
+        }
+
+        /**
+         * Calls the target method directly. Exception thrown by the target method is handled as failure
+         * (exception or default value) to stay compatible with reflectional invocation.
+         */
+        private void directCall(CodeEmitter e, int ordinal, Method targetMethod) {
+            Type targetType = Type.getType(targetClass);
+            Block block = e.begin_block();
+            e.load_this();
+            e.getfield(ADAPTER, "target", Constants.TYPE_OBJECT);
+            e.checkcast(targetType);
+            e.load_args();
+            e.invoke_virtual(targetType, ReflectUtils.getSignature(targetMethod));
+            if (Type.VOID_TYPE.equals(e.getReturnType())) {
+                pop(e, Type.getType(targetMethod.getReturnType()));
+            }
+            e.return_value();
+            block.end();
+
+            e.catch_exception(block, Constants.TYPE_THROWABLE);
+            e.pop();
+            e.load_this();
+            e.push(ordinal);
+            e.invoke_virtual(ADAPTER, FAIL);
+            returnObject(e);
+        }
+
+        private void dispatch(CodeEmitter e, int ordinal) {
+            e.load_this();
+            e.push(ordinal);
+            e.create_arg_array();
+            e.invoke_virtual(ADAPTER, DISPATCH);
+            returnObject(e);
+        }
+
+        private static void pop(CodeEmitter e, Type type) {
+            if (type.getSize() == 2) {
+                e.pop2();
+            } else if (type.getSize() == 1) {
+                e.pop();
+            }
+        }
+
+        private static boolean objectMethod(Method method) {
+            try {
+                Object.class.getMethod(method.getName(), method.getParameterTypes());
+                return true;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+
+        private static boolean suitable(Class<?> anchor, Class<?> face, Class<?> targetClass) {
+            ClassLoader loader = anchor.getClassLoader();
+            return loader != null && !anchor.getName().startsWith("java.") &&
+                    visible(face, loader) && visible(targetClass, loader) && visible(GeneratedAdapter.class, loader);
+        }
+
+        private static boolean accessible(Class<?> clazz, Class<?> anchor) {
+            return Modifier.isPublic(clazz.getModifiers()) || samePackage(clazz, anchor);
+        }
+
+        private static boolean callable(Method faceMethod, Method targetMethod, Class<?> anchor) {
+            if (targetMethod == null) {
+                return false;
+            }
+            int modifiers = targetMethod.getModifiers();
+            if (Modifier.isStatic(modifiers) || Modifier.isPrivate(modifiers) ||
+                    !(Modifier.isPublic(modifiers) || samePackage(targetMethod.getDeclaringClass(), anchor))) {
+                return false;
+            }
+            Class<?> faceReturnType = faceMethod.getReturnType();
+            Class<?> targetReturnType = targetMethod.getReturnType();
+            return void.class.equals(faceReturnType) || faceReturnType.equals(targetReturnType) ||
+                    (!faceReturnType.isPrimitive() && !targetReturnType.isPrimitive() && faceReturnType.isAssignableFrom(targetReturnType));
+        }
+
+        private static boolean samePackage(Class<?> c1, Class<?> c2) {
+            return c1.getClassLoader() == c2.getClassLoader() && packagePrefix(c1).equals(packagePrefix(c2));
+        }
+    }
+}
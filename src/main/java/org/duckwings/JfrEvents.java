@@ -0,0 +1,128 @@
+package org.duckwings;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Flight recorder events. Loaded by {@link DuckEvents} only if {@code jdk.jfr} is available.
+ * Event objects are created for every call, but fields are filled only if the event is really committed.
+ */
+final class JfrEvents extends DuckEvents {
+    @Override
+    Object beginWrap() {
+        DuckWrap event = new DuckWrap();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Override
+    void endWrap(Object event, Class<?> face, Object target) {
+        if (event != null) {
+            DuckWrap e = (DuckWrap)event;
+            e.end();
+            if (e.shouldCommit()) {
+                e.face = face;
+                e.targetClass = target.getClass();
+                e.commit();
+            }
+        }
+    }
+
+    @Override
+    Object beginResolve() {
+        DuckMethodResolve event = new DuckMethodResolve();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Override
+    void endResolve(Object event, Class<?> face, Class<?> targetClass, Method method, boolean found) {
+        if (event != null) {
+            DuckMethodResolve e = (DuckMethodResolve)event;
+            e.end();
+            if (e.shouldCommit()) {
+                e.face = face;
+                e.targetClass = targetClass;
+                e.method = name(method);
+                e.found = found;
+                e.commit();
+            }
+        }
+    }
+
+    @Override
+    void dispatchMiss(Class<?> face, Object target, Method method, String outcome) {
+        DuckDispatchMiss e = new DuckDispatchMiss();
+        if (e.shouldCommit()) {
+            e.face = face;
+            e.targetClass = target == null ? null : target.getClass();
+            e.method = name(method);
+            e.outcome = outcome;
+            e.commit();
+        }
+    }
+
+    private static String name(Method method) {
+        return method.getName() + Arrays.stream(method.getParameterTypes()).map(Class::getSimpleName).collect(Collectors.joining(", ", "(", ")"));
+    }
+
+    @Name("org.duckwings.DuckWrap")
+    @Label("Duck Wrap")
+    @Category("DuckWings")
+    @Description("Creation of wrapper of object")
+    @Threshold("20 us")
+    @StackTrace(false)
+    static class DuckWrap extends Event {
+        @Label("Face")
+        Class<?> face;
+        @Label("Target Class")
+        Class<?> targetClass;
+    }
+
+    @Name("org.duckwings.DuckMethodResolve")
+    @Label("Duck Method Resolve")
+    @Category("DuckWings")
+    @Description("Resolution of target method by reflection on method cache miss")
+    @Threshold("0 ns")
+    @StackTrace(false)
+    static class DuckMethodResolve extends Event {
+        @Label("Face")
+        Class<?> face;
+        @Label("Target Class")
+        Class<?> targetClass;
+        @Label("Method")
+        String method;
+        @Label("Found")
+        boolean found;
+    }
+
+    @Name("org.duckwings.DuckDispatchMiss")
+    @Label("Duck Dispatch Miss")
+    @Category("DuckWings")
+    @Description("Call of face method that was served by fallback, returned default value or failed")
+    static class DuckDispatchMiss extends Event {
+        @Label("Face")
+        Class<?> face;
+        @Label("Target Class")
+        Class<?> targetClass;
+        @Label("Method")
+        String method;
+        @Label("Outcome")
+        String outcome;
+    }
+}
@@ -0,0 +1,69 @@
+package org.duckwings;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Objects of view created by {@link Wrapper#wrapLazy(Supplier, Supplier[])}: the target at index 0 followed by the other objects.
+ * Each object is loaded by its supplier when it is needed for the first time. Loading is done under lock of this instance,
+ * so each supplier is called once even if the view is used by several threads; loaded object is read without lock.
+ * Supplier that fails is called again by the next call that needs the object. Suppliers are released once they are used,
+ * so the view does not keep state captured by them reachable.
+ */
+final class LazySources {
+    private final Supplier<?>[] loaders;
+    /**
+     * Loaded objects; {@code null} if the object was not loaded yet (supplier must not return {@code null}).
+     */
+    private final AtomicReferenceArray<Object> objects;
+
+    LazySources(Supplier<?> target, Supplier<?>[] others) {
+        loaders = new Supplier<?>[others.length + 1];
+        loaders[0] = Objects.requireNonNull(target, "target");
+        for (int i = 0; i < others.length; i++) {
+            loaders[i + 1] = Objects.requireNonNull(others[i], "others");
+        }
+        objects = new AtomicReferenceArray<>(loaders.length);
+    }
+
+    /**
+     * @return number of the objects including the target
+     */
+    int size() {
+        return loaders.length;
+    }
+
+    /**
+     * @return object of given index (0 is the target) loaded by this call if it was not loaded yet
+     * @throws NullPointerException if the supplier returns {@code null}
+     */
+    Object get(int index) {
+        Object obj = objects.get(index);
+        return obj != null ? obj : load(index);
+    }
+
+    /**
+     * @return other objects (i.e. all but the target), all of them are loaded
+     */
+    Object[] others() {
+        Object[] others = new Object[loaders.length - 1];
+        for (int i = 0; i < others.length; i++) {
+            others[i] = get(i + 1);
+        }
+        return others;
+    }
+
+    private synchronized Object load(int index) {
+        Object obj = objects.get(index);
+        if (obj == null) {
+            obj = loaders[index].get();
+            if (obj == null) {
+                throw new NullPointerException(index == 0 ? "Target of lazy view is null" : "Object " + index + " of lazy view is null");
+            }
+            objects.set(index, obj);
+            loaders[index] = null;
+        }
+        return obj;
+    }
+}
@@ -0,0 +1,108 @@
+package org.duckwings;
+
+import javax.management.MBeanServer;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Wrapper of maps from property names to values, e.g. rows of JSON documents or JDBC results:
+ * <pre>
+ * MapWrapper&lt;Person&gt; wrapper = DuckWings.builder().map(Person.class);
+ * Person person = wrapper.wrap(row);  // person.getName() returns row.get("name")
+ * </pre>
+ * Absent key is handled as missing method; key mapped to {@code null} is read as {@code null} or as the default value of primitive type.
+ * Validation configured by {@link DuckWings.WrapperBuilder#throwIfAbsentDuringBuilding(Function)} checks keys of each wrapped map.
+ * Rows that share the same keys can be stored as arrays instead of maps, see {@link #rows(String...)}.
+ */
+public final class MapWrapper<I> extends PropertyWrapper<Map<String, ?>, I> {
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    private final Optional<MBeanServer> metricsServer;
+    private final boolean canonical;
+    private final Executor executor;
+
+    MapWrapper(
+            Class<I> face,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<Function<Method, Throwable>> constructionFailure,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<Function<Method, Throwable>> runtimeFailure,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<MBeanServer> metricsServer,
+            Equality equality,
+            boolean canonical,
+            Executor executor) {
+        super(face, constructionFailure, runtimeFailure, metricsServer, equality, canonical, executor);
+        this.metricsServer = metricsServer;
+        this.canonical = canonical;
+        this.executor = executor;
+    }
+
+    /**
+     * Creates wrapper of rows stored as arrays whose elements are values of given keys in the same order.
+     * The wrapper shares the table of keys, so reading property is indexing the array instead of hashing its name.
+     * The wrapper is configured by the same builder as this wrapper.
+     */
+    public RowWrapper<I> rows(String... keys) {
+        return rows(Arrays.asList(keys));
+    }
+
+    public RowWrapper<I> rows(List<String> keys) {
+        return new RowWrapper<>(face, keys, constructionFailure, runtimeFailure, metricsServer, equality(), canonical, executor);
+    }
+
+    /**
+     * Creates wrapper of rows whose keys are the properties of the face in order of {@link Class#getMethods()}.
+     */
+    public RowWrapper<I> rows() {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String property : properties) {
+            if (property != null) {
+                keys.add(property);
+            }
+        }
+        return rows(new ArrayList<>(keys));
+    }
+
+    @Override
+    Object get(Map<String, ?> target, int ordinal) {
+        String key = properties[ordinal];
+        if (key == null) {
+            return ABSENT;
+        }
+        Object value = target.get(key);
+        return value != null || target.containsKey(key) ? value : ABSENT;
+    }
+
+    /**
+     * Checks keys of each map: unlike classes, maps of the same class may have different keys, so the result is not cached.
+     */
+    @Override
+    protected void validate(Map<String, ?> target, Object... others) {
+        if (constructionFailure.isPresent()) {
+            for (Method m : face.getMethods()) {
+                int ordinal = ordinal(m);
+                if (ordinal < 0 || properties[ordinal] == null || !target.containsKey(properties[ordinal])) {
+                    sneakyThrow(constructionFailure.get().apply(m));
+                }
+            }
+        }
+    }
+
+    @Override
+    protected Collection<Method> definedMethods(Object target) {
+        Map<?, ?> map = (Map<?, ?>)target;
+        Collection<Method> defined = new ArrayList<>();
+        for (int i = 0; i < faceMethods.length; i++) {
+            if (properties[i] != null && map.containsKey(properties[i])) {
+                defined.add(faceMethods[i]);
+            }
+        }
+        return defined;
+    }
+}
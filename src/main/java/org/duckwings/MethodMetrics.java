@@ -0,0 +1,94 @@
+package org.duckwings;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Snapshot of dispatch metrics of single face method exposed by {@link WrapperMetricsMXBean}.
+ * Latency is measured for sample of calls only; bucket {@code i} of the histogram counts sampled calls that took
+ * less than <code>2<sup>i</sup></code> nanoseconds but not less than <code>2<sup>i-1</sup></code> nanoseconds.
+ */
+public class MethodMetrics {
+    private final String method;
+    private final long invocations;
+    private final long fallbackHits;
+    private final long defaultValueReturns;
+    private final long runtimeFailures;
+    private final long cachedResolutions;
+    private final long reflectiveResolutions;
+    private final long sampledInvocations;
+    private final long sampledNanos;
+    private final long[] latencyHistogram;
+
+    @ConstructorProperties({"method", "invocations", "fallbackHits", "defaultValueReturns", "runtimeFailures",
+            "cachedResolutions", "reflectiveResolutions", "sampledInvocations", "sampledNanos", "latencyHistogram"})
+    public MethodMetrics(String method, long invocations, long fallbackHits, long defaultValueReturns, long runtimeFailures,
+                         long cachedResolutions, long reflectiveResolutions, long sampledInvocations, long sampledNanos, long[] latencyHistogram) {
+        this.method = method;
+        this.invocations = invocations;
+        this.fallbackHits = fallbackHits;
+        this.defaultValueReturns = defaultValueReturns;
+        this.runtimeFailures = runtimeFailures;
+        this.cachedResolutions = cachedResolutions;
+        this.reflectiveResolutions = reflectiveResolutions;
+        this.sampledInvocations = sampledInvocations;
+        this.sampledNanos = sampledNanos;
+        this.latencyHistogram = latencyHistogram;
+    }
+
+    /**
+     * @return name and parameter types of the face method, e.g. {@code charAt(int)}
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    public long getInvocations() {
+        return invocations;
+    }
+
+    /**
+     * @return number of calls served by fallback wrapper
+     */
+    public long getFallbackHits() {
+        return fallbackHits;
+    }
+
+    public long getDefaultValueReturns() {
+        return defaultValueReturns;
+    }
+
+    public long getRuntimeFailures() {
+        return runtimeFailures;
+    }
+
+    /**
+     * Target method is resolved once per target class when reflectional wrapper builds dispatch table of the class,
+     * calls do not resolve it. The table is shared by wrappers of the face, so it is usually built only by the first one.
+     * @return number of dispatch tables built by reflectional wrapper that used target method already resolved by other wrapper
+     */
+    public long getCachedResolutions() {
+        return cachedResolutions;
+    }
+
+    /**
+     * @return number of dispatch tables built by reflectional wrapper that resolved target method using reflection
+     */
+    public long getReflectiveResolutions() {
+        return reflectiveResolutions;
+    }
+
+    public long getSampledInvocations() {
+        return sampledInvocations;
+    }
+
+    /**
+     * @return total time of the sampled calls
+     */
+    public long getSampledNanos() {
+        return sampledNanos;
+    }
+
+    public long[] getLatencyHistogram() {
+        return latencyHistogram.clone();
+    }
+}
@@ -0,0 +1,88 @@
+package org.duckwings;
+
+import java.lang.reflect.Method;
+
+/**
+ * Ordinals of face methods by identity of {@link Method} instance. Dynamic proxy passes the same instances on each call
+ * (they are constants of the proxy class), so once the ordinal of the instance is known it is found by comparing references,
+ * without {@link Method#hashCode()} and {@link Method#equals(Object)} that compare names and declaring classes.
+ * <p>
+ * Lookup is lock free: the table is an open addressing array replaced as a whole under lock. The number of entries is bounded,
+ * so callers that pass new copies of the methods (e.g. obtained by {@link Class#getMethod(String, Class[])} on each call)
+ * do not grow the table; their methods are resolved by the wrapper each time.
+ */
+final class MethodOrdinals {
+    /**
+     * Returned by {@link #get(Method)} if the method is not in the table.
+     */
+    static final int ABSENT = Integer.MIN_VALUE;
+    private final int maxSize;
+    private volatile Table table = new Table(8);
+    private int size;
+
+    /**
+     * @param maxSize maximal number of cached instances
+     */
+    MethodOrdinals(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return ordinal of the method or {@link #ABSENT} if this instance was not put yet
+     */
+    int get(Method method) {
+        Table t = table;
+        int mask = t.methods.length - 1;
+        for (int i = hash(method) & mask; ; i = (i + 1) & mask) {
+            Method m = t.methods[i];
+            if (m == method) {
+                return t.ordinals[i];
+            }
+            if (m == null) {
+                return ABSENT;
+            }
+        }
+    }
+
+    synchronized void put(Method method, int ordinal) {
+        if (size >= maxSize || get(method) != ABSENT) {
+            return;
+        }
+        Table t = table;
+        // load factor is kept below 1/2, so probe sequences are short and always end by empty slot
+        Table copy = new Table((size + 1) * 2 > t.methods.length ? t.methods.length * 2 : t.methods.length);
+        for (int i = 0; i < t.methods.length; i++) {
+            if (t.methods[i] != null) {
+                copy.add(t.methods[i], t.ordinals[i]);
+            }
+        }
+        copy.add(method, ordinal);
+        size++;
+        table = copy;
+    }
+
+    private static int hash(Method method) {
+        int h = System.identityHashCode(method);
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Table {
+        private final Method[] methods;
+        private final int[] ordinals;
+
+        private Table(int capacity) {
+            methods = new Method[capacity];
+            ordinals = new int[capacity];
+        }
+
+        private void add(Method method, int ordinal) {
+            int mask = methods.length - 1;
+            int i = hash(method) & mask;
+            while (methods[i] != null) {
+                i = (i + 1) & mask;
+            }
+            methods[i] = method;
+            ordinals[i] = ordinal;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package org.duckwings;
+
+import org.duckwings.internal.SerializableFunction;
+import org.duckwings.internal.SerializableToDoubleFunction;
+import org.duckwings.internal.SerializableToIntFunction;
+import org.duckwings.internal.SerializableToLongFunction;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Reads properties of many objects through the face into arrays, one array per property:
+ * <pre>
+ * Projection.Columns columns = wrapper.projection().ints(IdHolder::getId).objects(IdHolder::getName).project(books);
+ * int[] ids = columns.ints(0);
+ * </pre>
+ * All properties of an object are read in one pass. Property given as method reference of the face is read directly
+ * from the target by the method or function the wrapper has bound to it, so no wrapper is created and primitive values
+ * are not boxed. Other properties (e.g. lambda expressions) are read through flyweight of the wrapper.
+ * Projection is not thread safe while it is being configured, but it can be used by several threads once it is configured.
+ */
+public final class Projection<T, I> {
+    private final Wrapper<T, I> wrapper;
+    private final List<Column<I>> columns = new ArrayList<>();
+    private int chunkSize;
+
+    Projection(Wrapper<T, I> wrapper) {
+        this.wrapper = wrapper;
+    }
+
+    public Projection<T, I> ints(SerializableToIntFunction<I> property) {
+        return add(new IntColumn<>(property));
+    }
+
+    public Projection<T, I> longs(SerializableToLongFunction<I> property) {
+        return add(new LongColumn<>(property));
+    }
+
+    public Projection<T, I> doubles(SerializableToDoubleFunction<I> property) {
+        return add(new DoubleColumn<>(property));
+    }
+
+    public Projection<T, I> objects(SerializableFunction<I, ?> property) {
+        return add(new ObjectColumn<>(property));
+    }
+
+    /**
+     * Splits the objects into chunks of given size that are projected in parallel by {@link java.util.concurrent.ForkJoinPool#commonPool()}.
+     * Target methods are then called by several threads concurrently.
+     */
+    public Projection<T, I> parallel(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    public Columns project(List<? extends T> targets) {
+        List<? extends T> list = targets instanceof RandomAccess ? targets : new ArrayList<>(targets);
+        int size = list.size();
+        Object[] arrays = new Object[columns.size()];
+        for (int c = 0; c < arrays.length; c++) {
+            arrays[c] = columns.get(c).newArray(size);
+        }
+        if (chunkSize == 0 || size <= chunkSize) {
+            project(list, 0, size, arrays);
+        } else {
+            int chunks = (size + chunkSize - 1) / chunkSize;
+            IntStream.range(0, chunks).parallel().forEach(k -> project(list, k * chunkSize, Math.min(size, (k + 1) * chunkSize), arrays));
+        }
+        return new Columns(arrays, size);
+    }
+
+    private Projection<T, I> add(Column<I> column) {
+        if (wrapper instanceof BaseWrapper) {
+            column.method = ((BaseWrapper<?, ?>)wrapper).referencedMethod(column.property);
+        }
+        columns.add(column);
+        return this;
+    }
+
+    /**
+     * Projects range of the objects. Accessors and flyweight are created for each range, so ranges can be projected concurrently.
+     */
+    private void project(List<? extends T> targets, int from, int to, Object[] arrays) {
+        // generic array cannot be created directly
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Reader<I>[] readers = new Reader[arrays.length];
+        boolean viewed = false;
+        for (int c = 0; c < readers.length; c++) {
+            Column<I> column = columns.get(c);
+            Accessor accessor = column.method == null ? null : ((BaseWrapper<?, ?>)wrapper).accessor(column.method, column.type);
+            readers[c] = accessor != null ? column.reader(accessor, arrays[c]) : column.reader(arrays[c]);
+            viewed |= accessor == null;
+        }
+        Function<T, I> viewer = viewed ? WrappedViews.viewer(wrapper) : null;
+        for (int i = from; i < to; i++) {
+            T target = targets.get(i);
+            I view = viewer == null ? null : viewer.apply(target);
+            for (Reader<I> reader : readers) {
+                reader.read(target, view, i);
+            }
+        }
+    }
+
+    /**
+     * Arrays of projected properties in the same order as the properties were added to the projection.
+     */
+    public static final class Columns {
+        private final Object[] arrays;
+        private final int size;
+
+        private Columns(Object[] arrays, int size) {
+            this.arrays = arrays;
+            this.size = size;
+        }
+
+        /**
+         * @return number of projected objects, i.e. length of each column
+         */
+        public int size() {
+            return size;
+        }
+
+        public int[] ints(int column) {
+            return (int[])arrays[column];
+        }
+
+        public long[] longs(int column) {
+            return (long[])arrays[column];
+        }
+
+        public double[] doubles(int column) {
+            return (double[])arrays[column];
+        }
+
+        public Object[] objects(int column) {
+            return (Object[])arrays[column];
+        }
+    }
+
+    /**
+     * Reads value of face method without parameters directly from the target. Accessor may cache state of the last read
+     * (e.g. the method of the last target class), so it is used by one thread only. Failures are handled by the wrapper
+     * exactly as if the method were called through the face.
+     */
+    interface Accessor {
+        int getInt(Object target);
+
+        long getLong(Object target);
+
+        double getDouble(Object target);
+
+        Object get(Object target);
+    }
+
+    private abstract static class Column<I> {
+        private final Object property;
+        /**
+         * Type of the values of the column: primitive type or {@code Object.class}.
+         */
+        private final Class<?> type;
+        /**
+         * Face method referenced by the property or {@code null} if the property is not a method reference.
+         */
+        private Method method;
+
+        Column(Object property, Class<?> type) {
+            this.property = property;
+            this.type = type;
+        }
+
+        abstract Object newArray(int size);
+
+        /**
+         * @return reader that fills given array using the accessor
+         */
+        abstract Reader<I> reader(Accessor accessor, Object array);
+
+        /**
+         * @return reader that fills given array by the property applied to the face
+         */
+        abstract Reader<I> reader(Object array);
+    }
+
+    /**
+     * Reads property of one object into the array of the column.
+     */
+    private interface Reader<I> {
+        void read(Object target, I view, int index);
+    }
+
+    private static class IntColumn<I> extends Column<I> {
+        private final SerializableToIntFunction<I> property;
+
+        IntColumn(SerializableToIntFunction<I> property) {
+            super(property, int.class);
+            this.property = property;
+        }
+
+        @Override
+        Object newArray(int size) {
+            return new int[size];
+        }
+
+        @Override
+        Reader<I> reader(Accessor accessor, Object array) {
+            int[] values = (int[])array;
+            return (target, view, index) -> values[index] = accessor.getInt(target);
+        }
+
+        @Override
+        Reader<I> reader(Object array) {
+            int[] values = (int[])array;
+            return (target, view, index) -> values[index] = property.applyAsInt(view);
+        }
+    }
+
+    private static class LongColumn<I> extends Column<I> {
+        private final SerializableToLongFunction<I> property;
+
+        LongColumn(SerializableToLongFunction<I> property) {
+            super(property, long.class);
+            this.property = property;
+        }
+
+        @Override
+        Object newArray(int size) {
+            return new long[size];
+        }
+
+        @Override
+        Reader<I> reader(Accessor accessor, Object array) {
+            long[] values = (long[])array;
+            return (target, view, index) -> values[index] = accessor.getLong(target);
+        }
+
+        @Override
+        Reader<I> reader(Object array) {
+            long[] values = (long[])array;
+            return (target, view, index) -> values[index] = property.applyAsLong(view);
+        }
+    }
+
+    private static class DoubleColumn<I> extends Column<I> {
+        private final SerializableToDoubleFunction<I> property;
+
+        DoubleColumn(SerializableToDoubleFunction<I> property) {
+            super(property, double.class);
+            this.property = property;
+        }
+
+        @Override
+        Object newArray(int size) {
+            return new double[size];
+        }
+
+        @Override
+        Reader<I> reader(Accessor accessor, Object array) {
+            double[] values = (double[])array;
+            return (target, view, index) -> values[index] = accessor.getDouble(target);
+        }
+
+        @Override
+        Reader<I> reader(Object array) {
+            double[] values = (double[])array;
+            return (target, view, index) -> values[index] = property.applyAsDouble(view);
+        }
+    }
+
+    private static class ObjectColumn<I> extends Column<I> {
+        private final SerializableFunction<I, ?> property;
+
+        ObjectColumn(SerializableFunction<I, ?> property) {
+            super(property, Object.class);
+            this.property = property;
+        }
+
+        @Override
+        Object newArray(int size) {
+            return new Object[size];
+        }
+
+        @Override
+        Reader<I> reader(Accessor accessor, Object array) {
+            Object[] values = (Object[])array;
+            return (target, view, index) -> values[index] = accessor.get(target);
+        }
+
+        @Override
+        Reader<I> reader(Object array) {
+            Object[] values = (Object[])array;
+            return (target, view, index) -> values[index] = property.apply(view);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.duckwings;
+
+/**
+ * Base class of adapters generated for {@link MapWrapper} and {@link RowWrapper}. Each method of generated subclass
+ * reads the value of its property by ordinal of the method, so the property is not looked up by name and no
+ * argument array is created. This class is public only because the generated classes may live in other packages;
+ * it is not intended to be used directly.
+ */
+public abstract class PropertyAdapter {
+    protected final PropertyWrapper<?, ?> wrapper;
+    Object target;
+
+    protected PropertyAdapter(PropertyWrapper<?, ?> wrapper) {
+        this.wrapper = wrapper;
+    }
+
+    /**
+     * Creates new unbound instance of the same adapter class.
+     */
+    protected abstract PropertyAdapter newInstance();
+
+    protected final Object read(int ordinal) {
+        return wrapper.readTarget(target, ordinal);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return wrapper.targetEqualsTo(target, obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return wrapper.targetHashCodeOf(target);
+    }
+
+    @Override
+    public String toString() {
+        return wrapper.targetToStringOf(target);
+    }
+}
@@ -0,0 +1,363 @@
+package org.duckwings;
+
+import net.sf.cglib.core.ClassEmitter;
+import net.sf.cglib.core.CodeEmitter;
+import net.sf.cglib.core.Constants;
+import net.sf.cglib.core.ReflectUtils;
+import net.sf.cglib.core.Signature;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Type;
+
+import javax.management.MBeanServer;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Base class of wrappers whose targets have no methods but values looked up by property name, see {@link MapWrapper}
+ * and {@link RowWrapper}. Face method without parameters reads the property named after it ({@code getId()} reads {@code id});
+ * the name is resolved once per face method, so subclasses find the value by ordinal of the method only.
+ * Value is converted to the return type of the method if it is number of other type (e.g. {@code Long} read by {@code int getId()})
+ * or one character string read as {@code char}; {@code null} is read as the default value of primitive type.
+ * Absent property and value of other type are handled as missing method.
+ * Methods are served by generated adapter class unless metrics are enabled or the class cannot be generated.
+ */
+public abstract class PropertyWrapper<T, I> extends BaseWrapper<T, I> {
+    /**
+     * Returned by {@link #get(Object, int)} if the target has no such property.
+     */
+    static final Object ABSENT = new Object();
+    private static final Map<Class<?>, Class<?>> BOXES = new HashMap<>();
+    static {
+        BOXES.put(byte.class, Byte.class);
+        BOXES.put(short.class, Short.class);
+        BOXES.put(int.class, Integer.class);
+        BOXES.put(long.class, Long.class);
+        BOXES.put(char.class, Character.class);
+        BOXES.put(float.class, Float.class);
+        BOXES.put(double.class, Double.class);
+        BOXES.put(boolean.class, Boolean.class);
+    }
+
+    /**
+     * Property read by face method by its ordinal or {@code null} if the method is not a getter.
+     */
+    final String[] properties;
+    /**
+     * Return types of face methods by ordinal; primitive types are boxed.
+     */
+    private final Class<?>[] types;
+    /**
+     * Unbound instance of generated adapter or {@code null} if views are dynamic proxies.
+     */
+    private final PropertyAdapter prototype;
+
+    PropertyWrapper(
+            Class<I> face,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<Function<Method, Throwable>> constructionFailure,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<Function<Method, Throwable>> runtimeFailure,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<MBeanServer> metricsServer,
+            Equality equality,
+            boolean canonical,
+            Executor executor) {
+        super(face, constructionFailure, runtimeFailure, metricsServer, equality, canonical, executor);
+        properties = new String[faceMethods.length];
+        types = new Class<?>[faceMethods.length];
+        boolean[] objectMethods = new boolean[faceMethods.length];
+        for (int i = 0; i < faceMethods.length; i++) {
+            Method method = faceMethods[i];
+            objectMethods[i] = isObjectMethod(i);
+            types[i] = BOXES.getOrDefault(method.getReturnType(), method.getReturnType());
+            if (!objectMethods[i] && method.getParameterCount() == 0 && method.getReturnType() != void.class) {
+                properties[i] = property(method);
+            }
+        }
+        prototype = metrics == null ? prototype(objectMethods) : null;
+    }
+
+    /**
+     * @return value of the property read by face method with given ordinal or {@link #ABSENT} if the target has no such property
+     */
+    abstract Object get(T target, int ordinal);
+
+    /**
+     * Reads value of face method and converts it to the return type of the method.
+     */
+    final Object read(T target, int ordinal) {
+        Object value = target == null ? ABSENT : get(target, ordinal);
+        if (value != ABSENT) {
+            value = convert(value, ordinal);
+            if (value != ABSENT) {
+                return value;
+            }
+        }
+        return fail(ordinal, target);
+    }
+
+    final Object readTarget(Object target, int ordinal) {
+        @SuppressWarnings("unchecked")
+        T t = (T)target;
+        return read(t, ordinal);
+    }
+
+    private Object convert(Object value, int ordinal) {
+        Class<?> type = types[ordinal];
+        if (value == null) {
+            return defaultValue.get(faceMethods[ordinal].getReturnType());
+        }
+        if (type.isInstance(value)) {
+            return value;
+        }
+        if (value instanceof Number) {
+            Number number = (Number)value;
+            if (type == Integer.class) {
+                return number.intValue();
+            } else if (type == Long.class) {
+                return number.longValue();
+            } else if (type == Double.class) {
+                return number.doubleValue();
+            } else if (type == Float.class) {
+                return number.floatValue();
+            } else if (type == Short.class) {
+                return number.shortValue();
+            } else if (type == Byte.class) {
+                return number.byteValue();
+            }
+        }
+        if (type == Character.class && value instanceof CharSequence && ((CharSequence)value).length() == 1) {
+            return ((CharSequence)value).charAt(0);
+        }
+        return ABSENT;
+    }
+
+    /**
+     * Implements {@code equals()} of the views according to {@link Equality}; the argument is unwrapped.
+     */
+    boolean targetEquals(T target, Object other) {
+        return objectEquals(target, other);
+    }
+
+    int targetHashCode(T target) {
+        return objectHashCode(target);
+    }
+
+    String targetToString(T target) {
+        return String.valueOf(target);
+    }
+
+    @SuppressWarnings("unchecked")
+    final boolean targetEqualsTo(Object target, Object other) {
+        return targetEquals((T)target, other);
+    }
+
+    @SuppressWarnings("unchecked")
+    final int targetHashCodeOf(Object target) {
+        return targetHashCode((T)target);
+    }
+
+    @SuppressWarnings("unchecked")
+    final String targetToStringOf(Object target) {
+        return targetToString((T)target);
+    }
+
+    @Override
+    protected I createProxy(T target, Object... others) {
+        if (others.length > 0) {
+            throw new IllegalArgumentException("View of properties is bound to one object");
+        }
+        if (prototype == null) {
+            return super.createProxy(target);
+        }
+        PropertyAdapter adapter = prototype.newInstance();
+        adapter.target = target;
+        @SuppressWarnings("unchecked")
+        I view = (I)adapter;
+        return view;
+    }
+
+    @Override
+    public I flyweight() {
+        if (prototype == null) {
+            return super.flyweight();
+        }
+        @SuppressWarnings("unchecked")
+        I view = (I)prototype.newInstance();
+        return view;
+    }
+
+    @Override
+    public I rebind(I flyweight, T target, Object... others) {
+        if (!(flyweight instanceof PropertyAdapter) || ((PropertyAdapter)flyweight).wrapper != this) {
+            return super.rebind(flyweight, target, others);
+        }
+        if (others.length > 0) {
+            throw new IllegalArgumentException("View of properties is bound to one object");
+        }
+        validate(target);
+        ((PropertyAdapter)flyweight).target = target;
+        return flyweight;
+    }
+
+    @Override
+    protected BaseInvocationHandler createInvocationHandler(T target, Object... others) {
+        return new PropertyInvocationHandler(target);
+    }
+
+    @Override
+    Projection.Accessor accessor(int ordinal) {
+        return properties[ordinal] == null ? null : new PropertyAccessor(ordinal);
+    }
+
+    private PropertyAdapter prototype(boolean[] objectMethods) {
+        AdapterGenerator generator = AdapterGenerator.create(face, faceMethods, objectMethods);
+        if (generator == null) {
+            return null;
+        }
+
+        Class<?> adapterClass = generator.generate();
+        if (adapterClass == null) {
+            return null;
+        }
+        try {
+            return (PropertyAdapter)adapterClass.getConstructor(PropertyWrapper.class).newInstance(this);
+        } catch (ReflectiveOperationException e) {
+            // the constructor is not accessible; dynamic proxy will be used instead
+            return null;
+        }
+    }
+
+    private class PropertyInvocationHandler extends BaseInvocationHandler {
+        private PropertyInvocationHandler(T target) {
+            super(target, new Object[0]);
+        }
+
+        @Override
+        protected void rebind(T target, Object[] others) {
+            if (others.length > 0) {
+                throw new IllegalArgumentException("View of properties is bound to one object");
+            }
+            super.rebind(target, others);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "hashCode":
+                        return targetHashCode(target);
+                    case "equals":
+                        return targetEquals(target, args[0]);
+                    default:
+                        return targetToString(target);
+                }
+            }
+            int ordinal = ordinal(method);
+            return ordinal < 0 ? fail(method, target) : read(target, ordinal);
+        }
+    }
+
+    /**
+     * Reads property by ordinal of the face method for {@link Projection}.
+     */
+    private class PropertyAccessor implements Projection.Accessor {
+        private final int ordinal;
+
+        private PropertyAccessor(int ordinal) {
+            this.ordinal = ordinal;
+        }
+
+        @Override
+        public int getInt(Object target) {
+            return (Integer)readTarget(target, ordinal);
+        }
+
+        @Override
+        public long getLong(Object target) {
+            return (Long)readTarget(target, ordinal);
+        }
+
+        @Override
+        public double getDouble(Object target) {
+            return (Double)readTarget(target, ordinal);
+        }
+
+        @Override
+        public Object get(Object target) {
+            return readTarget(target, ordinal);
+        }
+    }
+
+    /**
+     * Generates adapter whose methods call {@link PropertyAdapter#read(int)} by their ordinals. The adapter depends on the face only,
+     * so it is shared by all wrappers of the face.
+     */
+    private static class AdapterGenerator extends AdapterClassGenerator {
+        private static final Type ADAPTER = Type.getType(PropertyAdapter.class);
+        private static final Type WRAPPER = Type.getType(PropertyWrapper.class);
+        private static final Signature CONSTRUCTOR = new Signature("<init>", Type.VOID_TYPE, new Type[] {WRAPPER});
+        private static final Signature NEW_INSTANCE = new Signature("newInstance", ADAPTER, new Type[0]);
+        private static final Signature READ = new Signature("read", Constants.TYPE_OBJECT, new Type[] {Type.INT_TYPE});
+
+        private final Method[] faceMethods;
+        private final boolean[] objectMethods;
+
+        private AdapterGenerator(Class<?> face, Class<?> anchor, Method[] faceMethods, boolean[] objectMethods) {
+            super(PropertyWrapper.class, face, anchor, "Properties");
+            this.faceMethods = faceMethods;
+            this.objectMethods = objectMethods;
+        }
+
+        /**
+         * @return generator or {@code null} if adapter cannot be generated
+         */
+        static AdapterGenerator create(Class<?> face, Method[] faceMethods, boolean[] objectMethods) {
+            Class<?> anchor = faceAnchor(face, PropertyAdapter.class);
+            return anchor == null ? null : new AdapterGenerator(face, anchor, faceMethods, objectMethods);
+        }
+
+        Class<?> generate() {
+            return adapterClass(Arrays.asList(face.getName(), PropertyAdapter.class.getName()));
+        }
+
+        @Override
+        public void generateClass(ClassVisitor v) {
+            ClassEmitter ce = new ClassEmitter(v);
+            ce.begin_class(Constants.V1_8, Constants.ACC_PUBLIC | Constants.ACC_FINAL, className(), ADAPTER, new Type[] {Type.getType(face)}, Constants.SOURCE_FILE);
+
+            CodeEmitter e = ce.begin_method(Constants.ACC_PUBLIC, CONSTRUCTOR, null);
+            e.load_this();
+            e.load_args();
+            e.super_invoke_constructor(CONSTRUCTOR);
+            e.return_value();
+            e.end_method();
+
+            e = ce.begin_method(Constants.ACC_PROTECTED, NEW_INSTANCE, null);
+            e.new_instance_this();
+            e.dup();
+            e.load_this();
+            e.getfield(ADAPTER, "wrapper", WRAPPER);
+            e.invoke_constructor_this(CONSTRUCTOR);
+            e.return_value();
+            e.end_method();
+
+            for (int i = 0; i < faceMethods.length; i++) {
+                if (objectMethods[i]) {
+                    // served by PropertyAdapter
+                    continue;
+                }
+                e = ce.begin_method(Constants.ACC_PUBLIC, ReflectUtils.getSignature(faceMethods[i]), null);
+                e.load_this();
+                e.push(i);
+                e.invoke_virtual(ADAPTER, READ);
+                returnObject(e);
+                e.end_method();
+            }
+
+            ce.end_class();
+        }
+    }
+}
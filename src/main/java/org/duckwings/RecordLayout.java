@@ -0,0 +1,229 @@
+package org.duckwings;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Describes fixed size records stored in {@link ByteBuffer}: name, offset within the record and type of each field.
+ * <pre>
+ * RecordLayout layout = RecordLayout.builder()
+ *         .field("id", int.class)            // offset 0
+ *         .field("timestamp", long.class)    // offset 4
+ *         .text("symbol", 8)                 // offset 12, 8 bytes of text padded by zeros
+ *         .size(32)                          // records are 32 bytes apart
+ *         .build();
+ * </pre>
+ * Fields are laid out one after another unless offset is given explicitly. Values are read in the byte order of the buffer.
+ * @see DuckWings.WrapperBuilder#buffer(Class, RecordLayout)
+ */
+public final class RecordLayout {
+    private final Map<String, Field> fields;
+    private final int size;
+
+    private RecordLayout(Map<String, Field> fields, int size) {
+        this.fields = Collections.unmodifiableMap(fields);
+        this.size = size;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return distance between starts of two subsequent records in bytes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return offset of the field within the record
+     * @throws IllegalArgumentException if there is no such field
+     */
+    public int offset(String name) {
+        return field(name).offset;
+    }
+
+    /**
+     * @return type of the field: primitive type or {@code String.class} for text fields
+     * @throws IllegalArgumentException if there is no such field
+     */
+    public Class<?> type(String name) {
+        return field(name).type;
+    }
+
+    Field find(String name) {
+        return fields.get(name);
+    }
+
+    Map<String, Field> fields() {
+        return fields;
+    }
+
+    private Field field(String name) {
+        Field field = fields.get(name);
+        if (field == null) {
+            throw new IllegalArgumentException("No field " + name);
+        }
+        return field;
+    }
+
+    @Override
+    public String toString() {
+        return fields.values() + " size " + size;
+    }
+
+    public static final class Builder {
+        private final Map<String, Field> fields = new LinkedHashMap<>();
+        private int next;
+        private int size;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds field that follows the previous one.
+         * @param type {@code byte}, {@code short}, {@code char}, {@code int}, {@code long}, {@code float}, {@code double} or {@code boolean} (one byte, non zero is {@code true})
+         */
+        public Builder field(String name, Class<?> type) {
+            return field(name, type, next);
+        }
+
+        /**
+         * Adds field at given offset within the record.
+         */
+        public Builder field(String name, Class<?> type, int offset) {
+            Integer length = WIDTHS.get(type);
+            if (length == null) {
+                throw new IllegalArgumentException("Unsupported type of field " + name + ": " + type);
+            }
+            return add(new Field(name, type, offset, length));
+        }
+
+        /**
+         * Adds text field of given length that follows the previous field.
+         * Text is read as ISO-8859-1 up to the first zero byte, so shorter values are padded by zeros.
+         */
+        public Builder text(String name, int length) {
+            return text(name, length, next);
+        }
+
+        public Builder text(String name, int length, int offset) {
+            if (length <= 0) {
+                throw new IllegalArgumentException("Length of field " + name + " must be positive: " + length);
+            }
+            return add(new Field(name, String.class, offset, length));
+        }
+
+        /**
+         * Skips given number of bytes (e.g. padding or field that is not read).
+         */
+        public Builder skip(int bytes) {
+            next += bytes;
+            return this;
+        }
+
+        /**
+         * Sets size of the record. The end of the last field is used by default.
+         */
+        public Builder size(int size) {
+            this.size = size;
+            return this;
+        }
+
+        public RecordLayout build() {
+            int end = fields.values().stream().mapToInt(f -> f.offset + f.length).max().orElse(0);
+            if (size != 0 && size < end) {
+                throw new IllegalArgumentException("Record size " + size + " is less than end of the fields " + end);
+            }
+            int recordSize = size != 0 ? size : Math.max(end, next);
+            if (recordSize <= 0) {
+                throw new IllegalArgumentException("Record has no fields");
+            }
+            return new RecordLayout(new LinkedHashMap<>(fields), recordSize);
+        }
+
+        private Builder add(Field field) {
+            if (field.offset < 0) {
+                throw new IllegalArgumentException("Negative offset of field " + field.name + ": " + field.offset);
+            }
+            if (fields.putIfAbsent(field.name, field) != null) {
+                throw new IllegalArgumentException("Duplicate field " + field.name);
+            }
+            next = field.offset + field.length;
+            return this;
+        }
+    }
+
+    private static final Map<Class<?>, Integer> WIDTHS = new LinkedHashMap<>();
+    static {
+        WIDTHS.put(byte.class, 1);
+        WIDTHS.put(boolean.class, 1);
+        WIDTHS.put(short.class, 2);
+        WIDTHS.put(char.class, 2);
+        WIDTHS.put(int.class, 4);
+        WIDTHS.put(float.class, 4);
+        WIDTHS.put(long.class, 8);
+        WIDTHS.put(double.class, 8);
+    }
+
+    static final class Field {
+        final String name;
+        final Class<?> type;
+        final int offset;
+        final int length;
+
+        private Field(String name, Class<?> type, int offset, int length) {
+            this.name = name;
+            this.type = type;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        /**
+         * Reads the value of the field of the record that starts at given position of the buffer.
+         */
+        Object read(ByteBuffer buffer, int base) {
+            int index = base + offset;
+            if (type == int.class) {
+                return buffer.getInt(index);
+            } else if (type == long.class) {
+                return buffer.getLong(index);
+            } else if (type == double.class) {
+                return buffer.getDouble(index);
+            } else if (type == float.class) {
+                return buffer.getFloat(index);
+            } else if (type == short.class) {
+                return buffer.getShort(index);
+            } else if (type == char.class) {
+                return buffer.getChar(index);
+            } else if (type == byte.class) {
+                return buffer.get(index);
+            } else if (type == boolean.class) {
+                return buffer.get(index) != 0;
+            }
+            return text(buffer, index, length);
+        }
+
+        static String text(ByteBuffer buffer, int index, int length) {
+            byte[] bytes = new byte[length];
+            int n = 0;
+            while (n < length) {
+                byte b = buffer.get(index + n);
+                if (b == 0) {
+                    break;
+                }
+                bytes[n++] = b;
+            }
+            return new String(bytes, 0, n, StandardCharsets.ISO_8859_1);
+        }
+
+        @Override
+        public String toString() {
+            return name + ":" + (type == String.class ? "text" + length : type.getName()) + "@" + offset;
+        }
+    }
+}
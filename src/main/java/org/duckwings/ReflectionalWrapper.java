@@ -1,30 +1,134 @@
 package org.duckwings;
 
+import org.duckwings.annotation.AdapterNames;
+import org.duckwings.annotation.DuckFace;
 import org.duckwings.internal.MethodComparator;
 
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.InvocationTargetException;
+import javax.management.MBeanServer;
+import java.lang.ref.WeakReference;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
-import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 
+import static org.duckwings.DuckEvents.EVENTS;
+
 public class ReflectionalWrapper<T, I> extends BaseWrapper<T, I> {
-    private final Map<MethodKey, Optional<Method>> methodCache = new ConcurrentHashMap<>();
+    private static final MethodType ADAPTER_CONSTRUCTOR = MethodType.methodType(GeneratedAdapter.class, Object.class, Object[].class, ReflectionalWrapper.class);
+    /**
+     * Index of the object that implements each face method by classes of the objects, see {@link Route}.
+     */
+    private final ClassesMap<int[]> routes = new ClassesMap<>();
+    /**
+     * Two most recently used tables, so wrapper that serves objects of one or two classes does not look them up
+     * in the {@link ResolutionCache}.
+     */
+    private InlineTable recentTable;
+    private InlineTable previousTable;
+    /**
+     * Two most recently used routes, so views over objects of the same classes share the route. The routes are referred
+     * weakly because they refer the classes; they are kept by the views that use them.
+     */
+    private WeakReference<Route> recentRoute;
+    private WeakReference<Route> previousRoute;
+    /**
+     * Constructors of adapters generated at compile time for faces annotated by {@link DuckFace}, by target class.
+     */
+    private final ClassValue<Optional<MethodHandle>> compiledAdapters;
 
     ReflectionalWrapper(
             Class<I> face,
             @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<Function<Method, Throwable>> constructionFailure,
-            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<Function<Method, Throwable>> runtimeFailure) {
-        super(face, constructionFailure, runtimeFailure);
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<Function<Method, Throwable>> runtimeFailure,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<MBeanServer> metricsServer,
+            Equality equality,
+            boolean canonical,
+            Executor executor) {
+        super(face, constructionFailure, runtimeFailure, metricsServer, equality, canonical, executor);
+        compiledAdapters = face.isAnnotationPresent(DuckFace.class) ? new ClassValue<Optional<MethodHandle>>() {
+            @Override
+            protected Optional<MethodHandle> computeValue(Class<?> targetClass) {
+                return compiledConstructor(targetClass);
+            }
+        } : null;
+    }
+
+    @Override
+    protected I createProxy(T target, Object... others) {
+        I compiled = compiledAdapter(target, others);
+        return compiled != null ? compiled : super.createProxy(target, others);
+    }
+
+    /**
+     * Whether calls of this wrapper can be dispatched by other wrapper (e.g. by functional wrapper that uses this one as
+     * fallback) using dispatch tables of this wrapper. Faces with adapters generated at compile time may map methods
+     * differently, so they are always called through the wrapped object.
+     */
+    boolean fusable() {
+        return compiledAdapters == null;
+    }
+
+    @Override
+    boolean viewsByFlyweight() {
+        return fusable();
+    }
+
+    /**
+     * Creates instance of adapter generated at compile time by the annotation processor for the class of given target.
+     * Such adapters implement methods of the face only, so they are used when there are no other objects.
+     * @return the adapter or {@code null} if there is no adapter for the target class
+     */
+    protected I compiledAdapter(T target, Object[] others) {
+        if (compiledAdapters == null || others.length > 0 || metrics != null) {
+            return null;
+        }
+        Optional<MethodHandle> constructor = compiledAdapters.get(target.getClass());
+        return constructor.isPresent() ? newAdapter(constructor.get(), target, others) : null;
+    }
+
+    private Optional<MethodHandle> compiledConstructor(Class<?> targetClass) {
+        try {
+            return Optional.of(adapterConstructor(Class.forName(AdapterNames.adapterName(face.getName(), targetClass.getName()), true, face.getClassLoader())));
+        } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+            // adapter was not generated for this class
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns constructor of generated adapter class that accepts the target, the other objects and the wrapper.
+     * Adapters are cached by target class using {@link ClassValue}, so they are cached as constructors rather than
+     * prototype instances: prototype would refer this wrapper from the class and the wrapper would never be collected.
+     * @throws ClassCastException if the class is not {@link GeneratedAdapter}
+     */
+    static MethodHandle adapterConstructor(Class<?> adapterClass) throws ReflectiveOperationException {
+        return MethodHandles.lookup().unreflectConstructor(adapterClass.asSubclass(GeneratedAdapter.class)
+                .getConstructor(Object.class, Object[].class, ReflectionalWrapper.class)).asType(ADAPTER_CONSTRUCTOR);
+    }
+
+    I newAdapter(MethodHandle constructor, Object target, Object[] others) {
+        try {
+            @SuppressWarnings("unchecked")
+            I adapter = (I)(GeneratedAdapter)constructor.invokeExact(target, others, (ReflectionalWrapper<?, ?>)this);
+            return adapter;
+        } catch (Throwable e) {
+            // generated constructor only assigns the fields
+            throw new IllegalStateException(e);
+        }
     }
 
 
@@ -34,105 +138,536 @@ public class ReflectionalWrapper<T, I> extends BaseWrapper<T, I> {
         return targetMethods;
     }
 
-    protected InvocationHandler createInvocationHandler(T target, Object ... others) {
-        return new ReflectionalInvocationHandler<>(target, others);
+    protected BaseInvocationHandler createInvocationHandler(T target, Object ... others) {
+        return new ReflectionalInvocationHandler(target, others);
     }
 
-    private Optional<Method> targetMethod(Class<?> targetClass, Method method) {
-        String methodName = method.getName();
-        Class[] paramTypes = method.getParameterTypes();
-        MethodKey key = new MethodKey(targetClass, methodName, paramTypes);
-        Optional<Method> m = methodCache.computeIfAbsent(key, new Function<MethodKey, Optional<Method>>() {
-            @Override
-            public Optional<Method> apply(MethodKey methodKey) {
-                for (Class<?> c = targetClass; c != null; c = c.getSuperclass()) {
-                    try {
-                        return Optional.of(c.getDeclaredMethod(methodName, method.getParameterTypes()));
-                    } catch (NoSuchMethodException e) {
-                        // ignore and try the next candidate
-                    }
-                }
-                return Optional.empty();
+    @Override
+    BaseInvocationHandler createLazyInvocationHandler(LazySources sources) {
+        return new ReflectionalInvocationHandler(sources);
+    }
+
+    /**
+     * Finds method of given class that implements the face method in the shared {@link ResolutionCache}
+     * and resolves it by reflection on cache miss.
+     */
+    Optional<TargetMethod> findMethod(Class<?> targetClass, Method method) {
+        Optional<TargetMethod> cached = ResolutionCache.cached(targetClass, method);
+        if (metrics != null) {
+            metrics.resolution(ordinal(method), cached != null);
+        }
+        if (cached != null) {
+            return cached;
+        }
+        Object event = EVENTS.beginResolve();
+        Optional<TargetMethod> resolved = ResolutionCache.resolve(targetClass, method);
+        EVENTS.endResolve(event, face, targetClass, method, resolved.isPresent());
+        return resolved;
+    }
+
+    /**
+     * Returns methods of given class that implement the face methods indexed by ordinal of the face method.
+     * The element is {@code null} if class does not implement the method. Tables are shared by wrappers of the same face
+     * in the {@link ResolutionCache}, so they do not prevent unloading of the class. Two most recently used tables are
+     * kept in inline cache, so wrapper that serves objects of one or two classes does not perform any lookup.
+     */
+    TargetMethod[] table(Class<?> targetClass) {
+        TargetMethod[] table = recentTable != null ? recentTable.methods(targetClass) : null;
+        if (table != null) {
+            return table;
+        }
+        table = previousTable != null ? previousTable.methods(targetClass) : null;
+        if (table != null) {
+            return table;
+        }
+
+        table = ResolutionCache.table(targetClass, face);
+        if (table == null) {
+            table = ResolutionCache.share(targetClass, face, buildTable(targetClass));
+        }
+        // racy update is safe because the entries are immutable
+        previousTable = recentTable;
+        recentTable = new InlineTable(targetClass, table);
+        return table;
+    }
+
+    private TargetMethod[] buildTable(Class<?> targetClass) {
+        TargetMethod[] methods = new TargetMethod[faceMethods.length];
+        for (int i = 0; i < methods.length; i++) {
+            methods[i] = findMethod(targetClass, faceMethods[i]).orElse(null);
+        }
+        return methods;
+    }
+
+    /**
+     * Dispatches method of generated adapter.
+     * @param route route of the view or {@code null} if there are no other objects
+     */
+    Object dispatch(Object target, Object[] others, Route route, int ordinal, Object[] args) throws Throwable {
+        if (isObjectMethod(ordinal)) {
+            return objectMethod(ordinal, target, args);
+        }
+        Method method = faceMethods[ordinal];
+        try {
+            if (route == null) {
+                TargetMethod[] table = table(target.getClass());
+                return deferred(table[ordinal], ordinal) ? async(() -> invoke(table, target, ordinal, args)) : invoke(table, target, ordinal, args);
             }
-        });
+            return deferred(route.method(ordinal), ordinal) ? async(() -> invoke(route, target, others, ordinal, args)) : invoke(route, target, others, ordinal, args);
+        } catch (Throwable t) {
+            throw declared(method, t);
+        }
+    }
+
+    /**
+     * Whether the call of asynchronous face method is run by the executor: the target method is missing
+     * or returns value that is not a future compatible with the face method.
+     */
+    private boolean deferred(TargetMethod m, int ordinal) {
+        return isAsync(ordinal) && (m == null || !faceMethods[ordinal].getReturnType().isAssignableFrom(m.method().getReturnType()));
+    }
 
-        if (m.isPresent()) {
-            return m;
+    /**
+     * Returns route of view over given objects. Sources of the methods depend on classes of the objects only, so they are
+     * cached for each combination of classes, and two most recently used routes are kept in inline cache,
+     * so views over objects of the same classes are routed without allocation.
+     */
+    Route route(Object target, Object[] others) {
+        Route route = recentRoute != null ? recentRoute.get() : null;
+        if (route != null && route.routes(target, others)) {
+            return route;
+        }
+        route = previousRoute != null ? previousRoute.get() : null;
+        if (route != null && route.routes(target, others)) {
+            return route;
         }
 
-        runtimeFailure.ifPresent(methodThrowableFunction -> sneakyThrow(methodThrowableFunction.apply(method)));
-        return Optional.empty();
+        Class<?>[] classes = new Class<?>[others.length + 1];
+        TargetMethod[][] tables = new TargetMethod[classes.length][];
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = (i == 0 ? target : others[i - 1]).getClass();
+            tables[i] = table(classes[i]);
+        }
+        route = new Route(classes, routes.get(target, others, () -> Route.sources(tables)), tables);
+        // racy update is safe because routes are immutable
+        previousRoute = recentRoute;
+        recentRoute = new WeakReference<>(route);
+        return route;
     }
 
-    private class ReflectionalInvocationHandler<T> implements InvocationHandler, Supplier<T> {
-        private final T target;
-        private final Object[] others;
+    Object invoke(Route route, Object target, Object[] others, int ordinal, Object[] args) throws Throwable {
+        int source = route.sources[ordinal];
+        if (source >= 0) {
+            try {
+                return route.tables[source][ordinal].invoke(source == 0 ? target : others[source - 1], args);
+            } catch (Throwable e) {
+                // the decision whether throw exception of return default value is done in right after the if.
+            }
+        }
+        return fail(faceMethods[ordinal], target);
+    }
 
-        private ReflectionalInvocationHandler(T target, Object[] others) {
-            this.target = target;
-            this.others = others;
+    /**
+     * Invokes method of single object; views over several objects are dispatched using {@link Route}.
+     */
+    Object invoke(TargetMethod[] table, Object target, int ordinal, Object[] args) throws Throwable {
+        TargetMethod m = table[ordinal];
+        if (m != null) {
+            try {
+                return m.invoke(target, args);
+            } catch (Throwable e) {
+                // does not matter whether exception was thrown during invocation or during the method lookup:
+                // the decision whether throw exception of return default value is done in right after the if.
+            }
+        }
+        return fail(faceMethods[ordinal], target);
+    }
+
+    @Override
+    Projection.Accessor accessor(int ordinal) {
+        return fusable() ? new TableAccessor(ordinal, faceMethods[ordinal].getReturnType().isPrimitive() ? faceMethods[ordinal].getReturnType() : Object.class) : null;
+    }
+
+    /**
+     * Reads face method by method of the last target class, so list of objects of the same class is projected without
+     * table lookups.
+     */
+    @SuppressWarnings("unchecked")
+    private class TableAccessor implements Projection.Accessor {
+        private final int ordinal;
+        private final Class<?> type;
+        private Class<?> targetClass;
+        /**
+         * Getter of the last target class, see {@link TargetMethod#getter(Class, Class)}.
+         */
+        private Object getter;
+
+        private TableAccessor(int ordinal, Class<?> type) {
+            this.ordinal = ordinal;
+            this.type = type;
+        }
+
+        private Object getter(Object target) {
+            Class<?> c = target.getClass();
+            if (c != targetClass) {
+                TargetMethod m = table(c)[ordinal];
+                getter = m == null ? null : m.getter(type, faceMethods[ordinal].getReturnType());
+                targetClass = c;
+            }
+            return getter;
         }
 
         @Override
-        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-            Optional<Method> m = targetMethod(target.getClass(), method);
-            if (m.isPresent()) {
+        public int getInt(Object target) {
+            Object g = getter(target);
+            if (g != null) {
                 try {
-                    return invoke(m.get(), target, args);
-                } catch (ReflectiveOperationException e) {
-                    // does not matter whether exception was thrown during invocation or during the method lookup:
-                    // the decision whether throw exception of return default value is done in right after the if.
+                    return g instanceof ToIntFunction ? ((ToIntFunction<Object>)g).applyAsInt(target) : (int)((MethodHandle)g).invokeExact(target);
+                } catch (Throwable e) {
+                    // handled below exactly as by invoke()
                 }
-            } else {
-                for (Object obj : others) {
-                    m = targetMethod(obj.getClass(), method);
-                    if (m.isPresent()) {
-                        try {
-                            return invoke(m.get(), obj, args);
-                        } catch (ReflectiveOperationException e) {
-                            break;
-                        }
-                    }
+            }
+            return (Integer)fail(faceMethods[ordinal], target);
+        }
+
+        @Override
+        public long getLong(Object target) {
+            Object g = getter(target);
+            if (g != null) {
+                try {
+                    return g instanceof ToLongFunction ? ((ToLongFunction<Object>)g).applyAsLong(target) : (long)((MethodHandle)g).invokeExact(target);
+                } catch (Throwable e) {
+                    // handled below exactly as by invoke()
                 }
             }
-            runtimeFailure.ifPresent(methodThrowableFunction -> sneakyThrow(methodThrowableFunction.apply(method)));
-            return defaultValue.get(method.getReturnType());
+            return (Long)fail(faceMethods[ordinal], target);
         }
 
-        private Object invoke(Method m, Object obj, Object[] args) throws InvocationTargetException, IllegalAccessException {
-            m.setAccessible(true);
-            return m.invoke(obj, args);
+        @Override
+        public double getDouble(Object target) {
+            Object g = getter(target);
+            if (g != null) {
+                try {
+                    return g instanceof ToDoubleFunction ? ((ToDoubleFunction<Object>)g).applyAsDouble(target) : (double)((MethodHandle)g).invokeExact(target);
+                } catch (Throwable e) {
+                    // handled below exactly as by invoke()
+                }
+            }
+            return (Double)fail(faceMethods[ordinal], target);
         }
 
         @Override
-        public T get() {
-            return target;
+        public Object get(Object target) {
+            Object g = getter(target);
+            if (g != null) {
+                try {
+                    return g instanceof Function ? ((Function<Object, Object>)g).apply(target) : (Object)((MethodHandle)g).invokeExact(target);
+                } catch (Throwable e) {
+                    // handled below exactly as by invoke()
+                }
+            }
+            return fail(faceMethods[ordinal], target);
         }
     }
 
+    private class ReflectionalInvocationHandler extends BaseInvocationHandler {
+        private TargetMethod[] table;
+        private Route route;
 
-    static class MethodKey {
-        private final Class<?> clazz;
-        private final String methodName;
-        private final Class[] paramTypes;
+        private ReflectionalInvocationHandler(T target, Object[] others) {
+            super(target, others);
+        }
 
-        MethodKey(Class<?> clazz, String methodName, Class[] paramTypes) {
-            this.clazz = clazz;
-            this.methodName = methodName;
-            this.paramTypes = paramTypes;
+        private ReflectionalInvocationHandler(LazySources sources) {
+            super(sources);
         }
 
         @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            MethodKey methodKey = (MethodKey) o;
-            return Objects.equals(clazz, methodKey.clazz) && Objects.equals(methodName, methodKey.methodName) && Arrays.equals(paramTypes, methodKey.paramTypes);
+        protected void rebind(T target, Object[] others) {
+            if (table != null && this.target.getClass() != target.getClass()) {
+                table = null;
+            }
+            if (route != null && !route.routes(target, others)) {
+                route = null;
+            }
+            super.rebind(target, others);
         }
 
         @Override
-        public int hashCode() {
-            return 31 * Objects.hash(clazz, methodName) + Arrays.hashCode(paramTypes);
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            LazySources sources = lazy;
+            if (sources != null) {
+                return invokeLazy(sources, method, args);
+            }
+            if (method.getDeclaringClass() == Object.class) {
+                return objectMethod(method, target, args);
+            }
+            int ordinal = ordinal(method);
+            if (ordinal < 0) {
+                return fail(method, target);
+            }
+            if (others.length > 0) {
+                Route r = route;
+                if (r == null) {
+                    r = route(target, others);
+                    route = r;
+                }
+                if (deferred(r.method(ordinal), ordinal)) {
+                    // the handler may be rebound before the call is run
+                    Route bound = r;
+                    T boundTarget = target;
+                    Object[] boundOthers = others;
+                    return async(() -> ReflectionalWrapper.this.invoke(bound, boundTarget, boundOthers, ordinal, args));
+                }
+                return ReflectionalWrapper.this.invoke(r, target, others, ordinal, args);
+            }
+            TargetMethod[] t = table;
+            if (t == null) {
+                t = table(target.getClass());
+                table = t;
+            }
+            if (deferred(t[ordinal], ordinal)) {
+                TargetMethod[] bound = t;
+                T boundTarget = target;
+                return async(() -> ReflectionalWrapper.this.invoke(bound, boundTarget, ordinal, args));
+            }
+            return ReflectionalWrapper.this.invoke(t, target, ordinal, args);
+        }
+
+        /**
+         * Dispatches method of lazy view. The classes of the objects are not known before they are loaded, so the target
+         * is loaded first and the other objects are loaded in order only while none of the loaded objects implements the method.
+         * Asynchronous method loads the objects on the executor.
+         */
+        private Object invokeLazy(LazySources sources, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return objectMethod(method, sources.get(0), args);
+            }
+            int ordinal = ordinal(method);
+            if (ordinal < 0) {
+                return fail(method, sources.get(0));
+            }
+            // future returned by the target method completes the future of the call
+            return isAsync(ordinal) ? async(() -> invokeLoaded(sources, ordinal, args)) : invokeLoaded(sources, ordinal, args);
+        }
+
+        private Object invokeLoaded(LazySources sources, int ordinal, Object[] args) throws Throwable {
+            Object primary = sources.get(0);
+            for (int i = 0; i < sources.size(); i++) {
+                Object obj = i == 0 ? primary : sources.get(i);
+                TargetMethod[] t = table(obj.getClass());
+                if (t[ordinal] != null) {
+                    return ReflectionalWrapper.this.invoke(t, obj, ordinal, args);
+                }
+            }
+            return fail(faceMethods[ordinal], primary);
+        }
+    }
+
+
+    /**
+     * Entry of the inline cache of tables. Both the class and its table (whose methods refer the class) are referred weakly,
+     * so the wrapper does not keep the last classes it has seen reachable; the table is kept by the {@link ResolutionCache}.
+     */
+    private static final class InlineTable extends WeakReference<Class<?>> {
+        private final WeakReference<TargetMethod[]> methods;
+
+        private InlineTable(Class<?> targetClass, TargetMethod[] methods) {
+            super(targetClass);
+            this.methods = new WeakReference<>(methods);
+        }
+
+        /**
+         * @return table of given class or {@code null} if the entry belongs to other class or the table was evicted
+         */
+        private TargetMethod[] methods(Class<?> targetClass) {
+            return get() == targetClass ? methods.get() : null;
+        }
+    }
+
+    /**
+     * Precomputed routing of view over several objects: index of the object that implements each face method
+     * (0 is the primary target, -1 if no object implements the method) and the tables of the objects.
+     * The indices are computed once per combination of classes, so methods implemented by the last object do not scan
+     * the others on each call.
+     */
+    static class Route {
+        /**
+         * Classes of the objects, the primary target first.
+         */
+        private final Class<?>[] classes;
+        private final int[] sources;
+        /**
+         * Tables of the objects, the primary target first.
+         */
+        private final TargetMethod[][] tables;
+
+        private Route(Class<?>[] classes, int[] sources, TargetMethod[][] tables) {
+            this.classes = classes;
+            this.sources = sources;
+            this.tables = tables;
+        }
+
+        /**
+         * @return whether the route serves objects of the same classes as given objects
+         */
+        boolean routes(Object target, Object[] others) {
+            if (others.length + 1 != classes.length || target.getClass() != classes[0]) {
+                return false;
+            }
+            for (int i = 0; i < others.length; i++) {
+                if (others[i].getClass() != classes[i + 1]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return method that implements the face method or {@code null} if no object implements it
+         */
+        private TargetMethod method(int ordinal) {
+            int source = sources[ordinal];
+            return source < 0 ? null : tables[source][ordinal];
+        }
+
+        /**
+         * @return index of the first object that implements each face method; the indices do not refer the classes
+         */
+        private static int[] sources(TargetMethod[][] tables) {
+            int[] sources = new int[tables[0].length];
+            for (int k = 0; k < sources.length; k++) {
+                sources[k] = -1;
+                for (int i = 0; i < tables.length; i++) {
+                    if (tables[i][k] != null) {
+                        sources[k] = i;
+                        break;
+                    }
+                }
+            }
+            return sources;
+        }
+    }
+
+    /**
+     * Method of target class resolved once together with {@link MethodHandle} used to invoke it.
+     * The handle accepts the target and array of arguments, so all methods are invoked uniformly
+     * without access checks performed by {@link Method#invoke(Object, Object...)} on each call.
+     */
+    static class TargetMethod {
+        private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+        private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+        private final Method method;
+        /**
+         * Handle that accepts the target and arguments of the method or {@code null} if the method is not accessible.
+         */
+        private final MethodHandle direct;
+        private final MethodHandle handle;
+        /**
+         * Getters created by {@link #getter(Class, Class)} for {@code int}, {@code long}, {@code double} and objects.
+         * Racy initialization is safe: getters are immutable and equivalent.
+         */
+        private final Object[] getters = new Object[4];
+
+        TargetMethod(Method method) {
+            this.method = method;
+            this.direct = direct(method);
+            this.handle = direct == null ? null : direct.asSpreader(Object[].class, method.getParameterCount()).asType(INVOKER_TYPE);
+        }
+
+        Method method() {
+            return method;
+        }
+
+        Object invoke(Object target, Object[] args) throws Throwable {
+            if (handle == null) {
+                throw new IllegalAccessException(method.toString());
+            }
+            return (Object)handle.invokeExact(target, args);
+        }
+
+        /**
+         * Returns getter of method without parameters that accepts the target and returns value of given type
+         * without boxing of primitive value. The getter is {@link ToIntFunction}, {@link ToLongFunction}, {@link ToDoubleFunction}
+         * or {@link Function} created by {@link LambdaMetafactory} if the method is public and visible to this class,
+         * so it is called as fast as hand written lambda. Otherwise it is {@link MethodHandle}.
+         * @return the getter or {@code null} if the method has parameters, is not accessible or returns value
+         * that is neither the face type nor convertible to given type
+         */
+        Object getter(Class<?> type, Class<?> faceType) {
+            Class<?> returnType = method.getReturnType();
+            if (direct == null || method.getParameterCount() > 0 || (!returnType.isPrimitive() && !faceType.isAssignableFrom(returnType))) {
+                return null;
+            }
+            int index = type == int.class ? 0 : type == long.class ? 1 : type == double.class ? 2 : 3;
+            Object getter = getters[index];
+            if (getter == null) {
+                getter = function(type);
+                if (getter == null) {
+                    try {
+                        getter = direct.asType(MethodType.methodType(type, Object.class));
+                    } catch (WrongMethodTypeException e) {
+                        return null;
+                    }
+                }
+                getters[index] = getter;
+            }
+            return getter;
+        }
+
+        private Object function(Class<?> type) {
+            Class<?> returnType = method.getReturnType();
+            if (Modifier.isStatic(method.getModifiers()) || !accessible(method) || (type.isPrimitive() ? returnType != type : returnType.isPrimitive())) {
+                return null;
+            }
+            Class<?> functionType = type == int.class ? ToIntFunction.class : type == long.class ? ToLongFunction.class : type == double.class ? ToDoubleFunction.class : Function.class;
+            String name = type == int.class ? "applyAsInt" : type == long.class ? "applyAsLong" : type == double.class ? "applyAsDouble" : "apply";
+            try {
+                return LambdaMetafactory.metafactory(LOOKUP, name, MethodType.methodType(functionType),
+                        MethodType.methodType(type, Object.class), LOOKUP.unreflect(method), MethodType.methodType(returnType, method.getDeclaringClass()))
+                        .getTarget().invoke();
+            } catch (Throwable e) {
+                // the method handle is used instead
+                return null;
+            }
+        }
+
+        /**
+         * Whether generated function can call the method: the method and its classes are public and the class is the one
+         * visible to class loader of this library (e.g. not loaded by child class loader of application server).
+         */
+        private static boolean accessible(Method method) {
+            if (!Modifier.isPublic(method.getModifiers())) {
+                return false;
+            }
+            for (Class<?> c = method.getDeclaringClass(); c != null; c = c.getDeclaringClass()) {
+                if (!Modifier.isPublic(c.getModifiers())) {
+                    return false;
+                }
+            }
+            try {
+                return Class.forName(method.getDeclaringClass().getName(), false, TargetMethod.class.getClassLoader()) == method.getDeclaringClass();
+            } catch (ClassNotFoundException | LinkageError e) {
+                return false;
+            }
+        }
+
+        private static MethodHandle direct(Method method) {
+            try {
+                method.setAccessible(true);
+            } catch (RuntimeException e) {
+                // the method is not accessible on this platform; lookup below decides whether it can be called anyway
+            }
+            MethodHandle handle;
+            try {
+                handle = MethodHandles.lookup().unreflect(method);
+            } catch (IllegalAccessException e) {
+                return null;
+            }
+            if (Modifier.isStatic(method.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            return handle;
         }
     }
 }
@@ -0,0 +1,196 @@
+package org.duckwings;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Target methods resolved by reflection, shared by all wrappers. Bindings of each target class are attached to the class
+ * using {@link ClassValue}, so they are released together with the class when its class loader goes away.
+ * The bindings are keyed by names of the method and its parameter types, so they do not refer classes of other class loaders
+ * (e.g. parameter types of the face). Dispatch tables of the class are shared by all wrappers of the same face; they refer
+ * the face weakly, so the class does not keep the face reachable either. Number of classes that have bindings can be limited by system property
+ * {@code org.duckwings.resolutionCache.maxClasses} or by {@link DuckWings#limitResolutionCache(int)}; bindings of
+ * the oldest classes are evicted first.
+ */
+final class ResolutionCache {
+    private static final ClassValue<Bindings> bindings = new ClassValue<Bindings>() {
+        @Override
+        protected Bindings computeValue(Class<?> type) {
+            track(type);
+            return new Bindings();
+        }
+    };
+    private static final Queue<WeakReference<Class<?>>> classes = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger size = new AtomicInteger();
+    private static volatile int maxClasses = Integer.getInteger("org.duckwings.resolutionCache.maxClasses", 0);
+
+    private ResolutionCache() {
+    }
+
+    /**
+     * @return resolved method of given class that implements the face method or {@code null} if it was not resolved yet
+     */
+    static Optional<ReflectionalWrapper.TargetMethod> cached(Class<?> targetClass, Method faceMethod) {
+        Optional<ReflectionalWrapper.TargetMethod> method = bindings.get(targetClass).methods.get(key(faceMethod));
+        return method == null ? null : compatible(method, faceMethod);
+    }
+
+    /**
+     * Resolves method of given class (or its superclass) that implements the face method and caches it.
+     */
+    static Optional<ReflectionalWrapper.TargetMethod> resolve(Class<?> targetClass, Method faceMethod) {
+        Optional<ReflectionalWrapper.TargetMethod> method = bindings.get(targetClass).methods.computeIfAbsent(key(faceMethod), k -> lookup(targetClass, faceMethod));
+        return compatible(method, faceMethod);
+    }
+
+    /**
+     * @return methods of given class that implement methods of the face indexed by their ordinals or {@code null}
+     * if no wrapper of the face has shared the table yet
+     */
+    static ReflectionalWrapper.TargetMethod[] table(Class<?> targetClass, Class<?> face) {
+        for (FaceTable table : bindings.get(targetClass).tables) {
+            if (table.get() == face) {
+                return table.methods;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Shares table of given class built by wrapper of the face unless other wrapper did it already.
+     * The methods must not refer the face.
+     * @return the table that is shared
+     */
+    static ReflectionalWrapper.TargetMethod[] share(Class<?> targetClass, Class<?> face, ReflectionalWrapper.TargetMethod[] methods) {
+        Bindings b = bindings.get(targetClass);
+        synchronized (b) {
+            FaceTable[] tables = b.tables;
+            FaceTable[] copy = new FaceTable[tables.length + 1];
+            int size = 0;
+            for (FaceTable table : tables) {
+                Class<?> f = table.get();
+                if (f == face) {
+                    return table.methods;
+                }
+                // tables of collected faces are dropped
+                if (f != null) {
+                    copy[size++] = table;
+                }
+            }
+            copy[size++] = new FaceTable(face, methods);
+            b.tables = Arrays.copyOf(copy, size);
+        }
+        return methods;
+    }
+
+    /**
+     * Limits number of classes that have cached bindings; 0 means no limit. Classes are counted only while the cache is limited,
+     * so the limit should be set before wrappers are used.
+     */
+    static void limit(int max) {
+        if (max < 0) {
+            throw new IllegalArgumentException("Limit must not be negative: " + max);
+        }
+        maxClasses = max;
+        evict();
+    }
+
+    /**
+     * @return number of classes counted by the limit including classes that were unloaded but not evicted yet
+     */
+    static int size() {
+        return size.get();
+    }
+
+    private static Optional<ReflectionalWrapper.TargetMethod> lookup(Class<?> targetClass, Method faceMethod) {
+        String[] parameterNames = names(faceMethod.getParameterTypes());
+        for (Class<?> c = targetClass; c != null; c = c.getSuperclass()) {
+            for (Method m : c.getDeclaredMethods()) {
+                if (m.getName().equals(faceMethod.getName()) && Arrays.equals(names(m.getParameterTypes()), parameterNames)) {
+                    try {
+                        // lets JDK choose between the method and its bridges exactly as direct lookup does
+                        return Optional.of(new ReflectionalWrapper.TargetMethod(c.getDeclaredMethod(m.getName(), m.getParameterTypes())));
+                    } catch (NoSuchMethodException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Method resolved by names of parameter types implements the face method only if parameter types are the same classes.
+     */
+    private static Optional<ReflectionalWrapper.TargetMethod> compatible(Optional<ReflectionalWrapper.TargetMethod> method, Method faceMethod) {
+        if (method.isPresent() && !Arrays.equals(method.get().method().getParameterTypes(), faceMethod.getParameterTypes())) {
+            return Optional.empty();
+        }
+        return method;
+    }
+
+    private static String key(Method method) {
+        StringBuilder key = new StringBuilder(method.getName());
+        for (Class<?> type : method.getParameterTypes()) {
+            key.append(',').append(type.getName());
+        }
+        return key.toString();
+    }
+
+    private static String[] names(Class<?>[] types) {
+        String[] names = new String[types.length];
+        for (int i = 0; i < types.length; i++) {
+            names[i] = types[i].getName();
+        }
+        return names;
+    }
+
+    private static void track(Class<?> type) {
+        if (maxClasses == 0) {
+            return;
+        }
+        classes.add(new WeakReference<>(type));
+        size.incrementAndGet();
+        evict();
+    }
+
+    private static void evict() {
+        int max = maxClasses;
+        while (max > 0 && size.get() > max) {
+            WeakReference<Class<?>> oldest = classes.poll();
+            if (oldest == null) {
+                break;
+            }
+            size.decrementAndGet();
+            Class<?> type = oldest.get();
+            if (type != null) {
+                bindings.remove(type);
+            }
+        }
+    }
+
+    private static class Bindings {
+        private final Map<String, Optional<ReflectionalWrapper.TargetMethod>> methods = new ConcurrentHashMap<>();
+        /**
+         * Tables by face, replaced as a whole under lock of the bindings. There are usually few faces per class,
+         * so lookup by linear scan is cheaper than a map.
+         */
+        private volatile FaceTable[] tables = new FaceTable[0];
+    }
+
+    private static class FaceTable extends WeakReference<Class<?>> {
+        private final ReflectionalWrapper.TargetMethod[] methods;
+
+        private FaceTable(Class<?> face, ReflectionalWrapper.TargetMethod[] methods) {
+            super(face);
+            this.methods = methods;
+        }
+    }
+}
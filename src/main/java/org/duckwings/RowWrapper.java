@@ -0,0 +1,124 @@
+package org.duckwings;
+
+import javax.management.MBeanServer;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Wrapper of rows stored as arrays of values of fixed list of keys, created by {@link MapWrapper#rows(String...)}:
+ * <pre>
+ * RowWrapper&lt;Person&gt; rows = DuckWings.builder().map(Person.class).rows("id", "name");
+ * Person person = rows.wrap(new Object[] {1, "John"});
+ * </pre>
+ * Slot of each face method is resolved once, so reading property is indexing the array. Rows read as maps can be converted
+ * by {@link #row(Map)}. Equality of rows is defined by {@link Equality} as usual: {@link Equality#VALUE} compares their elements.
+ */
+public final class RowWrapper<I> extends PropertyWrapper<Object[], I> {
+    private final List<String> keys;
+    private final Map<String, Integer> slotsByKey = new HashMap<>();
+    /**
+     * Slot of the value read by face method by its ordinal or -1 if the method is not mapped to any key.
+     */
+    private final int[] slots;
+    private final Collection<Method> definedMethods = new ArrayList<>();
+
+    RowWrapper(
+            Class<I> face,
+            List<String> keys,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<Function<Method, Throwable>> constructionFailure,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<Function<Method, Throwable>> runtimeFailure,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<MBeanServer> metricsServer,
+            Equality equality,
+            boolean canonical,
+            Executor executor) {
+        super(face, constructionFailure, runtimeFailure, metricsServer, equality, canonical, executor);
+        this.keys = Collections.unmodifiableList(new ArrayList<>(keys));
+        for (int i = 0; i < this.keys.size(); i++) {
+            if (slotsByKey.putIfAbsent(this.keys.get(i), i) != null) {
+                throw new IllegalArgumentException("Duplicate key " + this.keys.get(i));
+            }
+        }
+        slots = new int[faceMethods.length];
+        for (int i = 0; i < faceMethods.length; i++) {
+            slots[i] = properties[i] == null ? -1 : slotsByKey.getOrDefault(properties[i], -1);
+            if (slots[i] >= 0) {
+                definedMethods.add(faceMethods[i]);
+            }
+        }
+    }
+
+    /**
+     * @return keys of the values of rows in order of their slots
+     */
+    public List<String> keys() {
+        return keys;
+    }
+
+    /**
+     * @return slot of the value of given key or -1 if rows do not contain such key
+     */
+    public int slot(String key) {
+        return slotsByKey.getOrDefault(key, -1);
+    }
+
+    /**
+     * Copies values of the keys of this wrapper from the map into new row; absent keys are {@code null}.
+     */
+    public Object[] row(Map<String, ?> map) {
+        Object[] row = new Object[keys.size()];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = map.get(keys.get(i));
+        }
+        return row;
+    }
+
+    @Override
+    Object get(Object[] target, int ordinal) {
+        int slot = slots[ordinal];
+        return slot >= 0 && slot < target.length ? target[slot] : ABSENT;
+    }
+
+    @Override
+    boolean targetEquals(Object[] target, Object other) {
+        Object otherTarget = target(other);
+        if (equality() == Equality.IDENTITY) {
+            return target == otherTarget;
+        }
+        return otherTarget instanceof Object[] && Arrays.equals(target, (Object[])otherTarget);
+    }
+
+    @Override
+    int targetHashCode(Object[] target) {
+        return equality() == Equality.IDENTITY ? System.identityHashCode(target) : Arrays.hashCode(target);
+    }
+
+    /**
+     * @return values with their keys, e.g. {@code {id=1, name=John}}
+     */
+    @Override
+    String targetToString(Object[] target) {
+        if (target == null) {
+            return "null";
+        }
+        StringJoiner values = new StringJoiner(", ", "{", "}");
+        for (int i = 0; i < target.length; i++) {
+            values.add((i < keys.size() ? keys.get(i) : String.valueOf(i)) + "=" + target[i]);
+        }
+        return values.toString();
+    }
+
+    @Override
+    protected Collection<Method> definedMethods(Object target) {
+        return definedMethods;
+    }
+}
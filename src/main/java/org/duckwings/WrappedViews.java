@@ -0,0 +1,323 @@
+package org.duckwings;
+
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Lazy views created by {@code Wrapper.wrapAll()} and spliterators of {@code Wrapper.stream()}. Views do not copy
+ * the source and wrap elements on access. {@code null} elements are exposed as {@code null}.
+ */
+final class WrappedViews {
+    private WrappedViews() {
+    }
+
+    static <T, I> List<I> list(Wrapper<T, I> wrapper, List<? extends T> list) {
+        return list instanceof RandomAccess ? new WrappedRandomAccessList<>(wrapper, list) : new WrappedList<>(wrapper, list);
+    }
+
+    private static <T, I> I wrap(Wrapper<T, I> wrapper, T element) {
+        return element == null ? null : wrapper.wrap(element);
+    }
+
+    /**
+     * Creates function that rebinds flyweight of the wrapper to given object or wraps the object if flyweight is not
+     * supported or does not behave exactly as wrapped object. The function is used by one thread only.
+     */
+    static <T, I> Function<T, I> viewer(Wrapper<T, I> wrapper) {
+        if (!(wrapper instanceof BaseWrapper) || ((BaseWrapper<?, ?>)wrapper).viewsByFlyweight()) {
+            try {
+                I flyweight = wrapper.flyweight();
+                return target -> wrapper.rebind(flyweight, target);
+            } catch (UnsupportedOperationException e) {
+                // custom wrapper without flyweights
+            }
+        }
+        return wrapper::wrap;
+    }
+
+    static class WrappedList<T, I> extends AbstractList<I> {
+        private final Wrapper<T, I> wrapper;
+        private final List<? extends T> list;
+
+        WrappedList(Wrapper<T, I> wrapper, List<? extends T> list) {
+            this.wrapper = wrapper;
+            this.list = list;
+        }
+
+        @Override
+        public I get(int index) {
+            return wrap(wrapper, list.get(index));
+        }
+
+        @Override
+        public int size() {
+            return list.size();
+        }
+
+        @Override
+        public Iterator<I> iterator() {
+            return new WrappedIterator<>(wrapper, list.iterator());
+        }
+
+        @Override
+        public Spliterator<I> spliterator() {
+            return new WrappedSpliterator<>(wrapper, list.spliterator(), false);
+        }
+    }
+
+    static class WrappedRandomAccessList<T, I> extends WrappedList<T, I> implements RandomAccess {
+        WrappedRandomAccessList(Wrapper<T, I> wrapper, List<? extends T> list) {
+            super(wrapper, list);
+        }
+
+        @Override
+        public Iterator<I> iterator() {
+            // index based iteration of AbstractList is the fastest way to iterate over random access list
+            return listIterator();
+        }
+    }
+
+    static class WrappedArray<T, I> extends AbstractList<I> implements RandomAccess {
+        private final Wrapper<T, I> wrapper;
+        private final T[] array;
+
+        WrappedArray(Wrapper<T, I> wrapper, T[] array) {
+            this.wrapper = wrapper;
+            this.array = array;
+        }
+
+        @Override
+        public I get(int index) {
+            return wrap(wrapper, array[index]);
+        }
+
+        @Override
+        public int size() {
+            return array.length;
+        }
+
+        @Override
+        public Spliterator<I> spliterator() {
+            return new WrappedSpliterator<>(wrapper, Arrays.spliterator(array), false);
+        }
+    }
+
+    static class WrappedIterable<T, I> implements Iterable<I> {
+        private final Wrapper<T, I> wrapper;
+        private final Iterable<? extends T> iterable;
+
+        WrappedIterable(Wrapper<T, I> wrapper, Iterable<? extends T> iterable) {
+            this.wrapper = wrapper;
+            this.iterable = iterable;
+        }
+
+        @Override
+        public Iterator<I> iterator() {
+            return new WrappedIterator<>(wrapper, iterable.iterator());
+        }
+
+        @Override
+        public Spliterator<I> spliterator() {
+            return new WrappedSpliterator<>(wrapper, iterable.spliterator(), false);
+        }
+    }
+
+    static class WrappedIterator<T, I> implements Iterator<I> {
+        private final Wrapper<T, I> wrapper;
+        private final Iterator<? extends T> iterator;
+
+        WrappedIterator(Wrapper<T, I> wrapper, Iterator<? extends T> iterator) {
+            this.wrapper = wrapper;
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public I next() {
+            return wrap(wrapper, iterator.next());
+        }
+    }
+
+    /**
+     * Spliterator that wraps elements of the source spliterator. It splits exactly as the source, so parallel stream
+     * of large array list is split into chunks processed by fork join workers without coordination.
+     * In flyweight mode each split has its own flyweight rebound to each element, so the chunk is processed without
+     * allocation; the element is valid only until the next element is passed to the action.
+     */
+    static class WrappedSpliterator<T, I> implements Spliterator<I> {
+        private final Wrapper<T, I> wrapper;
+        private final Spliterator<? extends T> source;
+        private final boolean flyweights;
+        private Function<T, I> viewer;
+
+        WrappedSpliterator(Wrapper<T, I> wrapper, Spliterator<? extends T> source, boolean flyweights) {
+            this.wrapper = wrapper;
+            this.source = source;
+            this.flyweights = flyweights;
+        }
+
+        private I view(T element) {
+            if (element == null) {
+                return null;
+            }
+            if (!flyweights) {
+                return wrapper.wrap(element);
+            }
+            Function<T, I> v = viewer;
+            if (v == null) {
+                // created by the thread that traverses this split
+                v = viewer(wrapper);
+                viewer = v;
+            }
+            return v.apply(element);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super I> action) {
+            return source.tryAdvance(element -> action.accept(view(element)));
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super I> action) {
+            source.forEachRemaining(element -> action.accept(view(element)));
+        }
+
+        @Override
+        public Spliterator<I> trySplit() {
+            Spliterator<? extends T> split = source.trySplit();
+            return split == null ? null : new WrappedSpliterator<>(wrapper, split, flyweights);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public long getExactSizeIfKnown() {
+            return source.getExactSizeIfKnown();
+        }
+
+        /**
+         * Wrappers are not ordered by comparator of the source; flyweight is the same object for all elements.
+         */
+        @Override
+        public int characteristics() {
+            return source.characteristics() & ~(SORTED | (flyweights ? DISTINCT : 0));
+        }
+    }
+
+    static class WrappedMap<K, T, I> extends AbstractMap<K, I> {
+        private final Wrapper<T, I> wrapper;
+        private final Map<K, ? extends T> map;
+
+        WrappedMap(Wrapper<T, I> wrapper, Map<K, ? extends T> map) {
+            this.wrapper = wrapper;
+            this.map = map;
+        }
+
+        @Override
+        public I get(Object key) {
+            return wrap(wrapper, map.get(key));
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return map.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        public Set<K> keySet() {
+            return new AbstractSet<K>() {
+                @Override
+                public Iterator<K> iterator() {
+                    Iterator<K> it = map.keySet().iterator();
+                    return new Iterator<K>() {
+                        @Override
+                        public boolean hasNext() {
+                            return it.hasNext();
+                        }
+
+                        @Override
+                        public K next() {
+                            return it.next();
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return map.size();
+                }
+
+                @Override
+                public boolean contains(Object key) {
+                    return map.containsKey(key);
+                }
+            };
+        }
+
+        @Override
+        public Collection<I> values() {
+            return new AbstractCollection<I>() {
+                @Override
+                public Iterator<I> iterator() {
+                    return new WrappedIterator<>(wrapper, map.values().iterator());
+                }
+
+                @Override
+                public int size() {
+                    return map.size();
+                }
+            };
+        }
+
+        @Override
+        public Set<Entry<K, I>> entrySet() {
+            return new AbstractSet<Entry<K, I>>() {
+                @Override
+                public Iterator<Entry<K, I>> iterator() {
+                    Iterator<? extends Entry<K, ? extends T>> it = map.entrySet().iterator();
+                    return new Iterator<Entry<K, I>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return it.hasNext();
+                        }
+
+                        @Override
+                        public Entry<K, I> next() {
+                            Entry<K, ? extends T> e = it.next();
+                            return new SimpleImmutableEntry<>(e.getKey(), wrap(wrapper, e.getValue()));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return map.size();
+                }
+            };
+        }
+    }
+}
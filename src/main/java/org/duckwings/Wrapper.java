@@ -1,6 +1,178 @@
 package org.duckwings;
 
+import org.duckwings.internal.SerializableFunction;
+import org.duckwings.internal.SerializableToDoubleFunction;
+import org.duckwings.internal.SerializableToIntFunction;
+import org.duckwings.internal.SerializableToLongFunction;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 public interface Wrapper<T, I> {
     I wrap(T obj, Object ... others);
+
+    /**
+     * Wraps single object. Equivalent to {@link #wrap(Object, Object...)} without other objects,
+     * but does not create empty array of other objects on each call.
+     */
+    default I wrap(T obj) {
+        return wrap(obj, new Object[0]);
+    }
     I unwrap(Object obj);
+
+    /**
+     * Creates proxy that is not bound to any object yet. The proxy must be bound using {@link #rebind(Object, Object)} before it is used
+     * and can be rebound to other objects any time. This allows iterating over large number of objects through the face without
+     * creating proxy for each object. The flyweight is not thread safe: each thread should use its own instance.
+     * @throws UnsupportedOperationException if this wrapper does not support flyweights
+     */
+    default I flyweight() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Binds flyweight created by {@link #flyweight()} to given object.
+     * @return the flyweight
+     */
+    default I rebind(I flyweight, T obj) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Binds flyweight created by {@link #flyweight()} to given objects.
+     * @return the flyweight
+     */
+    default I rebind(I flyweight, T obj, Object ... others) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Creates view of objects that are loaded by given suppliers when they are needed for the first time,
+     * e.g. {@code wrapper.wrapLazy(() -> people.load(id), () -> accounts.findByOwner(id))}. Each supplier is called
+     * at most once (unless it fails) even if the view is used by several threads. Wrappers that route each method
+     * to one object load only that object, so reading the person's name does not load the account.
+     * {@link DuckWings#unwrap(Object)} loads the target. The objects are not validated by
+     * {@link DuckWings.WrapperBuilder#throwIfAbsentDuringBuilding(Function)}: methods they do not implement fail at runtime.
+     * @throws UnsupportedOperationException if this wrapper does not support lazy views
+     */
+    default I wrapLazy(Supplier<? extends T> target, Supplier<?>... others) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Creates unmodifiable view of given list. Elements are wrapped when they are accessed, so the cost of wrapping
+     * is paid only for elements that are really used. Changes of the source list are visible through the view.
+     */
+    default List<I> wrapAll(List<? extends T> list) {
+        return WrappedViews.list(this, list);
+    }
+
+    /**
+     * Creates view of given iterable that wraps elements on iteration.
+     */
+    default Iterable<I> wrapAll(Iterable<? extends T> iterable) {
+        return new WrappedViews.WrappedIterable<>(this, iterable);
+    }
+
+    /**
+     * Creates unmodifiable view of given map that wraps values when they are accessed.
+     */
+    default <K> Map<K, I> wrapAll(Map<K, ? extends T> map) {
+        return new WrappedViews.WrappedMap<>(this, map);
+    }
+
+    /**
+     * Creates random access view of given array that wraps elements when they are accessed.
+     */
+    default List<I> wrapAll(T[] array) {
+        return new WrappedViews.WrappedArray<>(this, array);
+    }
+
+    /**
+     * Creates stream of wrapped objects. The stream splits exactly as the source collection, so it can be processed in parallel.
+     */
+    default Stream<I> stream(Collection<? extends T> objects) {
+        return StreamSupport.stream(wrapping(objects.spliterator()), false);
+    }
+
+    /**
+     * Creates stream of flyweights rebound to the objects: each split of the stream (i.e. each thread of parallel stream)
+     * uses one flyweight, so no wrapper is created per object. The element is valid only until the next element
+     * is passed to the stream, so it must not be retained, e.g. by {@code collect()}, {@code sorted()} or {@code distinct()};
+     * it is intended for pipelines that map the element to its properties immediately.
+     */
+    default Stream<I> flyweightStream(Collection<? extends T> objects) {
+        return StreamSupport.stream(flyweights(objects.spliterator()), false);
+    }
+
+    /**
+     * Creates spliterator that wraps elements of given spliterator and splits as it does.
+     */
+    default Spliterator<I> wrapping(Spliterator<? extends T> spliterator) {
+        return new WrappedViews.WrappedSpliterator<>(this, spliterator, false);
+    }
+
+    /**
+     * Creates spliterator that rebinds flyweight to elements of given spliterator, see {@link #flyweightStream(Collection)}.
+     */
+    default Spliterator<I> flyweights(Spliterator<? extends T> spliterator) {
+        return new WrappedViews.WrappedSpliterator<>(this, spliterator, true);
+    }
+
+    /**
+     * Collects elements of stream into list that wraps them on access, e.g. {@code books.stream().filter(...).collect(wrapper.collector())}.
+     * The elements are not wrapped while they are collected, so parallel stream does not create wrappers at all.
+     */
+    default Collector<T, ?, List<I>> collector() {
+        return Collector.of(ArrayList<T>::new, List::add, (left, right) -> {
+            left.addAll(right);
+            return left;
+        }, this::wrapAll);
+    }
+
+    /**
+     * Creates projection that reads properties of many objects into arrays, see {@link Projection}.
+     */
+    default Projection<T, I> projection() {
+        return new Projection<>(this);
+    }
+
+    /**
+     * Reads {@code int} property of each object, e.g. {@code wrapper.projectInt(books, IdHolder::getId)}.
+     * Method reference of the face is read directly from the objects without wrapping them.
+     */
+    default int[] projectInt(List<? extends T> objects, SerializableToIntFunction<I> property) {
+        return projection().ints(property).project(objects).ints(0);
+    }
+
+    default long[] projectLong(List<? extends T> objects, SerializableToLongFunction<I> property) {
+        return projection().longs(property).project(objects).longs(0);
+    }
+
+    default double[] projectDouble(List<? extends T> objects, SerializableToDoubleFunction<I> property) {
+        return projection().doubles(property).project(objects).doubles(0);
+    }
+
+    default Object[] project(List<? extends T> objects, SerializableFunction<I, ?> property) {
+        return projection().objects(property).project(objects).objects(0);
+    }
+
+    /**
+     * Wraps each object and calls asynchronous method of the face on it, e.g. {@code wrapper.callAll(entities, Owned::owner)}.
+     * All calls are started before any of them is awaited, so they run concurrently on the executor of the wrapper.
+     * @return future completed by results in the same order as the objects or exceptionally if any of the calls fails
+     */
+    default <R> CompletableFuture<List<R>> callAll(Collection<? extends T> objects, Function<? super I, ? extends CompletionStage<? extends R>> call) {
+        return AsyncDispatch.callAll(this, objects, call);
+    }
 }
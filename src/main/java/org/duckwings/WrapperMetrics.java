@@ -0,0 +1,214 @@
+package org.duckwings;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Dispatch metrics of single wrapper. Counters are indexed by ordinal of the face method and are striped
+ * ({@link LongAdder}), so concurrent calls do not contend. Latency of one of {@link #SAMPLING} calls is measured.
+ * Wrapper without metrics does not have instance of this class at all, so its hot path only checks for {@code null}.
+ */
+class WrapperMetrics implements WrapperMetricsMXBean {
+    static final int SAMPLING = 64;
+    private static final int BUCKETS = 40;
+    private static final AtomicInteger sequence = new AtomicInteger();
+
+    private final String face;
+    private final String wrapperType;
+    private final Method[] methods;
+    private final Counters[] counters;
+    private MBeanServer server;
+    private ObjectName name;
+
+    WrapperMetrics(Class<?> face, Class<?> wrapperType, Method[] methods) {
+        this.face = face.getName();
+        this.wrapperType = wrapperType.getSimpleName();
+        this.methods = methods;
+        counters = new Counters[methods.length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new Counters();
+        }
+    }
+
+    /**
+     * Registers this bean in given server.
+     * @return the metrics
+     */
+    WrapperMetrics register(MBeanServer server) {
+        Hashtable<String, String> properties = new Hashtable<>();
+        properties.put("type", "Wrapper");
+        properties.put("face", face);
+        properties.put("id", Integer.toString(sequence.incrementAndGet()));
+        try {
+            name = new ObjectName("org.duckwings", properties);
+            server.registerMBean(this, name);
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        }
+        this.server = server;
+        return this;
+    }
+
+    /**
+     * Removes this bean from the server it was registered in, so the server does not keep it (and the face) reachable.
+     * Does nothing if the bean was removed already.
+     */
+    synchronized void unregister() {
+        if (server == null) {
+            return;
+        }
+        try {
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        }
+        server = null;
+    }
+
+    ObjectName name() {
+        return name;
+    }
+
+    /**
+     * Counts the call of the method.
+     * @return {@code true} if latency of this call should be measured
+     */
+    boolean invoked(int ordinal) {
+        if (ordinal < 0) {
+            return false;
+        }
+        counters[ordinal].invocations.increment();
+        return ThreadLocalRandom.current().nextInt(SAMPLING) == 0;
+    }
+
+    void sampled(int ordinal, long nanos) {
+        Counters c = counters[ordinal];
+        c.sampledInvocations.increment();
+        c.sampledNanos.add(nanos);
+        c.histogram[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(Math.max(nanos, 0)))].increment();
+    }
+
+    void fallbackHit(int ordinal) {
+        if (ordinal >= 0) {
+            counters[ordinal].fallbackHits.increment();
+        }
+    }
+
+    void defaultValueReturned(int ordinal) {
+        if (ordinal >= 0) {
+            counters[ordinal].defaultValueReturns.increment();
+        }
+    }
+
+    void runtimeFailure(int ordinal) {
+        if (ordinal >= 0) {
+            counters[ordinal].runtimeFailures.increment();
+        }
+    }
+
+    /**
+     * Records resolution of the target method while dispatch table of a target class is built.
+     * @param cached whether the method was already resolved by other wrapper
+     */
+    void resolution(int ordinal, boolean cached) {
+        if (ordinal >= 0) {
+            (cached ? counters[ordinal].cachedResolutions : counters[ordinal].reflectiveResolutions).increment();
+        }
+    }
+
+    @Override
+    public String getFace() {
+        return face;
+    }
+
+    @Override
+    public String getWrapperType() {
+        return wrapperType;
+    }
+
+    @Override
+    public List<MethodMetrics> getMethods() {
+        List<MethodMetrics> result = new ArrayList<>(methods.length);
+        for (int i = 0; i < methods.length; i++) {
+            Counters c = counters[i];
+            long[] histogram = new long[BUCKETS];
+            for (int b = 0; b < BUCKETS; b++) {
+                histogram[b] = c.histogram[b].sum();
+            }
+            result.add(new MethodMetrics(
+                    name(methods[i]), c.invocations.sum(), c.fallbackHits.sum(), c.defaultValueReturns.sum(), c.runtimeFailures.sum(),
+                    c.cachedResolutions.sum(), c.reflectiveResolutions.sum(), c.sampledInvocations.sum(), c.sampledNanos.sum(), histogram));
+        }
+        return result;
+    }
+
+    @Override
+    public long getInvocations() {
+        return Arrays.stream(counters).mapToLong(c -> c.invocations.sum()).sum();
+    }
+
+    @Override
+    public long getFallbackHits() {
+        return Arrays.stream(counters).mapToLong(c -> c.fallbackHits.sum()).sum();
+    }
+
+    @Override
+    public long getDefaultValueReturns() {
+        return Arrays.stream(counters).mapToLong(c -> c.defaultValueReturns.sum()).sum();
+    }
+
+    @Override
+    public long getRuntimeFailures() {
+        return Arrays.stream(counters).mapToLong(c -> c.runtimeFailures.sum()).sum();
+    }
+
+    @Override
+    public void reset() {
+        for (Counters c : counters) {
+            c.reset();
+        }
+    }
+
+    private static String name(Method method) {
+        return method.getName() + Arrays.stream(method.getParameterTypes()).map(Class::getSimpleName).collect(Collectors.joining(", ", "(", ")"));
+    }
+
+    private static class Counters {
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder fallbackHits = new LongAdder();
+        private final LongAdder defaultValueReturns = new LongAdder();
+        private final LongAdder runtimeFailures = new LongAdder();
+        private final LongAdder cachedResolutions = new LongAdder();
+        private final LongAdder reflectiveResolutions = new LongAdder();
+        private final LongAdder sampledInvocations = new LongAdder();
+        private final LongAdder sampledNanos = new LongAdder();
+        private final LongAdder[] histogram = new LongAdder[BUCKETS];
+
+        private Counters() {
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] = new LongAdder();
+            }
+        }
+
+        private void reset() {
+            for (LongAdder adder : new LongAdder[] {invocations, fallbackHits, defaultValueReturns, runtimeFailures, cachedResolutions, reflectiveResolutions, sampledInvocations, sampledNanos}) {
+                adder.reset();
+            }
+            for (LongAdder adder : histogram) {
+                adder.reset();
+            }
+        }
+    }
+}
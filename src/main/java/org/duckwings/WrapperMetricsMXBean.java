@@ -0,0 +1,44 @@
+package org.duckwings;
+
+import java.util.List;
+
+/**
+ * Management interface of wrapper created with metrics enabled by {@link DuckWings.WrapperBuilder#metrics()}.
+ * Each such wrapper is registered as {@code org.duckwings:type=Wrapper,face=<face class>,id=<sequence number>}.
+ */
+public interface WrapperMetricsMXBean {
+    /**
+     * @return fully qualified name of the face
+     */
+    String getFace();
+
+    /**
+     * @return simple name of the wrapper class, e.g. {@code FunctionalWrapper}
+     */
+    String getWrapperType();
+
+    /**
+     * @return metrics of each face method including {@code equals()}, {@code hashCode()} and {@code toString()}
+     */
+    List<MethodMetrics> getMethods();
+
+    long getInvocations();
+
+    long getFallbackHits();
+
+    /**
+     * @return number of calls that silently returned default value because the method is not implemented or failed
+     */
+    long getDefaultValueReturns();
+
+    /**
+     * @return number of exceptions thrown because the method is not implemented or failed, see
+     * {@link DuckWings.WrapperBuilder#throwIfAbsentAtRuntime(java.util.function.Function)}
+     */
+    long getRuntimeFailures();
+
+    /**
+     * Resets all counters.
+     */
+    void reset();
+}
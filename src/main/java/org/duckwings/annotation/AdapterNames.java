@@ -0,0 +1,23 @@
+package org.duckwings.annotation;
+
+/**
+ * Naming convention of adapters generated for {@link DuckFace}. Shared by the annotation processor that generates
+ * the adapters and by the wrappers that look them up.
+ */
+public final class AdapterNames {
+    private AdapterNames() {
+    }
+
+    /**
+     * Adapter lives in the package of the face: {@code org.shop.Catalog$IdHolder} wrapping {@code org.books.Book} is
+     * adapted by {@code org.shop.Catalog_IdHolder$$DuckAdapter$$org_books_Book}.
+     * @param face binary name of the face
+     * @param target binary name of the target class
+     * @return binary name of the adapter
+     */
+    public static String adapterName(String face, String target) {
+        int dot = face.lastIndexOf('.');
+        return face.substring(0, dot + 1) + face.substring(dot + 1).replace('$', '_') +
+                "$$DuckAdapter$$" + target.replace('.', '_').replace('$', '_');
+    }
+}
@@ -0,0 +1,26 @@
+package org.duckwings.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks interface for which the annotation processor ({@code duckwings-processor}) generates adapters at compile time.
+ * Adapter is generated for each target class. Methods of the face are mapped to methods of the target class with the same
+ * name and parameter types exactly as {@code DuckWings.builder().reflect()} does; {@link DuckMapping} overrides the mapping.
+ * Face method that cannot be mapped is reported as compilation error.
+ *
+ * Wrappers created by {@code DuckWings.builder().reflect()} and {@code generated()} use the generated adapter
+ * when object of the target class is wrapped.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface DuckFace {
+    /**
+     * Classes for which adapters are generated.
+     */
+    Class<?>[] target();
+}
@@ -0,0 +1,32 @@
+package org.duckwings.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maps method of interface annotated by {@link DuckFace} to method with other name or to static function
+ * similarly to {@code FunctionalWrapper.using()}:
+ * <pre>
+ * &#64;DuckMapping("getIsbn") String getId();
+ * &#64;DuckMapping(value = "fullName", using = Names.class) String getFullName(); // calls Names.fullName(person)
+ * </pre>
+ * The mapping is used by the annotation processor only and ignored by wrappers created at runtime.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.METHOD)
+public @interface DuckMapping {
+    /**
+     * Name of the target method or of the static method of {@link #using()} class. The name of the face method by default.
+     */
+    String value() default "";
+
+    /**
+     * Class that declares static method that accepts the target followed by arguments of the face method.
+     * {@code void} means that the method of the target class itself is called.
+     */
+    Class<?> using() default void.class;
+}
@@ -1,17 +1,30 @@
 package org.duckwings.internal;
 
 import java.lang.reflect.Method;
-import java.util.Arrays;
 import java.util.Comparator;
-import java.util.Objects;
 
+/**
+ * Compares methods by signature (name, return type and parameter types) ignoring the declaring class.
+ */
 public class MethodComparator implements Comparator<Method> {
     @Override
     public int compare(Method m1, Method m2) {
-        return hash(m1) - hash(m2);
+        int result = m1.getName().compareTo(m2.getName());
+        if (result == 0) {
+            result = compare(m1.getReturnType(), m2.getReturnType());
+        }
+        if (result == 0) {
+            Class<?>[] params1 = m1.getParameterTypes();
+            Class<?>[] params2 = m2.getParameterTypes();
+            result = Integer.compare(params1.length, params2.length);
+            for (int i = 0; result == 0 && i < params1.length; i++) {
+                result = compare(params1[i], params2[i]);
+            }
+        }
+        return result;
     }
 
-    private int hash(Method method) {
-        return Objects.hash(method.getReturnType(), method.getName(), Arrays.asList(method.getParameterTypes()));
+    private int compare(Class<?> c1, Class<?> c2) {
+        return c1 == c2 ? 0 : c1.getName().compareTo(c2.getName());
     }
 }
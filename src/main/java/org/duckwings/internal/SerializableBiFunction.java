@@ -0,0 +1,12 @@
+package org.duckwings.internal;
+
+import java.io.Serializable;
+import java.util.function.BiFunction;
+
+/**
+ * Serializable {@link BiFunction}. Method reference passed as this type exposes the referenced method
+ * through {@link java.lang.invoke.SerializedLambda}.
+ */
+@FunctionalInterface
+public interface SerializableBiFunction<A, B, R> extends BiFunction<A, B, R>, Serializable {
+}
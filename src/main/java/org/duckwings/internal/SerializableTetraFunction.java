@@ -0,0 +1,11 @@
+package org.duckwings.internal;
+
+import java.io.Serializable;
+
+/**
+ * Serializable {@link TetraFunction}. Method reference passed as this type exposes the referenced method
+ * through {@link java.lang.invoke.SerializedLambda}.
+ */
+@FunctionalInterface
+public interface SerializableTetraFunction<A, B, C, D, R> extends TetraFunction<A, B, C, D, R>, Serializable {
+}
@@ -0,0 +1,12 @@
+package org.duckwings.internal;
+
+import java.io.Serializable;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Serializable {@link ToDoubleFunction}. Method reference passed as this type exposes the referenced method
+ * through {@link java.lang.invoke.SerializedLambda}.
+ */
+@FunctionalInterface
+public interface SerializableToDoubleFunction<T> extends ToDoubleFunction<T>, Serializable {
+}
@@ -0,0 +1,12 @@
+package org.duckwings.internal;
+
+import java.io.Serializable;
+import java.util.function.ToIntFunction;
+
+/**
+ * Serializable {@link ToIntFunction}. Method reference passed as this type exposes the referenced method
+ * through {@link java.lang.invoke.SerializedLambda}.
+ */
+@FunctionalInterface
+public interface SerializableToIntFunction<T> extends ToIntFunction<T>, Serializable {
+}
@@ -0,0 +1,12 @@
+package org.duckwings.internal;
+
+import java.io.Serializable;
+import java.util.function.ToLongFunction;
+
+/**
+ * Serializable {@link ToLongFunction}. Method reference passed as this type exposes the referenced method
+ * through {@link java.lang.invoke.SerializedLambda}.
+ */
+@FunctionalInterface
+public interface SerializableToLongFunction<T> extends ToLongFunction<T>, Serializable {
+}
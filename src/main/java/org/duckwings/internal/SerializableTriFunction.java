@@ -0,0 +1,11 @@
+package org.duckwings.internal;
+
+import java.io.Serializable;
+
+/**
+ * Serializable {@link TriFunction}. Method reference passed as this type exposes the referenced method
+ * through {@link java.lang.invoke.SerializedLambda}.
+ */
+@FunctionalInterface
+public interface SerializableTriFunction<A, B, C, R> extends TriFunction<A, B, C, R>, Serializable {
+}
@@ -0,0 +1,200 @@
+package org.duckwings;
+
+import org.duckwings.annotation.DuckFace;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncTest {
+    private final ExecutorService executor = Executors.newCachedThreadPool(r -> new Thread(r, "duck-async"));
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void reflectionalWrapperCallsTargetOnExecutor() throws Exception {
+        assertAsync(DuckWings.builder().executor(executor).reflect(Owned.class));
+    }
+
+    @Test
+    void generatedWrapperCallsTargetOnExecutor() throws Exception {
+        assertAsync(DuckWings.builder().executor(executor).generated(Owned.class));
+    }
+
+    @Test
+    void functionalWrapperCallsFunctionOnExecutor() throws Exception {
+        Owned owned = DuckWings.builder().executor(executor).functional(Owned.class, Entity.class)
+                .using(Owned::getOwner, Entity::getOwner)
+                .using(Owned::getName, Entity::getName)
+                .wrap(new Entity("John"));
+        assertEquals("John@duck-async", owned.getOwner().get());
+        assertEquals("entity", owned.getName());
+    }
+
+    @Test
+    void functionalFallbackIsCalledOnExecutor() throws Exception {
+        Owned owned = DuckWings.builder().executor(executor).functional(Owned.class, Entity.class)
+                .using(Owned::getName, e -> "mapped")
+                .fallback(DuckWings.builder().reflect(Owned.class))
+                .wrap(new Entity("Paul"));
+        assertEquals("Paul@duck-async", owned.getOwner().get());
+        assertEquals(4, (int)owned.getSize().toCompletableFuture().get());
+    }
+
+    @Test
+    void compiledAdapterCallsTargetOnExecutor() throws Exception {
+        Account account = DuckWings.builder().executor(executor).reflect(Account.class).wrap(new Entity("George"));
+        assertTrue(account.getClass().getName().contains("$$DuckAdapter$$"));
+        assertEquals("George@duck-async", account.getOwner().get());
+        assertEquals(6, (int)account.getSize().toCompletableFuture().get());
+        assertEquals("entity", account.getName());
+    }
+
+    @Test
+    void futureReturnedByTargetIsNotWrapped() {
+        Entity entity = new Entity("Ringo");
+        Pending pending = DuckWings.builder().executor(executor).reflect(Pending.class).wrap(entity);
+        assertSame(entity.getPending(), pending.getPending());
+    }
+
+    @Test
+    void defaultExecutor() throws Exception {
+        Owned owned = DuckWings.builder().reflect(Owned.class).wrap(new Entity("John"));
+        assertTrue(owned.getOwner().get().startsWith("John@"));
+    }
+
+    @Test
+    void missingMethodCompletesWithDefaultValue() throws Exception {
+        Owned owned = DuckWings.builder().executor(executor).reflect(Owned.class).wrap("not an entity");
+        assertNull(owned.getOwner().get());
+    }
+
+    @Test
+    void failureCompletesFutureExceptionally() {
+        Owned owned = DuckWings.builder()
+                .throwIfAbsentAtRuntime(m -> new UnsupportedOperationException(format("Method %s failed", m.getName())))
+                .executor(executor).reflect(Owned.class).wrap(new Entity(null));
+        // the call is submitted even if the target fails
+        CompletableFuture<String> owner = owned.getOwner();
+        ExecutionException e = assertThrows(ExecutionException.class, owner::get);
+        assertEquals("Method getOwner failed", e.getCause().getMessage());
+    }
+
+    @Test
+    void synchronousMethodPassesValidation() {
+        Owned owned = DuckWings.builder()
+                .throwIfAbsentDuringBuilding(m -> new IllegalArgumentException(m.getName()))
+                .executor(executor).reflect(Owned.class).wrap(new Entity("John"));
+        assertFalse(owned.getOwner().isCompletedExceptionally());
+    }
+
+    @Test
+    void callAllRunsCallsConcurrently() throws Exception {
+        int n = 4;
+        CountDownLatch latch = new CountDownLatch(n);
+        List<Entity> entities = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            entities.add(new Entity("e" + i) {
+                @Override
+                public String getOwner() {
+                    latch.countDown();
+                    try {
+                        // completes only if all calls are running at the same time
+                        return latch.await(10, TimeUnit.SECONDS) ? super.getOwner() : "timeout";
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+        }
+        Wrapper<Entity, Owned> wrapper = DuckWings.builder().executor(executor).reflect(Owned.class);
+        List<String> owners = wrapper.callAll(entities, Owned::getOwner).get(10, TimeUnit.SECONDS);
+        assertEquals(asList("e0@duck-async", "e1@duck-async", "e2@duck-async", "e3@duck-async"), owners);
+    }
+
+    private void assertAsync(Wrapper<Entity, Owned> wrapper) throws Exception {
+        Entity entity = new Entity("John");
+        Owned owned = wrapper.wrap(entity);
+        assertEquals("John@duck-async", owned.getOwner().get());
+        assertEquals(4, (int)owned.getSize().toCompletableFuture().get());
+        assertNull(owned.touch().get());
+        assertEquals(1, entity.touched);
+        assertEquals("entity", owned.getName());
+    }
+
+
+    public interface Owned {
+        CompletableFuture<String> getOwner();
+        CompletionStage<Integer> getSize();
+        Future<Void> touch();
+        String getName();
+    }
+
+    interface Pending {
+        CompletableFuture<String> getPending();
+    }
+
+    @DuckFace(target = Entity.class)
+    public interface Account {
+        CompletableFuture<String> getOwner();
+        CompletionStage<Integer> getSize();
+        String getName();
+    }
+
+    public static class Entity {
+        private final String owner;
+        private final CompletableFuture<String> pending = new CompletableFuture<>();
+        private int touched;
+
+        Entity(String owner) {
+            this.owner = owner;
+        }
+
+        /**
+         * Simulates lazy loading getter: returns the owner together with the name of the thread that called it.
+         */
+        public String getOwner() {
+            if (owner == null) {
+                throw new IllegalStateException();
+            }
+            return owner + "@" + Thread.currentThread().getName();
+        }
+
+        public int getSize() {
+            return owner.length();
+        }
+
+        public void touch() {
+            touched++;
+        }
+
+        public String getName() {
+            return "entity";
+        }
+
+        public CompletableFuture<String> getPending() {
+            return pending;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package org.duckwings;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServerFactory;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BufferWrapperTest {
+    private static final RecordLayout LAYOUT = RecordLayout.builder()
+            .field("id", int.class)
+            .field("timestamp", long.class)
+            .field("price", double.class)
+            .text("symbol", 6)
+            .field("active", boolean.class)
+            .skip(1)
+            .field("side", char.class)
+            .size(32)
+            .build();
+
+    @Test
+    void layout() {
+        assertEquals(32, LAYOUT.size());
+        assertEquals(0, LAYOUT.offset("id"));
+        assertEquals(4, LAYOUT.offset("timestamp"));
+        assertEquals(20, LAYOUT.offset("symbol"));
+        assertEquals(28, LAYOUT.offset("side"));
+        assertEquals(String.class, LAYOUT.type("symbol"));
+        assertEquals(30, RecordLayout.builder().field("a", long.class, 20).field("b", short.class).build().size());
+        assertThrows(IllegalArgumentException.class, () -> RecordLayout.builder().field("a", String.class));
+        assertThrows(IllegalArgumentException.class, () -> RecordLayout.builder().field("a", int.class).field("a", int.class));
+        assertThrows(IllegalArgumentException.class, () -> RecordLayout.builder().field("a", long.class).size(4).build());
+    }
+
+    @Test
+    void readsFields() {
+        ByteBuffer buffer = trades(3);
+        BufferWrapper<Trade> wrapper = DuckWings.builder().buffer(Trade.class, LAYOUT);
+        Trade trade = wrapper.wrap(buffer);
+        assertEquals(0, trade.getId());
+        assertEquals(1_000_000L, trade.getTimestamp());
+        assertEquals(0.5, trade.price());
+        assertEquals("SYM0", trade.getSymbol());
+        assertTrue(trade.isActive());
+        assertEquals('B', trade.getSide());
+        Trade last = wrapper.record(buffer, 2);
+        assertEquals(2, last.getId());
+        assertEquals("SYM2", last.getSymbol());
+        assertTrue(last.isActive());
+        assertFalse(wrapper.record(buffer, 1).isActive());
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    void moveTo() {
+        ByteBuffer buffer = trades(100);
+        BufferWrapper<Trade> wrapper = DuckWings.builder().buffer(Trade.class, LAYOUT);
+        assertEquals(100, wrapper.count(buffer));
+        Trade trade = wrapper.wrap(buffer);
+        long sum = 0;
+        for (int i = 0; i < wrapper.count(buffer); i++) {
+            assertSame(trade, wrapper.moveTo(trade, i));
+            sum += trade.getId();
+        }
+        assertEquals(4950, sum);
+        assertThrows(IndexOutOfBoundsException.class, () -> wrapper.moveTo(trade, 100));
+        assertThrows(IndexOutOfBoundsException.class, () -> wrapper.record(buffer, -1));
+    }
+
+    @Test
+    void recordsAreNumberedFromPosition() {
+        ByteBuffer buffer = trades(10);
+        buffer.position(4 * LAYOUT.size());
+        BufferWrapper<Trade> wrapper = DuckWings.builder().buffer(Trade.class, LAYOUT);
+        assertEquals(6, wrapper.count(buffer));
+        assertEquals(4, wrapper.wrap(buffer).getId());
+        assertEquals(9, wrapper.record(buffer, 5).getId());
+    }
+
+    @Test
+    void memoryMappedFile() throws IOException {
+        Path file = Files.createTempFile("trades", ".bin");
+        try {
+            ByteBuffer trades = trades(1000);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.write(trades);
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                mapped.order(ByteOrder.LITTLE_ENDIAN);
+                BufferWrapper<Trade> wrapper = DuckWings.builder().buffer(Trade.class, LAYOUT);
+                List<Trade> views = new ArrayList<>();
+                double[] total = {0};
+                wrapper.forEachRecord(mapped, t -> {
+                    views.add(t);
+                    total[0] += t.price();
+                });
+                assertEquals(1000, views.size());
+                // one view moved from record to record
+                assertEquals(1, views.stream().distinct().count());
+                assertEquals(1000 * 999 / 2 + 500.0, total[0]);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void flyweight() {
+        ByteBuffer first = trades(2);
+        ByteBuffer second = trades(5);
+        second.position(3 * LAYOUT.size());
+        BufferWrapper<Trade> wrapper = DuckWings.builder().buffer(Trade.class, LAYOUT);
+        Trade trade = wrapper.flyweight();
+        assertEquals(1, wrapper.moveTo(wrapper.rebind(trade, first), 1).getId());
+        assertEquals(3, wrapper.rebind(trade, second).getId());
+        assertSame(second, DuckWings.unwrap(trade));
+    }
+
+    @Test
+    void generatedAdapter() {
+        Trade trade = DuckWings.builder().buffer(Trade.class, LAYOUT).wrap(trades(1));
+        assertTrue(trade.getClass().getName().contains("$$DuckWings$$Buffer"));
+    }
+
+    @Test
+    void proxyWhenMetricsAreEnabled() {
+        BufferWrapper<Trade> wrapper = DuckWings.builder().metrics(MBeanServerFactory.newMBeanServer()).buffer(Trade.class, LAYOUT);
+        ByteBuffer buffer = trades(3);
+        Trade trade = wrapper.wrap(buffer);
+        assertTrue(Proxy.isProxyClass(trade.getClass()));
+        assertEquals("SYM2", wrapper.moveTo(trade, 2).getSymbol());
+        assertEquals('B', trade.getSide());
+        assertEquals(wrapper.record(buffer, 2), trade);
+        assertSame(buffer, DuckWings.unwrap(trade));
+    }
+
+    @Test
+    void equalsHashCodeAndToString() {
+        ByteBuffer buffer = trades(2);
+        BufferWrapper<Trade> wrapper = DuckWings.builder().buffer(Trade.class, LAYOUT);
+        Trade trade = wrapper.record(buffer, 1);
+        assertEquals(wrapper.record(buffer, 1), trade);
+        assertEquals(wrapper.record(buffer, 1).hashCode(), trade.hashCode());
+        assertNotEquals(wrapper.record(buffer, 0), trade);
+        assertNotEquals(wrapper.record(trades(2), 1), trade);
+        assertEquals("Trade{id=1, timestamp=1000001, price=1.5, symbol=SYM1, active=false, side=B}", trade.toString());
+    }
+
+    @Test
+    void missingField() {
+        ByteBuffer buffer = trades(1);
+        assertEquals(0, DuckWings.builder().buffer(Order.class, LAYOUT).wrap(buffer).getQuantity());
+        Wrapper<ByteBuffer, Order> strict = DuckWings.builder()
+                .throwIfAbsentDuringBuilding(m -> new IllegalArgumentException(format("Field of %s is missing", m.getName())))
+                .buffer(Order.class, LAYOUT);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> strict.wrap(buffer));
+        assertEquals("Field of getQuantity is missing", e.getMessage());
+    }
+
+    @Test
+    void typeMismatch() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> DuckWings.builder().buffer(WrongType.class, LAYOUT));
+        assertEquals("Field id is int, but WrongType.getId() returns long", e.getMessage());
+    }
+
+    @Test
+    void property() throws NoSuchMethodException {
+        assertEquals("id", BaseWrapper.property(Trade.class.getMethod("getId")));
+        assertEquals("active", BaseWrapper.property(Trade.class.getMethod("isActive")));
+        assertEquals("price", BaseWrapper.property(Trade.class.getMethod("price")));
+        assertEquals("URL", BaseWrapper.property(Names.class.getMethod("getURL")));
+        assertEquals("getaway", BaseWrapper.property(Names.class.getMethod("getaway")));
+        assertEquals("island", BaseWrapper.property(Names.class.getMethod("island")));
+    }
+
+    /**
+     * Creates little endian buffer of trades whose fields are derived from their ids.
+     */
+    private static ByteBuffer trades(int count) {
+        ByteBuffer buffer = ByteBuffer.allocate(count * LAYOUT.size()).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < count; i++) {
+            int base = i * LAYOUT.size();
+            buffer.putInt(base, i);
+            buffer.putLong(base + 4, 1_000_000L + i);
+            buffer.putDouble(base + 12, i + 0.5);
+            byte[] symbol = ("SYM" + i).getBytes(StandardCharsets.ISO_8859_1);
+            for (int k = 0; k < symbol.length && k < 6; k++) {
+                buffer.put(base + 20 + k, symbol[k]);
+            }
+            buffer.put(base + 26, (byte)(i % 2 == 0 ? 1 : 0));
+            buffer.putChar(base + 28, 'B');
+        }
+        return buffer;
+    }
+
+
+    public interface Trade {
+        int getId();
+        long getTimestamp();
+        double price();
+        String getSymbol();
+        boolean isActive();
+        char getSide();
+    }
+
+    public interface Order {
+        int getId();
+        int getQuantity();
+    }
+
+    interface Names {
+        String getURL();
+        String getaway();
+        boolean island();
+    }
+
+    public interface WrongType {
+        long getId();
+    }
+}
@@ -0,0 +1,141 @@
+package org.duckwings;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CanonicalTest {
+    @Test
+    void sameWrapperForSameObject() {
+        Wrapper<Object, Named> wrapper = DuckWings.builder().canonical().reflect(Named.class);
+        Name john = new Name("John");
+        Named named = wrapper.wrap(john);
+        assertSame(named, wrapper.wrap(john));
+        assertNotSame(named, wrapper.wrap(new Name("John")));
+        assertEquals("John", named.getName());
+    }
+
+    @Test
+    void notCanonicalByDefault() {
+        Wrapper<Object, Named> wrapper = DuckWings.builder().reflect(Named.class);
+        Name john = new Name("John");
+        assertNotSame(wrapper.wrap(john), wrapper.wrap(john));
+    }
+
+    @Test
+    void functionalAndGenerated() {
+        Name john = new Name("John");
+        Wrapper<Name, Named> functional = DuckWings.builder().canonical().functional(Named.class, Name.class).using(Named::getName, Name::getName);
+        assertSame(functional.wrap(john), functional.wrap(john));
+        Wrapper<Object, Named> generated = DuckWings.builder().canonical().generated(Named.class);
+        assertSame(generated.wrap(john), generated.wrap(john));
+    }
+
+    @Test
+    void viewsOverSeveralObjectsAreNotCached() {
+        Wrapper<Object, Named> wrapper = DuckWings.builder().canonical().reflect(Named.class);
+        Name john = new Name("John");
+        Object other = new Object();
+        assertNotSame(wrapper.wrap(john, other), wrapper.wrap(john, other));
+    }
+
+    @Test
+    void cacheDoesNotKeepWrappedObject() throws InterruptedException {
+        Wrapper<Object, Named> wrapper = DuckWings.builder().canonical().reflect(Named.class);
+        Name john = new Name("John");
+        Named named = wrapper.wrap(john);
+        WeakReference<Name> ref = new WeakReference<>(john);
+        assertEquals("John", named.getName());
+
+        john = null;
+        named = null;
+        for (int i = 0; i < 20 && ref.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(ref.get());
+    }
+
+    @Test
+    void cache() throws InterruptedException {
+        CanonicalCache<Object> cache = new CanonicalCache<>();
+        List<Object> targets = new ArrayList<>();
+        List<Object> wrappers = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Object target = new Object();
+            Object wrapper = new Object();
+            targets.add(target);
+            wrappers.add(wrapper);
+            assertSame(wrapper, cache.put(target, wrapper));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertSame(wrappers.get(i), cache.get(targets.get(i)));
+            assertSame(wrappers.get(i), cache.put(targets.get(i), new Object()));
+        }
+        assertEquals(1000, cache.size());
+
+        targets.clear();
+        wrappers.clear();
+        for (int i = 0; i < 20 && cache.size() > 0; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void concurrentWrapping() throws InterruptedException {
+        Wrapper<Object, Named> wrapper = DuckWings.builder().canonical().reflect(Named.class);
+        List<Name> names = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            names.add(new Name("n" + i));
+        }
+        ConcurrentHashMap<Name, Named> first = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Throwable> failures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    Name name = names.get(i % names.size());
+                    Named named = wrapper.wrap(name);
+                    Named previous = first.putIfAbsent(name, named);
+                    if (previous != null && previous != named) {
+                        synchronized (failures) {
+                            failures.add(new AssertionError("Different wrappers of " + name));
+                        }
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        assertEquals(new ArrayList<>(), failures);
+    }
+
+    public interface Named {
+        String getName();
+    }
+
+    public static class Name {
+        private final String name;
+
+        public Name(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.duckwings;
+
+import org.duckwings.annotation.DuckFace;
+import org.duckwings.annotation.DuckMapping;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.lang.reflect.UndeclaredThrowableException;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompiledAdapterTest {
+    @Test
+    void reflectionalWrapperUsesCompiledAdapter() {
+        Publication publication = DuckWings.builder().reflect(Publication.class).wrap(new Book(1, "Ulysses"));
+        assertEquals("org.duckwings.CompiledAdapterTest_Publication$$DuckAdapter$$org_duckwings_CompiledAdapterTest_Book", publication.getClass().getName());
+        assertEquals(1, publication.getId());
+        assertEquals("Ulysses", publication.getTitle());
+        assertEquals("#1 Ulysses", publication.getDescription());
+        assertEquals("en", publication.getLanguage());
+    }
+
+    @Test
+    void generatedWrapperUsesCompiledAdapter() {
+        Publication publication = DuckWings.builder().generated(Publication.class).wrap(new Book(2, "Dubliners"));
+        assertTrue(publication.getClass().getName().contains("$$DuckAdapter$$"));
+        assertEquals(2, publication.getId());
+        assertEquals("Dubliners", publication.getTitle());
+    }
+
+    @Test
+    void severalTargets() {
+        Wrapper<CharSequence, Length> wrapper = DuckWings.builder().reflect(Length.class);
+        Length string = wrapper.wrap("hello");
+        Length builder = wrapper.wrap(new StringBuilder("abc"));
+        Length buffer = wrapper.wrap(new StringBuffer("xy"));
+        assertTrue(string.getClass().getName().endsWith("$$DuckAdapter$$java_lang_String"));
+        assertTrue(builder.getClass().getName().endsWith("$$DuckAdapter$$java_lang_StringBuilder"));
+        // adapter is not generated for StringBuffer
+        assertTrue(Proxy.isProxyClass(buffer.getClass()));
+        assertEquals(5, string.length());
+        assertEquals(3, builder.length());
+        assertEquals(2, buffer.length());
+    }
+
+    @Test
+    void objectMethodsAreDelegatedToTarget() {
+        Length length = DuckWings.builder().reflect(Length.class).wrap("hello");
+        assertTrue(length.equals(DuckWings.builder().reflect(Length.class).wrap("hello")));
+        // the target does not know about the wrapper, so the wrapper is not equal to it either
+        assertFalse(length.equals("hello"));
+        assertEquals("hello".hashCode(), length.hashCode());
+        assertEquals("hello", length.toString());
+    }
+
+    @Test
+    void unwrap() {
+        Book book = new Book(3, "Exiles");
+        Wrapper<Book, Publication> wrapper = DuckWings.builder().reflect(Publication.class);
+        Publication publication = wrapper.wrap(book);
+        assertSame(book, wrapper.unwrap(publication));
+        assertSame(book, DuckWings.unwrap(publication));
+    }
+
+    @Test
+    void compiledAdapterIsNotUsedForMultipleObjects() {
+        Publication publication = DuckWings.builder().reflect(Publication.class).wrap(new Book(4, "Stephen Hero"), "other");
+        assertTrue(Proxy.isProxyClass(publication.getClass()));
+        assertEquals(4, publication.getId());
+    }
+
+    @Test
+    void exceptionThrownByTargetReturnsDefaultValue() {
+        assertEquals(0, DuckWings.builder().reflect(Publication.class).wrap(new Book(5, "Chamber Music")).getPages());
+    }
+
+    @Test
+    void throwIfAbsentAtRuntime() {
+        Publication publication = DuckWings.builder()
+                .throwIfAbsentAtRuntime((m) -> new NoSuchMethodException(format("Method %s failed", m.getName())))
+                .reflect(Publication.class).wrap(new Book(6, "Giacomo Joyce"));
+        assertFalse(Proxy.isProxyClass(publication.getClass()));
+        UndeclaredThrowableException e = assertThrows(UndeclaredThrowableException.class, publication::getPages);
+        assertEquals("Method getPages failed", e.getCause().getMessage());
+    }
+
+
+    @DuckFace(target = Book.class)
+    public interface Publication {
+        int getId();
+        @DuckMapping("getName")
+        String getTitle();
+        @DuckMapping(value = "describe", using = Descriptions.class)
+        String getDescription();
+        int getPages();
+        default String getLanguage() {
+            return "en";
+        }
+    }
+
+    @DuckFace(target = {String.class, StringBuilder.class})
+    interface Length {
+        int length();
+    }
+
+    public static class Book {
+        private final int id;
+        private final String name;
+
+        Book(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        int getPages() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    static class Descriptions {
+        static String describe(Book book) {
+            return "#" + book.getId() + " " + book.getName();
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package org.duckwings;
 
+import org.duckwings.internal.TetraFunction;
+import org.duckwings.internal.TriFunction;
 import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.UndeclaredThrowableException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
 
 import static java.lang.String.format;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -34,6 +39,25 @@ class DuckWingsTest {
         assertEquals("world".length(), DuckWings.builder().reflect(Length.class).wrap("world").length());
     }
 
+    @Test
+    void reflectivePrivateAndStaticMethods() {
+        Length length = DuckWings.builder().reflect(Length.class).wrap(new Secret());
+        assertEquals(42, length.length());
+        assertEquals(42, length.length());
+        assertEquals(7, DuckWings.builder().reflect(StrangeOperations.class).wrap(new Secret()).tail().length());
+    }
+
+    @Test
+    void reflectiveWrapperSharedByDifferentClasses() {
+        Wrapper<Object, Length> wrapper = DuckWings.builder().reflect(Length.class);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(5, wrapper.wrap("hello").length());
+            assertEquals(3, wrapper.wrap(new StringBuilder("abc")).length());
+            assertEquals(42, wrapper.wrap(new Secret()).length());
+            assertEquals(0, wrapper.wrap(new ArrayList<>()).length());
+        }
+    }
+
     @Test
     void functionalString() {
         assertEquals("function".length(), DuckWings.builder().functional(Length.class, String.class).using(Length::length, String::length).wrap("function").length());
@@ -131,6 +155,19 @@ class DuckWingsTest {
                 .reflect(Length.class).wrap("").length()); // method length exists in class String
     }
 
+    @Test
+    void throwIfAbsentDuringBuildingIsCachedPerClass() {
+        Wrapper<Object, Length> wrapper = DuckWings.builder()
+                .throwIfAbsentDuringBuilding((m) -> new NoSuchMethodException(format("Method %s does not exist", m.getName())))
+                .reflect(Length.class);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i, wrapper.wrap(String.join("", Collections.nCopies(i, "x"))).length());
+            assertEquals("Method length does not exist", assertThrows(NoSuchMethodException.class, () -> wrapper.wrap(new ArrayList<>())).getMessage());
+            // the second object implements the method
+            assertEquals(0, wrapper.wrap(new ArrayList<>(), "").length());
+        }
+    }
+
     @Test
     void throwIfAbsentAtRuntimeWhenMethodIsMissing() {
         // Length does not exist in List but this line should not cause exception because the method is validated at runtime only
@@ -212,6 +249,39 @@ class DuckWingsTest {
     }
 
 
+    @Test
+    void functionalLambdaWithPrimitiveArgs() {
+        // lambda does not expose the referenced method, so it is found by calling the lambda with probed arguments
+        Wrapper<StringBuilder, ExtendedString> wrapper = DuckWings.builder().functional(ExtendedString.class, StringBuilder.class)
+                .using((e, from, to, s) -> e.replace(from, to, s), StringBuilder::replace)
+                .using((ExtendedString e, Integer start, Integer end) -> e.substring(start, end), StringBuilder::substring);
+        assertEquals("HeLLo", wrapper.wrap(new StringBuilder("Hello")).replace(2, 4, "LL").toString());
+        assertEquals("ll", wrapper.wrap(new StringBuilder("Hello")).substring(2, 4));
+    }
+
+    @Test
+    void functionalNotSerializableFunctions() {
+        BiFunction<ExtendedString, String, Boolean> startsWith = ExtendedString::startsWithIgnoreCase;
+        TriFunction<ExtendedString, Integer, Integer, String> substring = ExtendedString::substring;
+        TetraFunction<ExtendedString, Integer, Integer, String, StringBuilder> replace = ExtendedString::replace;
+        Wrapper<String, ExtendedString> wrapper = DuckWings.builder().functional(ExtendedString.class, String.class)
+                .using(startsWith, (s, s2) -> s.toLowerCase().startsWith(s2.toLowerCase()))
+                .using(substring, String::substring)
+                .using(replace, (s, from, to, r) -> new StringBuilder(s).replace(from, to, r));
+        ExtendedString hello = wrapper.wrap("Hello");
+        assertTrue(hello.startsWithIgnoreCase("he"));
+        assertEquals("ll", hello.substring(2, 4));
+        assertEquals("HeLLo", hello.replace(2, 4, "LL").toString());
+    }
+
+    @Test
+    void functionalMethodReferenceToInheritedMethod() {
+        Wrapper<String, TextView> wrapper = DuckWings.builder().functional(TextView.class, String.class)
+                .using(CharSequence::subSequence, String::subSequence);
+        assertEquals("ll", wrapper.wrap("Hello").subSequence(2, 4));
+        assertEquals(0, wrapper.wrap("Hello").length());
+    }
+
     @Test
     void functionalStringAddFunctionsWithDefaultValue() {
         Wrapper<String, StrangeOperations> wrapper = DuckWings.builder().functional(StrangeOperations.class, String.class)
@@ -236,6 +306,71 @@ class DuckWingsTest {
         assertEquals("Method length does not exist", e.getCause().getMessage());
     }
 
+    @Test
+    void frozenFunctionalWrapperCannotBeChanged() {
+        FunctionalWrapper<String, Collection> wrapper = DuckWings.builder().functional(Collection.class, String.class)
+                .using(Collection::size, String::length)
+                .freeze();
+
+        assertEquals(5, wrapper.wrap("hello").size());
+        assertEquals("Wrapper is frozen and cannot be changed",
+                assertThrows(IllegalStateException.class, () -> wrapper.using(Collection::isEmpty, String::isEmpty)).getMessage());
+        assertThrows(IllegalStateException.class, () -> wrapper.fallback(DuckWings.builder().reflect(Collection.class)));
+    }
+
+    @Test
+    void functionalWrapperCanBeChangedAfterWrap() {
+        FunctionalWrapper<String, Length> wrapper = DuckWings.builder().functional(Length.class, String.class)
+                .using(Length::length, String::length);
+        Length hello = wrapper.wrap("hello");
+        assertEquals(5, hello.length());
+        wrapper.using(Length::length, s -> 0);
+        assertEquals(0, wrapper.wrap("hello").length());
+        // object wrapped before the change keeps previous mapping
+        assertEquals(5, hello.length());
+    }
+
+    @Test
+    void changeOfOtherFunctionalWrapperIsVisibleAfterWrap() {
+        FunctionalWrapper<String, Collection> other = DuckWings.builder().functional(Collection.class, String.class)
+                .using(Collection::size, String::length);
+        FunctionalWrapper<String, Collection> wrapper = DuckWings.builder().functional(Collection.class, String.class)
+                .fallback(other);
+        assertEquals(5, wrapper.wrap("hello").size());
+        assertEquals(false, wrapper.wrap("hello").isEmpty());
+        other.using(Collection::isEmpty, String::isEmpty);
+        assertEquals(true, wrapper.wrap("").isEmpty());
+
+        wrapper.freeze();
+        assertThrows(IllegalStateException.class, () -> other.using(Collection::size, s -> 0));
+    }
+
+    @Test
+    void functionalWrapperSharedByThreads() throws InterruptedException {
+        Wrapper<String, ExtendedString> wrapper = DuckWings.builder().functional(ExtendedString.class, String.class)
+                .using(ExtendedString::toInt, Integer::parseInt)
+                .using(ExtendedString::charAt, String::charAt)
+                .freeze();
+
+        AtomicInteger errors = new AtomicInteger();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    ExtendedString s = wrapper.wrap(Integer.toString(i));
+                    if (s.toInt() != i || s.charAt(0) != Integer.toString(i).charAt(0)) {
+                        errors.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, errors.get());
+    }
+
     @Test
     void throwIfAbsentDuringBuildingWhenFunctionExists() {
         NoSuchMethodException e = assertThrows(
@@ -252,6 +387,12 @@ class DuckWingsTest {
         int length();
     }
 
+    /**
+     * Face whose methods are inherited from other interface.
+     */
+    interface TextView extends CharSequence {
+    }
+
     interface ExtendedString {
         int toInt();
         long toLong();
@@ -265,4 +406,15 @@ class DuckWingsTest {
     interface StrangeOperations {
         String tail();
     }
+
+    @SuppressWarnings("unused")
+    private static class Secret {
+        private int length() {
+            return 42;
+        }
+
+        private static String tail() {
+            return "private";
+        }
+    }
 }
\ No newline at end of file
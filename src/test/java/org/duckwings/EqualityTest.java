@@ -0,0 +1,125 @@
+package org.duckwings;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EqualityTest {
+    @Test
+    void reflectionalWrappersOfEqualObjectsAreEqual() {
+        Wrapper<Object, Named> wrapper = DuckWings.builder().reflect(Named.class);
+        assertValueEquality(wrapper);
+    }
+
+    @Test
+    void generatedWrappersOfEqualObjectsAreEqual() {
+        assertValueEquality(DuckWings.builder().generated(Named.class));
+    }
+
+    @Test
+    void functionalWrappersOfEqualObjectsAreEqual() {
+        assertValueEquality(DuckWings.builder().functional(Named.class, Object.class).using(Named::getName, Object::toString));
+    }
+
+    @Test
+    void explicitlyMappedHashCodeIsUsed() {
+        Named named = DuckWings.builder().functional(Named.class, String.class)
+                .using(Named::getName, s -> s)
+                .using(Object::hashCode, String::length)
+                .wrap("hello");
+        assertEquals(5, named.hashCode());
+    }
+
+    @Test
+    void identity() {
+        Wrapper<Object, Named> wrapper = DuckWings.builder().equality(Equality.IDENTITY).reflect(Named.class);
+        Name a = new Name("a");
+        assertEquals(wrapper.wrap(a), wrapper.wrap(a));
+        assertEquals(System.identityHashCode(a), wrapper.wrap(a).hashCode());
+        assertNotEquals(wrapper.wrap(a), wrapper.wrap(new Name("a")));
+        assertEquals("a", wrapper.wrap(a).toString());
+    }
+
+    @Test
+    void wrapperIsNotEqualToTarget() {
+        Name a = new Name("a");
+        for (Wrapper<Object, Named> wrapper : Arrays.<Wrapper<Object, Named>>asList(
+                DuckWings.builder().reflect(Named.class),
+                DuckWings.builder().generated(Named.class),
+                DuckWings.builder().equality(Equality.IDENTITY).reflect(Named.class))) {
+            Named named = wrapper.wrap(a);
+            assertNotEquals(named, a);
+            assertNotEquals(a, named);
+            assertNotEquals(named, null);
+            assertEquals(named, wrapper.wrap(a));
+        }
+    }
+
+    @Test
+    void deduplicationInHashSet() {
+        Wrapper<Object, Named> wrapper = DuckWings.builder().reflect(Named.class);
+        Set<Named> set = new HashSet<>();
+        for (String name : Arrays.asList("a", "b", "a", "c", "b")) {
+            set.add(wrapper.wrap(new Name(name)));
+        }
+        assertEquals(3, set.size());
+    }
+
+    @Test
+    void unwrap() {
+        Name a = new Name("a");
+        assertSame(a, DuckWings.unwrap(DuckWings.builder().reflect(Named.class).wrap(a)));
+        assertSame(a, DuckWings.unwrap(DuckWings.builder().generated(Named.class).wrap(a)));
+        assertThrows(IllegalArgumentException.class, () -> DuckWings.unwrap(a));
+    }
+
+    private static void assertValueEquality(Wrapper<Object, Named> wrapper) {
+        Named a1 = wrapper.wrap(new Name("a"));
+        Named a2 = wrapper.wrap(new Name("a"));
+        Named b = wrapper.wrap(new Name("b"));
+        assertEquals(a1, a2);
+        assertEquals(a1.hashCode(), a2.hashCode());
+        assertEquals(new Name("a").hashCode(), a1.hashCode());
+        assertNotEquals(a1, b);
+        assertEquals("a", a1.toString());
+        assertEquals(a1, DuckWings.builder().reflect(Named.class).wrap(new Name("a")));
+    }
+
+    public interface Named {
+        String getName();
+    }
+
+    public static class Name {
+        private final String name;
+
+        public Name(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Name && name.equals(((Name)o).name);
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -2,9 +2,12 @@ package org.duckwings;
 
 import org.junit.jupiter.api.Test;
 
+import java.lang.reflect.UndeclaredThrowableException;
 import java.util.Calendar;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class FallbackTest {
     @Test
@@ -23,4 +26,74 @@ public class FallbackTest {
         assertEquals("John", w.getFirstName());
         assertEquals("Lennon", w.getLastName());
     }
+
+    @Test
+    void chainOfFallbacks() {
+        Wrapper<Person, PersonalData> wrapper = DuckWings.builder().functional(PersonalData.class, Person.class)
+                .using(PersonalData::getFullName, p -> p.getFirstName() + " " + p.getLastName())
+                .fallback(DuckWings.builder().functional(PersonalData.class, Person.class)
+                        .using(PersonalData::getFullName, p -> "shadowed")
+                        .using(PersonalData::getLastName, p -> p.getLastName().toUpperCase())
+                        .fallback(DuckWings.builder().reflect(PersonalData.class)));
+
+        Person john = new Person("John", "Lennon", 1940);
+        PersonalData w = wrapper.wrap(john);
+        assertEquals("John Lennon", w.getFullName());
+        assertEquals("LENNON", w.getLastName());
+        assertEquals("John", w.getFirstName());
+        assertEquals(john.toString(), w.toString());
+    }
+
+    @Test
+    void exceptionInFallbackReturnsDefaultValueIfAnyWrapperOfChainIsLenient() {
+        Wrapper<Person, PersonalData> wrapper = DuckWings.builder()
+                .throwIfAbsentAtRuntime(m -> new NoSuchMethodException(m.getName()))
+                .functional(PersonalData.class, Person.class)
+                .using(PersonalData::getFullName, p -> p.getFirstName() + " " + p.getLastName())
+                .fallback(DuckWings.builder().functional(PersonalData.class, Person.class)
+                        .using(PersonalData::getFirstName, p -> { throw new IllegalStateException(); }));
+
+        PersonalData w = wrapper.wrap(new Person("John", "Lennon", 1940));
+        assertNull(w.getFirstName());
+        assertNull(w.getLastName());
+    }
+
+    @Test
+    void exceptionInFallbackIsThrownIfAllWrappersOfChainAreStrict() {
+        Wrapper<Person, PersonalData> wrapper = DuckWings.builder()
+                .throwIfAbsentAtRuntime(m -> new NoSuchMethodException(m.getName()))
+                .functional(PersonalData.class, Person.class)
+                .using(PersonalData::getFullName, p -> p.getFirstName() + " " + p.getLastName())
+                .fallback(DuckWings.builder()
+                        .throwIfAbsentAtRuntime(m -> new IllegalStateException(m.getName()))
+                        .functional(PersonalData.class, Person.class)
+                        .using(PersonalData::getFirstName, p -> { throw new IllegalStateException(); }));
+
+        PersonalData w = wrapper.wrap(new Person("John", "Lennon", 1940));
+        assertEquals("getFirstName", assertThrows(UndeclaredThrowableException.class, w::getFirstName).getCause().getMessage());
+        assertEquals("getLastName", assertThrows(UndeclaredThrowableException.class, w::getLastName).getCause().getMessage());
+    }
+
+    @Test
+    void fallbackValidatesTargetDuringBuilding() {
+        Wrapper<Person, PersonalCreditCard> wrapper = DuckWings.builder().functional(PersonalCreditCard.class, Person.class)
+                .using(PersonalCreditCard::getPersonName, p -> p.getFirstName() + " " + p.getLastName())
+                .fallback(DuckWings.builder()
+                        .throwIfAbsentDuringBuilding(m -> new IllegalArgumentException(m.getName()))
+                        .reflect(PersonalCreditCard.class));
+
+        assertThrows(IllegalArgumentException.class, () -> wrapper.wrap(new Person("John", "Lennon", 1940)));
+    }
+
+    @Test
+    void flyweightWithFallback() {
+        Wrapper<Person, PersonalData> wrapper = DuckWings.builder().functional(PersonalData.class, Person.class)
+                .using(PersonalData::getFullName, p -> p.getFirstName() + " " + p.getLastName())
+                .fallback(DuckWings.builder().reflect(PersonalData.class));
+
+        PersonalData w = wrapper.flyweight();
+        assertEquals("Lennon", wrapper.rebind(w, new Person("John", "Lennon", 1940)).getLastName());
+        assertEquals("Paul McCartney", wrapper.rebind(w, new Person("Paul", "McCartney", 1942)).getFullName());
+        assertEquals("Paul", w.getFirstName());
+    }
 }
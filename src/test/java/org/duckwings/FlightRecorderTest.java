@@ -0,0 +1,89 @@
+package org.duckwings;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlightRecorderTest {
+    @Test
+    void wrapResolveAndMiss() throws Exception {
+        List<RecordedEvent> events = record(() -> {
+            Wrapper<Object, Length> wrapper = DuckWings.builder().reflect(Length.class);
+            assertEquals(5, wrapper.wrap("hello").length());
+            assertEquals(0, wrapper.wrap(new ArrayList<>()).length());
+        });
+
+        List<RecordedEvent> wraps = events(events, "org.duckwings.DuckWrap");
+        assertEquals(2, wraps.size());
+        assertEquals(Length.class.getName(), wraps.get(0).<RecordedClass>getValue("face").getName());
+        assertEquals(String.class.getName(), wraps.get(0).<RecordedClass>getValue("targetClass").getName());
+
+        List<RecordedEvent> resolutions = events(events, "org.duckwings.DuckMethodResolve").stream()
+                .filter(e -> "length()".equals(e.getString("method"))).collect(Collectors.toList());
+        assertEquals(2, resolutions.size());
+        assertTrue(resolutions.get(0).getBoolean("found"));
+        assertFalse(resolutions.get(1).getBoolean("found"));
+
+        List<RecordedEvent> misses = events(events, "org.duckwings.DuckDispatchMiss");
+        assertEquals(1, misses.size());
+        assertEquals("length()", misses.get(0).getString("method"));
+        assertEquals("default value", misses.get(0).getString("outcome"));
+        assertEquals(ArrayList.class.getName(), misses.get(0).<RecordedClass>getValue("targetClass").getName());
+    }
+
+    @Test
+    void fallbackMiss() throws Exception {
+        List<RecordedEvent> events = record(() -> {
+            PersonalData w = DuckWings.builder().functional(PersonalData.class, Person.class)
+                    .using(PersonalData::getFullName, p -> p.getFirstName() + " " + p.getLastName())
+                    .fallback(DuckWings.builder().reflect(PersonalData.class))
+                    .wrap(new Person("John", "Lennon", 1940));
+            assertEquals("John", w.getFirstName());
+            assertEquals("John Lennon", w.getFullName());
+        });
+
+        List<RecordedEvent> misses = events(events, "org.duckwings.DuckDispatchMiss");
+        assertEquals(1, misses.size());
+        assertEquals("getFirstName()", misses.get(0).getString("method"));
+        assertEquals("fallback", misses.get(0).getString("outcome"));
+    }
+
+    private static List<RecordedEvent> record(Runnable action) throws Exception {
+        Path file = Files.createTempFile("duckwings", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : new String[] {"org.duckwings.DuckWrap", "org.duckwings.DuckMethodResolve", "org.duckwings.DuckDispatchMiss"}) {
+                recording.enable(name).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static List<RecordedEvent> events(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> name.equals(e.getEventType().getName()))
+                .filter(e -> e.getThread() != null && Thread.currentThread().getName().equals(e.getThread().getJavaName()))
+                .collect(Collectors.toList());
+    }
+
+    public interface Length {
+        int length();
+    }
+}
@@ -0,0 +1,164 @@
+package org.duckwings;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlyweightTest {
+    @Test
+    void reflectional() {
+        Wrapper<String, Length> wrapper = DuckWings.builder().reflect(Length.class);
+        Length length = wrapper.flyweight();
+        int sum = 0;
+        for (String s : Arrays.asList("a", "bb", "ccc")) {
+            sum += wrapper.rebind(length, s).length();
+        }
+        assertEquals(6, sum);
+    }
+
+    @Test
+    void rebindReturnsSameInstance() {
+        Wrapper<String, Length> wrapper = DuckWings.builder().reflect(Length.class);
+        Length length = wrapper.flyweight();
+        assertSame(length, wrapper.rebind(length, "hello"));
+        assertSame(length, wrapper.rebind(length, "bye"));
+    }
+
+    @Test
+    void differentClasses() {
+        Wrapper<Object, Length> wrapper = DuckWings.builder().reflect(Length.class);
+        Length length = wrapper.flyweight();
+        assertEquals(5, wrapper.rebind(length, "hello").length());
+        assertEquals(3, wrapper.rebind(length, new StringBuilder("abc")).length());
+        assertEquals(0, wrapper.rebind(length, new ArrayList<>()).length());
+        assertEquals(2, wrapper.rebind(length, "hi").length());
+    }
+
+    @Test
+    void unwrap() {
+        Wrapper<String, Length> wrapper = DuckWings.builder().reflect(Length.class);
+        Length length = wrapper.flyweight();
+        wrapper.rebind(length, "hello");
+        assertEquals("hello", DuckWings.unwrap(length));
+        wrapper.rebind(length, "bye");
+        assertEquals("bye", wrapper.unwrap(length));
+    }
+
+    @Test
+    void functional() {
+        Wrapper<String, Length> wrapper = DuckWings.builder().functional(Length.class, String.class).using(Length::length, s -> s.length() * 2);
+        Length length = wrapper.flyweight();
+        assertEquals(4, wrapper.rebind(length, "ab").length());
+        assertEquals(6, wrapper.rebind(length, "abc").length());
+    }
+
+    @Test
+    void functionalWithFallback() {
+        Wrapper<StringBuilder, Text> wrapper = DuckWings.builder().functional(Text.class, StringBuilder.class)
+                .using(Text::length, s -> s.length() * 2)
+                .fallback(DuckWings.builder().reflect(Text.class));
+        Text text = wrapper.flyweight();
+        wrapper.rebind(text, new StringBuilder("ab"));
+        assertEquals(4, text.length());
+        assertEquals("ab", text.toString());
+        wrapper.rebind(text, new StringBuilder("xyz"));
+        assertEquals(6, text.length());
+        assertEquals("xyz", text.toString());
+    }
+
+    @Test
+    void functionalWithFallbackToDifferentClasses() {
+        Wrapper<CharSequence, Chars> wrapper = DuckWings.builder().functional(Chars.class, CharSequence.class)
+                .using(Chars::isEmpty, s -> s.length() == 0)
+                .fallback(DuckWings.builder().reflect(Chars.class));
+        Chars chars = wrapper.flyweight();
+        assertEquals(5, wrapper.rebind(chars, "hello").length());
+        assertEquals(2, wrapper.rebind(chars, new StringBuilder("ab")).length());
+        assertEquals(1, wrapper.rebind(chars, "x").length());
+        assertTrue(wrapper.rebind(chars, new StringBuilder()).isEmpty());
+        assertEquals(0, chars.length());
+    }
+
+    @Test
+    void generated() {
+        Wrapper<Object, Length> wrapper = DuckWings.builder().generated(Length.class);
+        Length length = wrapper.flyweight();
+        assertEquals(5, wrapper.rebind(length, "hello").length());
+        assertEquals(3, wrapper.rebind(length, new StringBuilder("abc")).length());
+        assertEquals(2, wrapper.rebind(length, "hi").length());
+    }
+
+    @Test
+    void multipleObjects() {
+        Wrapper<Person, PersonalData> wrapper = DuckWings.builder().reflect(PersonalData.class);
+        PersonalData data = wrapper.flyweight();
+        int year = Calendar.getInstance().get(Calendar.YEAR);
+        MultipleObjectsTest test = new MultipleObjectsTest();
+
+        wrapper.rebind(data, new Person("John", "Lennon", 1940), test.new NameAndAge("John Lennon", year - 1940));
+        assertEquals("John", data.getFirstName());
+        assertEquals(year - 1940, data.getAge());
+
+        wrapper.rebind(data, new Person("Paul", "McCartney", 1942), test.new NameAndAge("Paul McCartney", year - 1942));
+        assertEquals("Paul", data.getFirstName());
+        assertEquals("Paul McCartney", data.getFullName());
+        assertEquals(year - 1942, data.getAge());
+    }
+
+    @Test
+    void multipleObjectsOfDifferentClasses() {
+        Wrapper<Object, MultipleObjectsTest.Texts> wrapper = DuckWings.builder().reflect(MultipleObjectsTest.Texts.class);
+        MultipleObjectsTest.Texts texts = wrapper.flyweight();
+        wrapper.rebind(texts, 1, new StringBuilder("abc"), "hello");
+        assertEquals(3, texts.length());
+        wrapper.rebind(texts, 2, "hi", new StringBuilder("x"));
+        assertEquals(2, texts.length());
+        assertEquals("HI", texts.toUpperCase());
+        wrapper.rebind(texts, 3, "bye", new StringBuilder("x"));
+        assertEquals(3, texts.length());
+        assertEquals("BYE", texts.toUpperCase());
+    }
+
+    @Test
+    void rebindValidatesTarget() {
+        Wrapper<Object, Length> wrapper = DuckWings.builder()
+                .throwIfAbsentDuringBuilding((m) -> new NoSuchMethodException(format("Method %s does not exist", m.getName())))
+                .reflect(Length.class);
+        Length length = wrapper.flyweight();
+        wrapper.rebind(length, "hello");
+        NoSuchMethodException e = assertThrows(NoSuchMethodException.class, () -> wrapper.rebind(length, new ArrayList<>()));
+        assertEquals("Method length does not exist", e.getMessage());
+        // failed rebinding does not change the flyweight
+        assertEquals(5, length.length());
+    }
+
+    @Test
+    void rebindOfObjectNotCreatedByFlyweight() {
+        Wrapper<String, Length> wrapper = DuckWings.builder().reflect(Length.class);
+        Wrapper<String, Length> other = DuckWings.builder().reflect(Length.class);
+        assertThrows(IllegalArgumentException.class, () -> wrapper.rebind(() -> 0, "hello"));
+        assertThrows(IllegalArgumentException.class, () -> wrapper.rebind(other.flyweight(), "hello"));
+    }
+
+    interface Length {
+        int length();
+    }
+
+    public interface Chars {
+        int length();
+        boolean isEmpty();
+    }
+
+    public interface Text {
+        int length();
+        String toString();
+    }
+}
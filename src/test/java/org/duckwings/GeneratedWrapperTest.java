@@ -0,0 +1,150 @@
+package org.duckwings;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Calendar;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GeneratedWrapperTest {
+    @Test
+    void stringAsLength() {
+        Length length = DuckWings.builder().generated(Length.class).wrap("hello");
+        assertFalse(Proxy.isProxyClass(length.getClass()));
+        assertEquals("hello".length(), length.length());
+    }
+
+    @Test
+    void stringAsCharSequence() {
+        CharSequence wrapped = DuckWings.builder().generated(CharSequence.class).wrap("hello");
+        assertEquals('e', wrapped.charAt(1));
+        assertEquals("ell", wrapped.subSequence(1, 4));
+        assertEquals("hello", wrapped.toString());
+        assertEquals("hello".hashCode(), wrapped.hashCode());
+    }
+
+    @Test
+    void sameClassIsUsedForSameTargetClass() {
+        Wrapper<Object, IdHolder> wrapper = DuckWings.builder().generated(IdHolder.class);
+        IdHolder book1 = wrapper.wrap(new Book(1));
+        IdHolder book2 = wrapper.wrap(new Book(2));
+        IdHolder magazine = wrapper.wrap(new Magazine(3L));
+        assertSame(book1.getClass(), book2.getClass());
+        assertEquals(1, book1.getId());
+        assertEquals(2, book2.getId());
+        // return type of Magazine.getId() is not the same as in the face, so the method is dispatched using reflection
+        // and its long value is not narrowed to int, exactly as by dynamic proxy
+        assertThrows(ClassCastException.class, magazine::getId);
+        assertThrows(ClassCastException.class, DuckWings.builder().reflect(IdHolder.class).wrap(new Magazine(3L))::getId);
+        assertEquals("magazine", magazine.getName());
+    }
+
+    @Test
+    void unwrap() {
+        String str = "hello";
+        Wrapper<String, Length> wrapper = DuckWings.builder().generated(Length.class);
+        Length wrapped = wrapper.wrap(str);
+        assertSame(str, wrapper.unwrap(wrapped));
+        assertSame(str, DuckWings.unwrap(wrapped));
+    }
+
+    @Test
+    void missingMethodReturnsDefaultValue() {
+        assertEquals(0, DuckWings.builder().generated(Length.class).wrap(new ArrayList<>()).length());
+    }
+
+    @Test
+    void exceptionThrownByTargetReturnsDefaultValue() {
+        assertEquals(0, DuckWings.builder().generated(CharSequence.class).wrap("hello").charAt(10));
+    }
+
+    @Test
+    void throwIfAbsentAtRuntime() {
+        Length wrappedLength = DuckWings.builder()
+                .throwIfAbsentAtRuntime((m) -> new NoSuchMethodException(format("Method %s does not exist", m.getName())))
+                .generated(Length.class).wrap(new ArrayList<>());
+
+        UndeclaredThrowableException e = assertThrows(UndeclaredThrowableException.class, wrappedLength::length);
+        assertEquals("Method length does not exist", e.getCause().getMessage());
+    }
+
+    @Test
+    void throwIfAbsentDuringBuilding() {
+        NoSuchMethodException e = assertThrows(
+                NoSuchMethodException.class,
+                () -> DuckWings.builder()
+                        .throwIfAbsentDuringBuilding((m) -> new NoSuchMethodException(format("Method %s does not exist", m.getName())))
+                        .generated(Length.class).wrap(new ArrayList<>())
+        );
+        assertEquals("Method length does not exist", e.getMessage());
+    }
+
+    @Test
+    void multipleObjects() {
+        Person john = new Person("John", "Lennon", 1940);
+        int age = Calendar.getInstance().get(Calendar.YEAR) - 1940;
+        PersonalData w = DuckWings.builder().generated(PersonalData.class).wrap(john, new MultipleObjectsTest().new NameAndAge("John Lennon", age));
+        assertEquals("John", w.getFirstName());
+        assertEquals("Lennon", w.getLastName());
+        assertEquals("John Lennon", w.getFullName());
+        assertEquals(age, w.getAge());
+    }
+
+    @Test
+    void voidMethod() {
+        StringBuilder sb = new StringBuilder();
+        Appender appender = DuckWings.builder().generated(Appender.class).wrap(sb);
+        appender.append("hello");
+        assertEquals("hello", sb.toString());
+        assertSame(sb, DuckWings.unwrap(appender));
+    }
+
+
+    interface Length {
+        int length();
+    }
+
+    interface Appender {
+        void append(String s);
+    }
+
+    public interface IdHolder {
+        int getId();
+        String getName();
+    }
+
+    public static class Book {
+        private final int id;
+
+        Book(int id) {
+            this.id = id;
+        }
+
+        public int getId() {
+            return id;
+        }
+    }
+
+    public static class Magazine {
+        private final long id;
+
+        Magazine(long id) {
+            this.id = id;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        String getName() {
+            return "magazine";
+        }
+    }
+}
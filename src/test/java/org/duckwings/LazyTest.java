@@ -0,0 +1,238 @@
+package org.duckwings;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServerFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LazyTest {
+    private final Repository<Person> people = new Repository<>();
+    private final Repository<BankAccount> accounts = new Repository<>();
+
+    LazyTest() {
+        people.put(1, new Person("John", "Lennon", 1940));
+        people.put(2, new Person("Paul", "McCartney", 1942));
+        accounts.put(1, new BankAccount(1, "1111-2222-3333-4444"));
+    }
+
+    @Test
+    void functionalLoadsOnlyObjectThatServesMethod() {
+        FunctionalWrapper<Person, PersonalCreditCard> wrapper = cards();
+        PersonalCreditCard card = wrapper.wrapLazy(() -> people.load(1), () -> accounts.load(1));
+        assertEquals(0, people.loads.get());
+        assertEquals("John Lennon", card.getPersonName());
+        assertEquals("John Lennon", card.getPersonName());
+        assertEquals(1, people.loads.get());
+        assertEquals(0, accounts.loads.get());
+        assertEquals("1111-2222-3333-4444", card.getCreditCard());
+        card.getCreditCard();
+        assertEquals(1, accounts.loads.get());
+    }
+
+    @Test
+    void reflectionalLoadsOthersOnlyIfTargetDoesNotImplementMethod() {
+        PersonalData data = DuckWings.builder().reflect(PersonalData.class).wrapLazy(() -> people.load(1), () -> accounts.load(1));
+        assertEquals("John", data.getFirstName());
+        assertEquals("Lennon", data.getLastName());
+        assertEquals(1, people.loads.get());
+        assertEquals(0, accounts.loads.get());
+
+        PersonalCreditCard card = DuckWings.builder().reflect(PersonalCreditCard.class).wrapLazy(() -> people.load(1), () -> accounts.load(1));
+        assertEquals("1111-2222-3333-4444", card.getCreditCard());
+        assertEquals("1111-2222-3333-4444", card.getCreditCard());
+        assertEquals(2, people.loads.get());
+        assertEquals(1, accounts.loads.get());
+    }
+
+    @Test
+    void pageOfList() {
+        FunctionalWrapper<Person, PersonalCreditCard> wrapper = cards();
+        List<PersonalCreditCard> page = new ArrayList<>();
+        for (int id : new int[] {1, 2}) {
+            page.add(wrapper.wrapLazy(() -> people.load(id), () -> accounts.load(id)));
+        }
+        StringBuilder names = new StringBuilder();
+        page.forEach(card -> names.append(card.getPersonName()).append(';'));
+        assertEquals("John Lennon;Paul McCartney;", names.toString());
+        assertEquals(2, people.loads.get());
+        assertEquals(0, accounts.loads.get());
+    }
+
+    @Test
+    void unwrapLoadsTarget() {
+        PersonalCreditCard card = cards().wrapLazy(() -> people.load(2), () -> accounts.load(1));
+        Person person = DuckWings.unwrap(card);
+        assertEquals("Paul", person.getFirstName());
+        assertEquals(1, people.loads.get());
+        assertEquals(0, accounts.loads.get());
+        assertSame(person, DuckWings.unwrap(card));
+        assertEquals(1, people.loads.get());
+    }
+
+    @Test
+    void objectMethodsLoadTarget() {
+        Wrapper<Person, PersonalData> wrapper = DuckWings.builder().reflect(PersonalData.class);
+        Person john = people.load(1);
+        PersonalData data = wrapper.wrapLazy(() -> people.load(1));
+        assertEquals(wrapper.wrap(john), data);
+        assertEquals(john.hashCode(), data.hashCode());
+        assertEquals(2, people.loads.get());
+    }
+
+    @Test
+    void failedLoadIsRepeated() {
+        AtomicInteger attempts = new AtomicInteger();
+        PersonalCreditCard card = cards().wrapLazy(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("unavailable");
+            }
+            return people.load(1);
+        });
+        assertEquals("unavailable", assertThrows(IllegalStateException.class, card::getPersonName).getMessage());
+        assertEquals("John Lennon", card.getPersonName());
+        assertEquals("John Lennon", card.getPersonName());
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void nullTarget() {
+        PersonalData data = DuckWings.builder().reflect(PersonalData.class).wrapLazy(() -> people.load(3));
+        assertThrows(NullPointerException.class, data::getFirstName);
+    }
+
+    @Test
+    void fallbackLoadsTarget() {
+        PersonalData data = DuckWings.builder().functional(PersonalData.class, Person.class)
+                .using(PersonalData::getFullName, p -> p.getFirstName() + " " + p.getLastName())
+                .fallback(DuckWings.builder().reflect(PersonalData.class))
+                .wrapLazy(() -> people.load(1));
+        assertEquals("John Lennon", data.getFullName());
+        assertEquals("John", data.getFirstName());
+        assertEquals(1, people.loads.get());
+    }
+
+    @Test
+    void asynchronousMethodLoadsOnExecutor() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Repository<Person> slow = new Repository<Person>() {
+            @Override
+            Person load(int id) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return super.load(id);
+            }
+        };
+        slow.put(1, new Person("John", "Lennon", 1940));
+        AsyncName name = DuckWings.builder().reflect(AsyncName.class).wrapLazy(() -> slow.load(1));
+        // does not block the caller
+        CompletableFuture<String> firstName = name.getFirstName();
+        release.countDown();
+        assertEquals("John", firstName.get());
+    }
+
+    @Test
+    void loadedOnceByConcurrentCalls() throws Exception {
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        PersonalCreditCard card = cards().wrapLazy(() -> people.load(1), () -> accounts.load(1));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                boolean name = i % 2 == 0;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return name ? card.getPersonName() : card.getCreditCard();
+                }));
+            }
+            start.countDown();
+            for (Future<String> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, people.loads.get());
+        assertEquals(1, accounts.loads.get());
+    }
+
+    @Test
+    void otherWrappersLoadAllObjectsOnFirstCall() {
+        Map<String, Object> row = new HashMap<>();
+        row.put("name", "John");
+        AtomicInteger loads = new AtomicInteger();
+        MapWrapperTest.Customer customer = DuckWings.builder().map(MapWrapperTest.Customer.class).wrapLazy(() -> {
+            loads.incrementAndGet();
+            return row;
+        });
+        assertEquals(0, loads.get());
+        assertEquals("John", customer.getName());
+        assertEquals(0, customer.getId());
+        assertEquals(1, loads.get());
+        assertSame(row, DuckWings.unwrap(customer));
+    }
+
+    @Test
+    void metrics() {
+        PersonalData data = DuckWings.builder().metrics(MBeanServerFactory.newMBeanServer()).reflect(PersonalData.class)
+                .wrapLazy(() -> people.load(2));
+        assertEquals(0, people.loads.get());
+        assertEquals("Paul", data.getFirstName());
+        assertSame(people.load(2), DuckWings.unwrap(data));
+    }
+
+    @Test
+    void rebind() {
+        FunctionalWrapper<Person, PersonalCreditCard> wrapper = cards();
+        PersonalCreditCard card = wrapper.wrapLazy(() -> people.load(1), () -> accounts.load(1));
+        wrapper.rebind(card, people.load(2), new BankAccount(2, "5555"));
+        assertEquals("Paul McCartney", card.getPersonName());
+        assertEquals("5555", card.getCreditCard());
+        assertEquals(0, accounts.loads.get());
+    }
+
+    private FunctionalWrapper<Person, PersonalCreditCard> cards() {
+        return DuckWings.builder().functional(PersonalCreditCard.class, Person.class)
+                .using(PersonalCreditCard::getPersonName, p -> p.getFirstName() + " " + p.getLastName())
+                .with(DuckWings.builder().functional(PersonalCreditCard.class, BankAccount.class)
+                        .using(PersonalCreditCard::getCreditCard, BankAccount::getCreditCard));
+    }
+
+
+    /**
+     * Stands for expensive loader, e.g. database repository.
+     */
+    static class Repository<E> {
+        private final Map<Integer, E> entities = new HashMap<>();
+        private final AtomicInteger loads = new AtomicInteger();
+
+        void put(int id, E entity) {
+            entities.put(id, entity);
+        }
+
+        E load(int id) {
+            loads.incrementAndGet();
+            return entities.get(id);
+        }
+    }
+
+    public interface AsyncName {
+        CompletableFuture<String> getFirstName();
+    }
+}
@@ -0,0 +1,193 @@
+package org.duckwings;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServerFactory;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.String.format;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MapWrapperTest {
+    @Test
+    void readsValues() {
+        Customer customer = DuckWings.builder().map(Customer.class).wrap(row(1, "John", 12.5, true));
+        assertEquals(1, customer.getId());
+        assertEquals("John", customer.getName());
+        assertEquals(12.5, customer.balance());
+        assertTrue(customer.isActive());
+    }
+
+    @Test
+    void convertsNumbers() {
+        Map<String, Object> row = new HashMap<>();
+        // e.g. JDBC driver returns BIGINT and DECIMAL columns
+        row.put("id", 7L);
+        row.put("balance", new BigDecimal("10.25"));
+        row.put("grade", "A");
+        Customer customer = DuckWings.builder().map(Customer.class).wrap(row);
+        assertEquals(7, customer.getId());
+        assertEquals(10.25, customer.balance());
+        assertEquals('A', customer.getGrade());
+    }
+
+    @Test
+    void nullValue() {
+        Customer customer = DuckWings.builder().map(Customer.class).wrap(row(null, null, null, null));
+        assertEquals(0, customer.getId());
+        assertNull(customer.getName());
+        assertEquals(0.0, customer.balance());
+    }
+
+    @Test
+    void absentKey() {
+        Map<String, Object> row = new HashMap<>();
+        row.put("name", "John");
+        row.put("active", "yes");
+        Customer customer = DuckWings.builder().map(Customer.class).wrap(row);
+        assertEquals(0, customer.getId());
+        // value of other type is handled as absent
+        assertEquals(false, customer.isActive());
+
+        Customer strict = DuckWings.builder()
+                .throwIfAbsentAtRuntime(m -> new UnsupportedOperationException(format("No %s", m.getName())))
+                .map(Customer.class).wrap(row);
+        assertEquals("John", strict.getName());
+        assertEquals("No getId", assertThrows(UnsupportedOperationException.class, strict::getId).getMessage());
+    }
+
+    @Test
+    void keysOfEachMapAreValidated() {
+        MapWrapper<Named> wrapper = DuckWings.builder()
+                .throwIfAbsentDuringBuilding(m -> new IllegalArgumentException(format("No %s", m.getName())))
+                .map(Named.class);
+        Map<String, Object> john = new HashMap<>();
+        john.put("name", "John");
+        assertEquals("John", wrapper.wrap(john).getName());
+        assertEquals("No getName", assertThrows(IllegalArgumentException.class, () -> wrapper.wrap(new HashMap<>())).getMessage());
+    }
+
+    @Test
+    void rows() {
+        RowWrapper<Customer> rows = DuckWings.builder().map(Customer.class).rows("name", "id", "balance");
+        assertEquals(asList("name", "id", "balance"), rows.keys());
+        assertEquals(1, rows.slot("id"));
+        assertEquals(-1, rows.slot("grade"));
+        Customer customer = rows.wrap(new Object[] {"John", 1, 12.5});
+        assertEquals(1, customer.getId());
+        assertEquals("John", customer.getName());
+        assertEquals(12.5, customer.balance());
+        // not in the keys
+        assertEquals(false, customer.isActive());
+        // short row
+        assertEquals(0.0, rows.wrap(new Object[] {"Paul"}).balance());
+    }
+
+    @Test
+    void rowFromMap() {
+        RowWrapper<Customer> rows = DuckWings.builder().map(Customer.class).rows("id", "name");
+        Object[] row = rows.row(row(3, "George", 1.0, false));
+        assertArrayEquals(new Object[] {3, "George"}, row);
+        assertEquals("George", rows.wrap(row).getName());
+    }
+
+    @Test
+    void defaultKeysAreProperties() {
+        RowWrapper<Named> rows = DuckWings.builder().map(Named.class).rows();
+        assertEquals(asList("name"), rows.keys());
+        assertEquals("Ringo", rows.wrap(new Object[] {"Ringo"}).getName());
+    }
+
+    @Test
+    void duplicateKey() {
+        assertThrows(IllegalArgumentException.class, () -> DuckWings.builder().map(Customer.class).rows("id", "id"));
+    }
+
+    @Test
+    void equality() {
+        MapWrapper<Customer> maps = DuckWings.builder().map(Customer.class);
+        assertEquals(maps.wrap(row(1, "John", 1.0, true)), maps.wrap(row(1, "John", 1.0, true)));
+        RowWrapper<Customer> rows = maps.rows("id", "name");
+        assertEquals(rows.wrap(new Object[] {1, "John"}), rows.wrap(new Object[] {1, "John"}));
+        assertEquals(rows.wrap(new Object[] {1, "John"}).hashCode(), rows.wrap(new Object[] {1, "John"}).hashCode());
+        assertNotEquals(rows.wrap(new Object[] {1, "John"}), rows.wrap(new Object[] {2, "John"}));
+        assertEquals("{id=1, name=John}", rows.wrap(new Object[] {1, "John"}).toString());
+
+        RowWrapper<Customer> identity = DuckWings.builder().equality(Equality.IDENTITY).map(Customer.class).rows("id", "name");
+        Object[] row = {1, "John"};
+        assertEquals(identity.wrap(row), identity.wrap(row));
+        assertNotEquals(identity.wrap(row), identity.wrap(new Object[] {1, "John"}));
+    }
+
+    @Test
+    void generatedAdapter() {
+        RowWrapper<Customer> rows = DuckWings.builder().map(Customer.class).rows("id");
+        Customer customer = rows.wrap(new Object[] {5});
+        assertTrue(customer.getClass().getName().contains("$$DuckWings$$Properties"));
+        Object[] row = {5};
+        assertSame(row, DuckWings.unwrap(rows.wrap(row)));
+    }
+
+    @Test
+    void proxyWhenMetricsAreEnabled() {
+        MapWrapper<Customer> wrapper = DuckWings.builder().metrics(MBeanServerFactory.newMBeanServer()).map(Customer.class);
+        Map<String, Object> row = row(1, "John", 1.0, true);
+        Customer customer = wrapper.wrap(row);
+        assertTrue(Proxy.isProxyClass(customer.getClass()));
+        assertEquals("John", customer.getName());
+        assertEquals(2, wrapper.rows("name", "id").wrap(new Object[] {"Paul", 2}).getId());
+        assertSame(row, DuckWings.unwrap(customer));
+    }
+
+    @Test
+    void flyweight() {
+        RowWrapper<Customer> rows = DuckWings.builder().map(Customer.class).rows("id", "name");
+        Customer customer = rows.flyweight();
+        long sum = 0;
+        for (int i = 0; i < 10; i++) {
+            sum += rows.rebind(customer, new Object[] {i, "c" + i}).getId();
+        }
+        assertEquals(45, sum);
+    }
+
+    @Test
+    void projection() {
+        RowWrapper<Customer> rows = DuckWings.builder().map(Customer.class).rows("id", "name");
+        List<Object[]> data = asList(new Object[] {1, "John"}, new Object[] {2L, "Paul"});
+        assertArrayEquals(new int[] {1, 2}, rows.projectInt(data, Customer::getId));
+        assertArrayEquals(new Object[] {"John", "Paul"}, rows.project(data, Customer::getName));
+    }
+
+    private static Map<String, Object> row(Object id, Object name, Object balance, Object active) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("name", name);
+        row.put("balance", balance);
+        row.put("active", active);
+        return row;
+    }
+
+
+    public interface Customer {
+        int getId();
+        String getName();
+        double balance();
+        boolean isActive();
+        char getGrade();
+    }
+
+    interface Named {
+        String getName();
+    }
+}
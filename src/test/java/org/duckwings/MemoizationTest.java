@@ -0,0 +1,164 @@
+package org.duckwings;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MemoizationTest {
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void computedOncePerWrap() {
+        FunctionalWrapper<Person, PersonalData> wrapper = fullName();
+        PersonalData data = wrapper.wrap(new Person("John", "Lennon", 1940));
+        assertEquals("John Lennon", data.getFullName());
+        assertEquals("John Lennon", data.getFullName());
+        assertEquals(1, calls.get());
+        assertEquals("John Lennon", wrapper.wrap(new Person("John", "Lennon", 1940)).getFullName());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void nullIsMemoized() {
+        FunctionalWrapper<Person, PersonalData> wrapper = DuckWings.builder().functional(PersonalData.class, Person.class)
+                .usingMemoized(PersonalData::getFullName, p -> {
+                    calls.incrementAndGet();
+                    return null;
+                });
+        PersonalData data = wrapper.wrap(new Person("John", "Lennon", 1940));
+        assertNull(data.getFullName());
+        assertNull(data.getFullName());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void failureIsNotMemoized() {
+        FunctionalWrapper<Person, PersonalData> wrapper = DuckWings.builder().functional(PersonalData.class, Person.class)
+                .usingMemoized(PersonalData::getFullName, p -> {
+                    if (calls.incrementAndGet() == 1) {
+                        throw new IllegalStateException();
+                    }
+                    return p.getFirstName();
+                });
+        PersonalData data = wrapper.wrap(new Person("John", "Lennon", 1940));
+        assertNull(data.getFullName());
+        assertEquals("John", data.getFullName());
+        assertEquals("John", data.getFullName());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void invalidate() {
+        StringBuilder name = new StringBuilder("John");
+        FunctionalWrapper<StringBuilder, PersonalData> wrapper = DuckWings.builder().functional(PersonalData.class, StringBuilder.class)
+                .usingMemoized(PersonalData::getFullName, StringBuilder::toString);
+        PersonalData data = wrapper.wrap(name);
+        assertEquals("John", data.getFullName());
+        name.append(" Lennon");
+        assertEquals("John", data.getFullName());
+        wrapper.invalidate(data);
+        assertEquals("John Lennon", data.getFullName());
+        assertThrows(IllegalArgumentException.class, () -> wrapper.invalidate(fullName().wrap(new Person("a", "b", 0))));
+    }
+
+    @Test
+    void methodWithParameter() {
+        FunctionalWrapper<String, Formatter> wrapper = DuckWings.builder().functional(Formatter.class, String.class)
+                .usingMemoized(Formatter::format, (String s, Integer width) -> {
+                    calls.incrementAndGet();
+                    return String.format("%" + width + "s", s);
+                });
+        Formatter formatter = wrapper.wrap("abc");
+        assertEquals("  abc", formatter.format(5));
+        assertEquals("  abc", formatter.format(5));
+        assertEquals("   abc", formatter.format(6));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void cacheOfMethodWithParameterIsBounded() {
+        FunctionalWrapper<String, Formatter> wrapper = DuckWings.builder().functional(Formatter.class, String.class)
+                .usingMemoized(Formatter::format, (String s, Integer width) -> {
+                    calls.incrementAndGet();
+                    return s + width;
+                });
+        Formatter formatter = wrapper.wrap("w");
+        for (int i = 0; i <= FunctionalWrapper.MEMOIZED_ENTRIES; i++) {
+            formatter.format(i);
+        }
+        assertEquals(FunctionalWrapper.MEMOIZED_ENTRIES + 1, calls.get());
+        // the most recent results are kept, the first one was discarded
+        formatter.format(FunctionalWrapper.MEMOIZED_ENTRIES);
+        assertEquals(FunctionalWrapper.MEMOIZED_ENTRIES + 1, calls.get());
+        formatter.format(0);
+        assertEquals(FunctionalWrapper.MEMOIZED_ENTRIES + 2, calls.get());
+    }
+
+    @Test
+    void flyweightDiscardsResultsOnRebind() {
+        FunctionalWrapper<Person, PersonalData> wrapper = fullName();
+        PersonalData data = wrapper.flyweight();
+        assertEquals("John Lennon", wrapper.rebind(data, new Person("John", "Lennon", 1940)).getFullName());
+        assertEquals("Paul McCartney", wrapper.rebind(data, new Person("Paul", "McCartney", 1942)).getFullName());
+    }
+
+    @Test
+    void generatedAdapter() {
+        FunctionalWrapper<Person, PersonalData> wrapper = fullName().usingInt(PersonalData::getAge, p -> 2000 - p.getYearOfBirth());
+        PersonalData data = wrapper.wrap(new Person("John", "Lennon", 1940));
+        assertEquals(60, data.getAge());
+        assertEquals("John Lennon", data.getFullName());
+        assertEquals("John Lennon", data.getFullName());
+        assertEquals(1, calls.get());
+        wrapper.invalidate(data);
+        assertEquals("John Lennon", data.getFullName());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void computedOnceByConcurrentCalls() throws Exception {
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        PersonalData data = fullName().wrap(new Person("John", "Lennon", 1940));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> names = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                names.add(executor.submit(() -> {
+                    start.await();
+                    return data.getFullName();
+                }));
+            }
+            start.countDown();
+            for (Future<String> name : names) {
+                assertEquals("John Lennon", name.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, calls.get());
+    }
+
+    private FunctionalWrapper<Person, PersonalData> fullName() {
+        return DuckWings.builder().functional(PersonalData.class, Person.class)
+                .usingMemoized(PersonalData::getFullName, p -> {
+                    calls.incrementAndGet();
+                    return p.getFirstName() + " " + p.getLastName();
+                });
+    }
+
+
+    public interface Formatter {
+        String format(Integer width);
+    }
+}
@@ -0,0 +1,43 @@
+package org.duckwings;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MethodOrdinalsTest {
+    @Test
+    void instancesAreComparedByIdentity() throws NoSuchMethodException {
+        MethodOrdinals ordinals = new MethodOrdinals(16);
+        Method length = CharSequence.class.getMethod("length");
+        ordinals.put(length, 3);
+        assertEquals(3, ordinals.get(length));
+        // equal copy is other instance
+        assertEquals(MethodOrdinals.ABSENT, ordinals.get(CharSequence.class.getMethod("length")));
+    }
+
+    @Test
+    void growsUpToBound() {
+        Method[] methods = Object.class.getMethods();
+        MethodOrdinals ordinals = new MethodOrdinals(methods.length - 1);
+        for (int i = 0; i < methods.length; i++) {
+            ordinals.put(methods[i], i);
+        }
+        for (int i = 0; i < methods.length - 1; i++) {
+            assertEquals(i, ordinals.get(methods[i]));
+        }
+        assertEquals(MethodOrdinals.ABSENT, ordinals.get(methods[methods.length - 1]));
+    }
+
+    @Test
+    void wrapperResolvesCopiesAndMethodsOfOtherInterfaces() throws NoSuchMethodException {
+        BaseWrapper<?, ?> wrapper = (BaseWrapper<?, ?>)DuckWings.builder().reflect(DuckWingsTest.Length.class);
+        int ordinal = wrapper.ordinal(DuckWingsTest.Length.class.getMethod("length"));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(ordinal, wrapper.ordinal(DuckWingsTest.Length.class.getMethod("length")));
+        }
+        assertEquals(ordinal, wrapper.ordinal(CharSequence.class.getMethod("length")));
+        assertEquals(-1, wrapper.ordinal(CharSequence.class.getMethod("charAt", int.class)));
+    }
+}
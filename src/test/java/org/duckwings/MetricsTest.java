@@ -0,0 +1,139 @@
+package org.duckwings;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsTest {
+    private final MBeanServer server = MBeanServerFactory.newMBeanServer();
+
+    @Test
+    void invocationsAndDefaultValues() throws Exception {
+        Wrapper<Object, Length> wrapper = DuckWings.builder().metrics(server).reflect(Length.class);
+        Length hello = wrapper.wrap("hello");
+        Length list = wrapper.wrap(new ArrayList<>());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(5, hello.length());
+        }
+        assertEquals(0, list.length());
+
+        WrapperMetricsMXBean bean = bean(Length.class);
+        assertEquals(Length.class.getName(), bean.getFace());
+        assertEquals("ReflectionalWrapper", bean.getWrapperType());
+        assertEquals(1001, bean.getInvocations());
+        assertEquals(1, bean.getDefaultValueReturns());
+        assertEquals(0, bean.getRuntimeFailures());
+
+        MethodMetrics length = method(bean, "length()");
+        assertEquals(1001, length.getInvocations());
+        // tables of String and ArrayList unless they were built by other wrappers of the face
+        long resolutions = length.getCachedResolutions() + length.getReflectiveResolutions();
+        assertTrue(resolutions <= 2, String.valueOf(resolutions));
+        assertEquals(length.getSampledInvocations(), Arrays.stream(length.getLatencyHistogram()).sum());
+        assertTrue(length.getSampledInvocations() > 0);
+
+        bean.reset();
+        assertEquals(0, bean.getInvocations());
+    }
+
+    @Test
+    void runtimeFailures() throws Exception {
+        Length length = DuckWings.builder().metrics(server)
+                .throwIfAbsentAtRuntime(m -> new IllegalStateException(m.getName()))
+                .reflect(Length.class).wrap(new ArrayList<>());
+        assertThrows(IllegalStateException.class, length::length);
+        assertEquals(1, bean(Length.class).getRuntimeFailures());
+        assertEquals(0, bean(Length.class).getDefaultValueReturns());
+    }
+
+    @Test
+    void fallbackHits() throws Exception {
+        PersonalData w = DuckWings.builder().metrics(server).functional(PersonalData.class, Person.class)
+                .using(PersonalData::getFullName, p -> p.getFirstName() + " " + p.getLastName())
+                .fallback(DuckWings.builder().reflect(PersonalData.class))
+                .wrap(new Person("John", "Lennon", 1940));
+        assertEquals("John Lennon", w.getFullName());
+        assertEquals("John", w.getFirstName());
+        assertEquals("Lennon", w.getLastName());
+
+        WrapperMetricsMXBean bean = bean(PersonalData.class);
+        assertEquals(3, bean.getInvocations());
+        assertEquals(2, bean.getFallbackHits());
+        assertEquals(1, method(bean, "getFirstName()").getFallbackHits());
+        assertEquals(0, method(bean, "getFullName()").getFallbackHits());
+    }
+
+    @Test
+    void meteredWrapperUsesProxy() throws Exception {
+        Wrapper<String, Length> wrapper = DuckWings.builder().metrics(server).generated(Length.class);
+        Length length = wrapper.wrap("hello");
+        assertTrue(Proxy.isProxyClass(length.getClass()));
+        assertEquals(5, length.length());
+        assertEquals("hello", wrapper.unwrap(length));
+        assertEquals(1, bean(Length.class).getInvocations());
+    }
+
+    @Test
+    void meteredFlyweight() throws Exception {
+        Wrapper<Object, Length> wrapper = DuckWings.builder().metrics(server).reflect(Length.class);
+        Length flyweight = wrapper.flyweight();
+        assertEquals(5, wrapper.rebind(flyweight, "hello").length());
+        assertEquals(2, wrapper.rebind(flyweight, "hi").length());
+        assertEquals(2, bean(Length.class).getInvocations());
+    }
+
+    @Test
+    void uncheckedFailureOfMeteredWrapper() throws Exception {
+        Length length = DuckWings.builder().metrics(server)
+                .throwIfAbsentAtRuntime(m -> new NoSuchMethodException(m.getName()))
+                .reflect(Length.class).wrap(new ArrayList<>());
+        assertThrows(UndeclaredThrowableException.class, length::length);
+        assertEquals(1, bean(Length.class).getInvocations());
+    }
+
+    @Test
+    void unregister() throws Exception {
+        Wrapper<Object, Length> wrapper = DuckWings.builder().metrics(server).reflect(Length.class);
+        Wrapper<Object, Length> other = DuckWings.builder().metrics(server).reflect(Length.class);
+        ObjectName pattern = new ObjectName("org.duckwings:type=Wrapper,face=" + Length.class.getName() + ",*");
+        assertEquals(2, server.queryNames(pattern, null).size());
+
+        DuckWings.unregisterMetrics(wrapper);
+        Set<ObjectName> names = server.queryNames(pattern, null);
+        assertEquals(1, names.size());
+        assertEquals(((BaseWrapper<?, ?>)other).metrics.name(), names.iterator().next());
+        assertFalse(server.isRegistered(((BaseWrapper<?, ?>)wrapper).metrics.name()));
+        // still works
+        assertEquals(5, wrapper.wrap("hello").length());
+        DuckWings.unregisterMetrics(wrapper);
+        // wrapper without metrics
+        DuckWings.unregisterMetrics(DuckWings.builder().reflect(Length.class));
+    }
+
+    private WrapperMetricsMXBean bean(Class<?> face) throws Exception {
+        Set<ObjectName> names = server.queryNames(new ObjectName("org.duckwings:type=Wrapper,face=" + face.getName() + ",*"), null);
+        assertEquals(1, names.size());
+        return JMX.newMXBeanProxy(server, names.iterator().next(), WrapperMetricsMXBean.class);
+    }
+
+    private static MethodMetrics method(WrapperMetricsMXBean bean, String name) {
+        return bean.getMethods().stream().filter(m -> name.equals(m.getMethod())).findFirst().orElseThrow(IllegalArgumentException::new);
+    }
+
+    public interface Length {
+        int length();
+    }
+}
@@ -8,6 +8,8 @@ import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class MultipleObjectsTest {
@@ -33,6 +35,51 @@ class MultipleObjectsTest {
     }
 
 
+    @Test
+    void reflectionalWrapperRoutesMethodsByClassesOfObjects() {
+        Wrapper<Object, Texts> wrapper = DuckWings.builder().reflect(Texts.class);
+        // the same wrapper serves different combinations of classes
+        Texts texts1 = wrapper.wrap(123, new StringBuilder("abc"), "hello");
+        Texts texts2 = wrapper.wrap(123, 456L, "hi", new StringBuilder("x"));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(123, texts1.intValue());
+            assertEquals(3, texts1.length());
+            assertEquals("HELLO", texts1.toUpperCase());
+            assertEquals(2, texts2.length());
+            assertEquals("HI", texts2.toUpperCase());
+        }
+        // none of the objects implements the method
+        assertEquals(null, wrapper.wrap(123, new StringBuilder("abc")).toUpperCase());
+    }
+
+    @Test
+    void routeIsSharedByObjectsOfSameClasses() {
+        ReflectionalWrapper<Object, Texts> wrapper = (ReflectionalWrapper<Object, Texts>)DuckWings.builder().reflect(Texts.class);
+        ReflectionalWrapper.Route route = wrapper.route(123, new Object[] {new StringBuilder("abc"), "hello"});
+        assertSame(route, wrapper.route(456, new Object[] {new StringBuilder(), "hi"}));
+        assertNotSame(route, wrapper.route(456, new Object[] {"hi", new StringBuilder()}));
+        assertSame(route, wrapper.route(789, new Object[] {new StringBuilder(), ""}));
+        assertNotSame(route, wrapper.route(456, new Object[] {new StringBuilder()}));
+    }
+
+    @Test
+    void functionalWrapperRoutesMethodsToLastObject() {
+        Wrapper<Integer, Texts> wrapper = DuckWings.builder().functional(Texts.class, Integer.class)
+                .using(Texts::intValue, Integer::intValue)
+                .with(
+                        DuckWings.builder().functional(Texts.class, Long.class),
+                        DuckWings.builder().functional(Texts.class, StringBuilder.class).using(Texts::length, StringBuilder::length),
+                        DuckWings.builder().functional(Texts.class, String.class).using(Texts::length, String::length).using(Texts::toUpperCase, String::toUpperCase)
+                );
+        Texts texts = wrapper.wrap(123, 456L, new StringBuilder("abc"), "hello");
+        assertEquals(123, texts.intValue());
+        assertEquals(3, texts.length());
+        assertEquals("HELLO", texts.toUpperCase());
+        // the object that implements the method is not passed
+        assertEquals(3, wrapper.wrap(123, 456L, new StringBuilder("abc")).length());
+        assertEquals(null, wrapper.wrap(123, 456L, new StringBuilder("abc")).toUpperCase());
+    }
+
     @Test
     void reflectionalWrapperMultipleObjectsSecondFailsNoFailureHandler() {
         // The primary object is Integer, secondary is string; we call String's method with wrong argument; this causes exception
@@ -97,6 +144,12 @@ class MultipleObjectsTest {
     }
 
 
+    public interface Texts {
+        int intValue();
+        int length();
+        String toUpperCase();
+    }
+
     public class NameAndAge {
         private final String fullName;
         private final int age;
@@ -0,0 +1,169 @@
+package org.duckwings;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.lang.reflect.UndeclaredThrowableException;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrimitiveFunctionsTest {
+    @Test
+    void intFunction() {
+        Length length = DuckWings.builder().functional(Length.class, String.class).usingInt(Length::length, String::length).wrap("hello");
+        assertFalse(Proxy.isProxyClass(length.getClass()));
+        assertEquals(5, length.length());
+    }
+
+    @Test
+    void allPrimitiveTypes() {
+        Wrapper<Account, Balance> wrapper = DuckWings.builder().functional(Balance.class, Account.class)
+                .usingInt(Balance::getId, Account::getId)
+                .usingLong(Balance::getVersion, Account::getVersion)
+                .usingDouble(Balance::getAmount, Account::getAmount)
+                .usingBoolean(Balance::isActive, Account::isActive)
+                .using(Balance::getOwner, Account::getOwner);
+        Balance balance = wrapper.wrap(new Account(7, 12345678901L, 99.5, true, "John"));
+        assertEquals(7, balance.getId());
+        assertEquals(12345678901L, balance.getVersion());
+        assertEquals(99.5, balance.getAmount());
+        assertTrue(balance.isActive());
+        assertEquals("John", balance.getOwner());
+    }
+
+    @Test
+    void primitiveFunctionsWithOneArgFunctions() {
+        Wrapper<String, Text> wrapper = DuckWings.builder().functional(Text.class, String.class)
+                .usingInt(Text::length, String::length)
+                .using(Text::indexOf, String::indexOf)
+                .using(Text::repeatedLength, (s, n) -> (long)s.length() * n)
+                .using(Text::ratio, (s, d) -> s.length() / d)
+                .using(Text::startsWith, String::startsWith);
+        Text text = wrapper.wrap("hello");
+        assertEquals(5, text.length());
+        assertEquals(2, text.indexOf("ll"));
+        assertEquals(15L, text.repeatedLength(3));
+        assertEquals(2.5, text.ratio(2.0));
+        assertTrue(text.startsWith("he"));
+        assertFalse(text.startsWith("lo"));
+    }
+
+    @Test
+    void unwrap() {
+        String str = "hello";
+        Wrapper<String, Length> wrapper = DuckWings.builder().functional(Length.class, String.class).usingInt(Length::length, String::length);
+        Length length = wrapper.wrap(str);
+        assertSame(str, wrapper.unwrap(length));
+        assertSame(str, DuckWings.unwrap(length));
+    }
+
+    @Test
+    void adapterClassIsSharedByWrappersOfSameShape() {
+        Length length1 = DuckWings.builder().functional(Length.class, String.class).usingInt(Length::length, String::length).wrap("hello");
+        Length length2 = DuckWings.builder().functional(Length.class, StringBuilder.class).usingInt(Length::length, StringBuilder::length).wrap(new StringBuilder("abc"));
+        assertSame(length1.getClass(), length2.getClass());
+        assertEquals(5, length1.length());
+        assertEquals(3, length2.length());
+    }
+
+    @Test
+    void notMappedMethodsUseFallback() {
+        Wrapper<Account, Balance> wrapper = DuckWings.builder().functional(Balance.class, Account.class)
+                .usingInt(Balance::getId, a -> a.getId() * 10)
+                .fallback(DuckWings.builder().reflect(Balance.class));
+        Balance balance = wrapper.wrap(new Account(7, 1L, 2.0, false, "Paul"));
+        assertFalse(Proxy.isProxyClass(balance.getClass()));
+        assertEquals(70, balance.getId());
+        assertEquals(1L, balance.getVersion());
+        assertEquals("Paul", balance.getOwner());
+        assertFalse(balance.isActive());
+    }
+
+    @Test
+    void exceptionThrownByFunctionReturnsDefaultValue() {
+        Length length = DuckWings.builder().functional(Length.class, String.class).usingInt(Length::length, s -> 1 / 0).wrap("hello");
+        assertEquals(0, length.length());
+    }
+
+    @Test
+    void throwIfAbsentAtRuntime() {
+        Balance balance = DuckWings.builder()
+                .throwIfAbsentAtRuntime((m) -> new NoSuchMethodException(format("Method %s does not exist", m.getName())))
+                .functional(Balance.class, Account.class)
+                .usingInt(Balance::getId, Account::getId)
+                .wrap(new Account(1, 1L, 1.0, true, "George"));
+        assertEquals(1, balance.getId());
+        UndeclaredThrowableException e = assertThrows(UndeclaredThrowableException.class, balance::getVersion);
+        assertEquals("Method getVersion does not exist", e.getCause().getMessage());
+    }
+
+    @Test
+    void flyweight() {
+        Wrapper<String, Length> wrapper = DuckWings.builder().functional(Length.class, String.class).usingInt(Length::length, String::length);
+        Length length = wrapper.flyweight();
+        assertEquals(2, wrapper.rebind(length, "hi").length());
+        assertEquals(5, wrapper.rebind(length, "hello").length());
+    }
+
+
+    interface Length {
+        int length();
+    }
+
+    interface Text {
+        int length();
+        int indexOf(String s);
+        long repeatedLength(int times);
+        double ratio(double divisor);
+        boolean startsWith(String prefix);
+    }
+
+    public interface Balance {
+        int getId();
+        long getVersion();
+        double getAmount();
+        boolean isActive();
+        String getOwner();
+    }
+
+    public static class Account {
+        private final int id;
+        private final long version;
+        private final double amount;
+        private final boolean active;
+        private final String owner;
+
+        Account(int id, long version, double amount, boolean active, String owner) {
+            this.id = id;
+            this.version = version;
+            this.amount = amount;
+            this.active = active;
+            this.owner = owner;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public double getAmount() {
+            return amount;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public String getOwner() {
+            return owner;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package org.duckwings;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.lang.String.format;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProjectionTest {
+    private final List<Item> items = asList(new Item(1, "one", 1.5), new Item(2, "two", 2.5), new Item(3, "three", 3.5));
+
+    @Test
+    void reflectionalWrapper() {
+        Wrapper<Object, Row> wrapper = DuckWings.builder().reflect(Row.class);
+        assertArrayEquals(new int[] {1, 2, 3}, wrapper.projectInt(items, Row::getId));
+        assertArrayEquals(new long[] {10, 20, 30}, wrapper.projectLong(items, Row::getVersion));
+        assertArrayEquals(new double[] {1.5, 2.5, 3.5}, wrapper.projectDouble(items, Row::getPrice));
+        assertArrayEquals(new Object[] {"one", "two", "three"}, wrapper.project(items, Row::getName));
+    }
+
+    @Test
+    void generatedWrapper() {
+        Wrapper<Object, Row> wrapper = DuckWings.builder().generated(Row.class);
+        assertArrayEquals(new int[] {1, 2, 3}, wrapper.projectInt(items, Row::getId));
+    }
+
+    @Test
+    void severalColumnsInOnePass() {
+        Projection.Columns columns = DuckWings.builder().<Object, Row>reflect(Row.class).projection()
+                .ints(Row::getId)
+                .objects(Row::getName)
+                .doubles(Row::getPrice)
+                .project(items);
+        assertEquals(3, columns.size());
+        assertArrayEquals(new int[] {1, 2, 3}, columns.ints(0));
+        assertArrayEquals(new Object[] {"one", "two", "three"}, columns.objects(1));
+        assertArrayEquals(new double[] {1.5, 2.5, 3.5}, columns.doubles(2));
+    }
+
+    @Test
+    void differentClasses() {
+        Wrapper<Object, Row> wrapper = DuckWings.builder().reflect(Row.class);
+        List<Object> mixed = asList(new Item(1, "one", 1.5), new Other("other"), new Item(2, "two", 2.5));
+        // Other does not implement getId(), so the default value is used
+        assertArrayEquals(new int[] {1, 0, 2}, wrapper.projectInt(mixed, Row::getId));
+        assertArrayEquals(new Object[] {"one", "other", "two"}, wrapper.project(mixed, Row::getName));
+    }
+
+    @Test
+    void lambdaIsReadThroughFace() {
+        Wrapper<Object, Row> wrapper = DuckWings.builder().reflect(Row.class);
+        assertArrayEquals(new int[] {2, 4, 6}, wrapper.projectInt(items, r -> r.getId() * 2));
+        assertArrayEquals(new Object[] {"ONE", "TWO", "THREE"}, wrapper.project(items, r -> r.getName().toUpperCase()));
+    }
+
+    @Test
+    void boxedColumnOfPrimitiveMethod() {
+        Wrapper<Object, Row> wrapper = DuckWings.builder().reflect(Row.class);
+        assertArrayEquals(new Object[] {1, 2, 3}, wrapper.project(items, Row::getId));
+        assertArrayEquals(new long[] {1, 2, 3}, wrapper.projectLong(items, Row::getId));
+    }
+
+    @Test
+    void functionalWrapper() {
+        FunctionalWrapper<Item, Row> wrapper = DuckWings.builder().functional(Row.class, Item.class)
+                .usingInt(Row::getId, i -> i.id * 100)
+                .using(Row::getName, i -> "#" + i.id)
+                .fallback(DuckWings.builder().reflect(Row.class));
+        Projection.Columns columns = wrapper.projection().ints(Row::getId).objects(Row::getName).doubles(Row::getPrice).project(items);
+        assertArrayEquals(new int[] {100, 200, 300}, columns.ints(0));
+        assertArrayEquals(new Object[] {"#1", "#2", "#3"}, columns.objects(1));
+        // not mapped, so it is read by the fallback through flyweight
+        assertArrayEquals(new double[] {1.5, 2.5, 3.5}, columns.doubles(2));
+    }
+
+    @Test
+    void compiledAdapterMapping() {
+        Wrapper<CompiledAdapterTest.Book, CompiledAdapterTest.Publication> wrapper = DuckWings.builder().reflect(CompiledAdapterTest.Publication.class);
+        List<CompiledAdapterTest.Book> books = asList(new CompiledAdapterTest.Book(1, "Ulysses"), new CompiledAdapterTest.Book(2, "Dubliners"));
+        assertArrayEquals(new Object[] {"Ulysses", "Dubliners"}, wrapper.project(books, CompiledAdapterTest.Publication::getTitle));
+    }
+
+    @Test
+    void parallel() {
+        List<Item> many = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            many.add(new Item(i, "item" + i, i / 2.0));
+        }
+        Projection.Columns columns = DuckWings.builder().<Object, Row>reflect(Row.class).projection()
+                .ints(Row::getId)
+                .objects(Row::getName)
+                .parallel(1000)
+                .project(many);
+        assertArrayEquals(IntStream.range(0, 10_000).toArray(), columns.ints(0));
+        assertEquals("item9999", columns.objects(1)[9999]);
+    }
+
+    @Test
+    void notRandomAccessList() {
+        Wrapper<Object, Row> wrapper = DuckWings.builder().reflect(Row.class);
+        assertArrayEquals(new int[] {1, 2, 3}, wrapper.projectInt(new LinkedList<>(items), Row::getId));
+    }
+
+    @Test
+    void throwIfAbsentAtRuntime() {
+        Wrapper<Object, Row> wrapper = DuckWings.builder()
+                .throwIfAbsentAtRuntime(m -> new UnsupportedOperationException(format("Method %s failed", m.getName())))
+                .reflect(Row.class);
+        UnsupportedOperationException e = assertThrows(UnsupportedOperationException.class,
+                () -> wrapper.projectInt(Arrays.asList(new Item(1, "one", 1), new Other("other")), Row::getId));
+        assertEquals("Method getId failed", e.getMessage());
+    }
+
+    @Test
+    void customWrapper() {
+        Wrapper<Item, Row> reflect = DuckWings.builder().reflect(Row.class);
+        Wrapper<Item, Row> custom = new Wrapper<Item, Row>() {
+            @Override
+            public Row wrap(Item obj, Object... others) {
+                return reflect.wrap(obj, others);
+            }
+
+            @Override
+            public Row unwrap(Object obj) {
+                return reflect.unwrap(obj);
+            }
+        };
+        assertArrayEquals(new int[] {1, 2, 3}, custom.projectInt(items, Row::getId));
+    }
+
+
+    public interface Row {
+        int getId();
+        long getVersion();
+        String getName();
+        double getPrice();
+    }
+
+    public static class Item {
+        private final int id;
+        private final String name;
+        private final double price;
+
+        Item(int id, String name, double price) {
+            this.id = id;
+            this.name = name;
+            this.price = price;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public long getVersion() {
+            return id * 10L;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+    }
+
+    public static class Other {
+        private final String name;
+
+        Other(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
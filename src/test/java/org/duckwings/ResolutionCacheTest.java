@@ -0,0 +1,176 @@
+package org.duckwings;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResolutionCacheTest {
+    @Test
+    void resolutionIsSharedByWrappers() throws Exception {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        Wrapper<Object, Counter> first = DuckWings.builder().reflect(Counter.class);
+        assertEquals(1, first.wrap(new Unique()).count());
+
+        Wrapper<Object, Counter> second = DuckWings.builder().metrics(server).reflect(Counter.class);
+        assertEquals(1, second.wrap(new Unique()).count());
+        WrapperMetricsMXBean metrics = JMX.newMXBeanProxy(
+                server, server.queryNames(new ObjectName("org.duckwings:*"), null).iterator().next(), WrapperMetricsMXBean.class);
+        assertEquals(0, metrics.getMethods().stream().mapToLong(MethodMetrics::getReflectiveResolutions).sum());
+    }
+
+    @Test
+    void targetClassCanBeUnloaded() throws Exception {
+        Wrapper<Object, Counter> wrapper = DuckWings.builder().reflect(Counter.class);
+        WeakReference<Class<?>> plugin = new WeakReference<>(loadPlugin());
+        Object target = plugin.get().getConstructor().newInstance();
+        assertNotSame(Unique.class, target.getClass());
+        assertEquals(1, wrapper.wrap(target).count());
+
+        target = null;
+        for (int i = 0; i < 20 && plugin.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(plugin.get());
+    }
+
+    @Test
+    void wrappersDoNotKeepTargetClass() throws Exception {
+        Wrapper<Object, Report> validating = DuckWings.builder().throwIfAbsentDuringBuilding(m -> new IllegalStateException(m.getName())).reflect(Report.class);
+        Wrapper<Object, Report> generated = DuckWings.builder().generated(Report.class);
+        WeakReference<Class<?>> plugin = new WeakReference<>(loadPlugin());
+        Object target = plugin.get().getConstructor().newInstance();
+        assertEquals(1, validating.wrap(target, new Name()).count());
+        assertEquals("name", validating.wrap(target, new Name()).getName());
+        assertEquals(1, generated.wrap(target).count());
+        assertEquals(1, generated.wrap(target, new Name()).count());
+        assertThrows(IllegalStateException.class, () -> validating.wrap(new Unique()));
+
+        target = null;
+        for (int i = 0; i < 20 && plugin.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(plugin.get());
+        // the wrappers are still in use
+        assertEquals("name", validating.wrap(new Unique(), new Name()).getName());
+        assertEquals(1, generated.wrap(new Unique()).count());
+    }
+
+    @Test
+    void tablesAreSharedByWrappersOfFace() {
+        ReflectionalWrapper<?, ?> first = (ReflectionalWrapper<?, ?>)DuckWings.builder().reflect(Counter.class);
+        ReflectionalWrapper<?, ?> second = (ReflectionalWrapper<?, ?>)DuckWings.builder().generated(Counter.class);
+        assertSame(first.table(Unique.class), second.table(Unique.class));
+        assertNotSame(first.table(Unique.class), ((ReflectionalWrapper<?, ?>)DuckWings.builder().reflect(Report.class)).table(Unique.class));
+    }
+
+    @Test
+    void inlineCacheServesTablesOfClasses() {
+        ReflectionalWrapper<?, ?> wrapper = (ReflectionalWrapper<?, ?>)DuckWings.builder().reflect(Counter.class);
+        Object[] tables = {wrapper.table(Unique.class), wrapper.table(Name.class), wrapper.table(Object.class)};
+        for (int i = 0; i < 6; i++) {
+            Class<?> type = i % 3 == 0 ? Unique.class : i % 3 == 1 ? Name.class : Object.class;
+            assertSame(tables[i % 3], wrapper.table(type));
+        }
+        assertNull(wrapper.table(Name.class)[0]);
+        assertNotNull(wrapper.table(Unique.class)[0]);
+    }
+
+    @Test
+    void faceCanBeUnloaded() throws Exception {
+        WeakReference<Class<?>> face = new WeakReference<>(load(Counter.class));
+        // context class loader of this thread does not see the face
+        Object view = DuckWings.builder().reflect(face.get()).wrap(new Unique());
+        assertEquals(1, face.get().getMethod("count").invoke(view));
+        view = null;
+
+        for (int i = 0; i < 20 && face.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(face.get());
+    }
+
+    @Test
+    void limit() {
+        try {
+            DuckWings.limitResolutionCache(2);
+            Wrapper<Object, Counter> wrapper = DuckWings.builder().reflect(Counter.class);
+            assertEquals(0, wrapper.wrap(new Object() {}).count());
+            assertEquals(0, wrapper.wrap(new Object() {}).count());
+            assertEquals(0, wrapper.wrap(new Object() {}).count());
+            assertTrue(ResolutionCache.size() <= 2);
+            // evicted classes are resolved again
+            assertEquals(1, wrapper.wrap(new Unique()).count());
+        } finally {
+            DuckWings.limitResolutionCache(0);
+        }
+    }
+
+    @Test
+    void negativeLimit() {
+        assertThrows(IllegalArgumentException.class, () -> DuckWings.limitResolutionCache(-1));
+    }
+
+    private static Class<?> loadPlugin() throws IOException, ClassNotFoundException {
+        return load(Unique.class);
+    }
+
+    /**
+     * @return copy of given class loaded by child class loader
+     */
+    private static Class<?> load(Class<?> type) throws IOException, ClassNotFoundException {
+        String name = type.getName();
+        byte[] bytes;
+        try (InputStream in = type.getResourceAsStream("/" + name.replace('.', '/') + ".class")) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            for (int n; (n = in.read(buffer)) > 0; ) {
+                out.write(buffer, 0, n);
+            }
+            bytes = out.toByteArray();
+        }
+        return new ClassLoader(ResolutionCacheTest.class.getClassLoader()) {
+            @Override
+            protected Class<?> loadClass(String className, boolean resolve) throws ClassNotFoundException {
+                return name.equals(className) ? defineClass(className, bytes, 0, bytes.length) : super.loadClass(className, resolve);
+            }
+        }.loadClass(name);
+    }
+
+    public interface Counter {
+        int count();
+    }
+
+    public interface Report extends Counter {
+        String getName();
+    }
+
+    public static class Name {
+        public String getName() {
+            return "name";
+        }
+    }
+
+    public static class Unique {
+        public int count() {
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.duckwings;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamTest {
+    private final List<String> words = asList("a", "bb", "ccc", "dddd");
+
+    @Test
+    void stream() {
+        Wrapper<String, Length> wrapper = DuckWings.builder().reflect(Length.class);
+        assertEquals(asList(1, 2, 3, 4), wrapper.stream(words).map(Length::length).collect(Collectors.toList()));
+        List<Length> wrapped = wrapper.stream(words).collect(Collectors.toList());
+        assertEquals("ccc", DuckWings.unwrap(wrapped.get(2)));
+    }
+
+    @Test
+    void parallelStream() {
+        List<String> many = many(100_000);
+        Wrapper<String, Length> wrapper = DuckWings.builder().reflect(Length.class);
+        long expected = many.stream().mapToLong(String::length).sum();
+        assertEquals(expected, wrapper.stream(many).parallel().mapToLong(Length::length).sum());
+        assertEquals(expected, wrapper.flyweightStream(many).parallel().mapToLong(Length::length).sum());
+    }
+
+    @Test
+    void flyweightPerSplit() {
+        List<String> many = many(100_000);
+        Set<Length> flyweights = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        FunctionalWrapper<String, Length> wrapper = DuckWings.builder().functional(Length.class, String.class).usingInt(Length::length, String::length);
+        long sum = wrapper.flyweightStream(many).parallel().peek(flyweights::add).mapToLong(Length::length).sum();
+        assertEquals(many.stream().mapToLong(String::length).sum(), sum);
+        // one flyweight per split at most, not per element
+        assertTrue(flyweights.size() <= 1024, "flyweights: " + flyweights.size());
+    }
+
+    @Test
+    void wrappingSpliterator() {
+        Wrapper<String, Length> wrapper = DuckWings.builder().reflect(Length.class);
+        Spliterator<Length> spliterator = wrapper.wrapping(new ArrayList<>(words).spliterator());
+        assertEquals(4, spliterator.getExactSizeIfKnown());
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        Spliterator<Length> prefix = spliterator.trySplit();
+        assertNotNull(prefix);
+        assertEquals(2, prefix.estimateSize());
+        assertEquals(2, spliterator.estimateSize());
+        assertTrue(prefix.tryAdvance(l -> assertEquals(1, l.length())));
+        assertEquals(asList(3, 4), StreamSupport.stream(spliterator, false).map(Length::length).collect(Collectors.toList()));
+    }
+
+    @Test
+    void sortedSourceIsNotSortedAfterWrapping() {
+        Wrapper<String, Length> wrapper = DuckWings.builder().reflect(Length.class);
+        Spliterator<String> source = new TreeSet<>(words).spliterator();
+        assertTrue(source.hasCharacteristics(Spliterator.SORTED));
+        assertFalse(wrapper.wrapping(source).hasCharacteristics(Spliterator.SORTED));
+        assertTrue(wrapper.wrapping(new TreeSet<>(words).spliterator()).hasCharacteristics(Spliterator.DISTINCT));
+        assertFalse(wrapper.flyweights(new TreeSet<>(words).spliterator()).hasCharacteristics(Spliterator.DISTINCT));
+    }
+
+    @Test
+    void nullElements() {
+        Wrapper<String, Length> wrapper = DuckWings.builder().reflect(Length.class);
+        List<Length> wrapped = wrapper.stream(asList("a", null)).collect(Collectors.toList());
+        assertEquals(1, wrapped.get(0).length());
+        assertNull(wrapped.get(1));
+    }
+
+    @Test
+    void collector() {
+        Wrapper<String, Length> wrapper = DuckWings.builder().reflect(Length.class);
+        List<Length> lengths = many(10_000).parallelStream().filter(s -> s.length() > 3).collect(wrapper.collector());
+        assertEquals(many(10_000).stream().filter(s -> s.length() > 3).count(), lengths.size());
+        assertEquals(lengths.stream().mapToInt(Length::length).sum(), many(10_000).stream().filter(s -> s.length() > 3).mapToInt(String::length).sum());
+    }
+
+    private static List<String> many(int n) {
+        return IntStream.range(0, n).mapToObj(Integer::toString).collect(Collectors.toList());
+    }
+
+
+    interface Length {
+        int length();
+    }
+}
@@ -0,0 +1,122 @@
+package org.duckwings;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WrapAllTest {
+    private final Wrapper<String, Length> wrapper = DuckWings.builder().functional(Length.class, String.class).using(Length::length, String::length);
+
+    @Test
+    void list() {
+        List<String> source = new ArrayList<>(Arrays.asList("a", "bb", "ccc"));
+        List<Length> view = wrapper.wrapAll(source);
+        assertTrue(view instanceof RandomAccess);
+        assertEquals(3, view.size());
+        assertEquals(2, view.get(1).length());
+
+        source.add("dddd");
+        assertEquals(4, view.size());
+        int expected = 1;
+        for (Length length : view) {
+            assertEquals(expected++, length.length());
+        }
+        assertThrows(UnsupportedOperationException.class, () -> view.add(null));
+    }
+
+    @Test
+    void sequentialList() {
+        List<Length> view = wrapper.wrapAll(new LinkedList<>(Arrays.asList("a", "bb")));
+        assertFalse(view instanceof RandomAccess);
+        Iterator<Length> it = view.iterator();
+        assertEquals(1, it.next().length());
+        assertEquals(2, it.next().length());
+        assertFalse(it.hasNext());
+    }
+
+    @Test
+    void elementsAreWrappedOnAccess() {
+        AtomicInteger wrapped = new AtomicInteger();
+        Wrapper<String, Length> counting = new Wrapper<String, Length>() {
+            @Override
+            public Length wrap(String obj, Object... others) {
+                wrapped.incrementAndGet();
+                return wrapper.wrap(obj, others);
+            }
+
+            @Override
+            public Length unwrap(Object obj) {
+                return wrapper.unwrap(obj);
+            }
+        };
+
+        List<String> source = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            source.add(Integer.toString(i));
+        }
+        List<Length> view = counting.wrapAll(source);
+        assertEquals(5, view.get(99_999).length());
+        assertEquals(2, view.subList(10, 20).get(0).length());
+        assertEquals(2, wrapped.get());
+    }
+
+    @Test
+    void iterable() {
+        Iterable<Length> view = wrapper.wrapAll(new LinkedHashSet<>(Arrays.asList("a", "bb")));
+        int expected = 1;
+        for (Length length : view) {
+            assertEquals(expected++, length.length());
+        }
+        assertEquals(3, expected);
+    }
+
+    @Test
+    void map() {
+        Map<Integer, String> source = new LinkedHashMap<>();
+        source.put(1, "a");
+        source.put(2, "bb");
+        Map<Integer, Length> view = wrapper.wrapAll(source);
+        assertEquals(2, view.size());
+        assertEquals(2, view.get(2).length());
+        assertNull(view.get(3));
+        assertTrue(view.containsKey(1));
+        assertEquals(Arrays.asList(1, 2), new ArrayList<>(view.keySet()));
+        for (Map.Entry<Integer, Length> e : view.entrySet()) {
+            assertEquals(e.getKey().intValue(), e.getValue().length());
+        }
+        assertEquals(2, view.values().size());
+    }
+
+    @Test
+    void array() {
+        String[] source = {"a", null, "ccc"};
+        List<Length> view = wrapper.wrapAll(source);
+        assertEquals(3, view.size());
+        assertEquals(1, view.get(0).length());
+        assertNull(view.get(1));
+        source[1] = "bb";
+        assertEquals(2, view.get(1).length());
+        assertSame(source[2], wrapper.unwrap(view.get(2)));
+    }
+
+
+    interface Length {
+        int length();
+    }
+}
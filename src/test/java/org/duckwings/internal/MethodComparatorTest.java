@@ -0,0 +1,33 @@
+package org.duckwings.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MethodComparatorTest {
+    private final MethodComparator comparator = new MethodComparator();
+
+    @Test
+    void sameSignatureInDifferentClasses() throws NoSuchMethodException {
+        assertEquals(0, comparator.compare(Collection.class.getMethod("size"), List.class.getMethod("size")));
+        assertEquals(0, comparator.compare(String.class.getMethod("substring", int.class, int.class), String.class.getMethod("substring", int.class, int.class)));
+    }
+
+    @Test
+    void differentSignatures() throws NoSuchMethodException {
+        assertNotEquals(0, comparator.compare(String.class.getMethod("substring", int.class), String.class.getMethod("substring", int.class, int.class)));
+        assertNotEquals(0, comparator.compare(String.class.getMethod("indexOf", int.class), String.class.getMethod("indexOf", String.class)));
+        assertNotEquals(0, comparator.compare(Collection.class.getMethod("size"), String.class.getMethod("length")));
+    }
+
+    @Test
+    void antisymmetric() throws NoSuchMethodException {
+        int result = comparator.compare(String.class.getMethod("indexOf", int.class), String.class.getMethod("indexOf", String.class));
+        assertTrue(result * comparator.compare(String.class.getMethod("indexOf", String.class), String.class.getMethod("indexOf", int.class)) < 0);
+    }
+}